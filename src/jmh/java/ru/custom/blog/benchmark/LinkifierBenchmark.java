@@ -0,0 +1,60 @@
+package ru.custom.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.custom.blog.render.Linkifier;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass {@link Linkifier} with the regex rendering PostModel used before.
+ * Run with {@code ./gradlew jmh}; add {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkifierBenchmark {
+    private static final String TEXT_SAMPLE = "Пример текста поста со ссылкой https://example.com/posts?id=1 и продолжением\n";
+    private static final int PREVIEW_LENGTH = 350;
+
+    @Param({"1024", "102400"})
+    private int textSize;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = TEXT_SAMPLE.repeat(textSize / TEXT_SAMPLE.length() + 1).substring(0, textSize);
+    }
+
+    @Benchmark
+    public String regexPreview() {
+        return text.length() > PREVIEW_LENGTH ? convertUrlsToLinks(text).substring(0, PREVIEW_LENGTH) + "..." : convertUrlsToLinks(text);
+    }
+
+    @Benchmark
+    public String linkifierPreview() {
+        return Linkifier.preview(text, PREVIEW_LENGTH, 4000);
+    }
+
+    @Benchmark
+    public List<String> regexParts() {
+        return Arrays.asList(convertUrlsToLinks(text).split("\\R", -1));
+    }
+
+    @Benchmark
+    public List<String> linkifierParts() {
+        return Linkifier.lines(text);
+    }
+
+    private static String convertUrlsToLinks(String text) {
+        return text.replaceAll(
+            "(https?://[^\\s\"']+)",
+            "<a href=\"$1\" target=\"_blank\">$1</a>"
+        );
+    }
+}
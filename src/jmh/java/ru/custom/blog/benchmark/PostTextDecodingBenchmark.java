@@ -0,0 +1,115 @@
+package ru.custom.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading posts.text stored as BLOB (per-char and bulk decoding) with reading it stored as CLOB.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostTextDecodingBenchmark {
+    private static final String TEXT_SAMPLE = "Пример текста поста со ссылкой https://example.com/posts?id=1\n";
+
+    @Param({"1024", "102400", "5242880"})
+    private int textSize;
+
+    private Connection connection;
+    private PreparedStatement selectBlob;
+    private PreparedStatement selectClob;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:text_benchmark_" + textSize, "sa", "sa");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE blob_posts(id INTEGER PRIMARY KEY, text BLOB NOT NULL)");
+            statement.execute("CREATE TABLE clob_posts(id INTEGER PRIMARY KEY, text CLOB NOT NULL)");
+        }
+
+        String text = generateText(textSize);
+
+        try (PreparedStatement insertBlob = connection.prepareStatement("INSERT INTO blob_posts VALUES (1, ?)");
+             PreparedStatement insertClob = connection.prepareStatement("INSERT INTO clob_posts VALUES (1, ?)")) {
+            insertBlob.setBlob(1, new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+            insertBlob.executeUpdate();
+
+            insertClob.setString(1, text);
+            insertClob.executeUpdate();
+        }
+
+        selectBlob = connection.prepareStatement("SELECT text FROM blob_posts WHERE id = 1");
+        selectClob = connection.prepareStatement("SELECT text FROM clob_posts WHERE id = 1");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    public String blobPerChar() throws SQLException, IOException {
+        try (ResultSet rs = selectBlob.executeQuery()) {
+            rs.next();
+
+            StringBuilder builder = new StringBuilder();
+            try (BufferedReader br = new BufferedReader(
+                new InputStreamReader(rs.getBlob(1).getBinaryStream(), StandardCharsets.UTF_8))) {
+
+                int c;
+                while ((c = br.read()) != -1) {
+                    builder.append((char) c);
+                }
+            }
+
+            return builder.toString();
+        }
+    }
+
+    @Benchmark
+    public String blobBulk() throws SQLException {
+        try (ResultSet rs = selectBlob.executeQuery()) {
+            rs.next();
+
+            Blob blob = rs.getBlob(1);
+            try {
+                return new String(blob.getBytes(1, (int) blob.length()), StandardCharsets.UTF_8);
+            } finally {
+                blob.free();
+            }
+        }
+    }
+
+    @Benchmark
+    public String clobGetString() throws SQLException {
+        try (ResultSet rs = selectClob.executeQuery()) {
+            rs.next();
+
+            return rs.getString(1);
+        }
+    }
+
+    private static String generateText(int size) {
+        StringBuilder builder = new StringBuilder(size + TEXT_SAMPLE.length());
+
+        while (builder.length() < size) {
+            builder.append(TEXT_SAMPLE);
+        }
+
+        return builder.substring(0, size);
+    }
+}
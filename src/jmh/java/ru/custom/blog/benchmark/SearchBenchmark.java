@@ -0,0 +1,67 @@
+package ru.custom.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.custom.blog.search.InvertedIndex;
+import ru.custom.blog.search.SearchHits;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the in-memory search index over a synthetic corpus.
+ * Run with {@code ./gradlew jmh}; use {@code -prof gc} or SampleTime mode to look at tail latencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SearchBenchmark {
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int TERMS_PER_POST = 120;
+
+    @Param({"1000000"})
+    private int posts;
+
+    private InvertedIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new InvertedIndex();
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (long id = 1; id <= posts; id++) {
+            List<String> terms = new ArrayList<>(TERMS_PER_POST);
+            for (int i = 0; i < TERMS_PER_POST; i++) {
+                terms.add(word(zipf(random)));
+            }
+            index.index(id, terms);
+        }
+    }
+
+    @Benchmark
+    public SearchHits commonTerm() {
+        return index.search(List.of(word(1)), 0, 10);
+    }
+
+    @Benchmark
+    public SearchHits rareTerm() {
+        return index.search(List.of(word(VOCABULARY_SIZE / 2)), 0, 10);
+    }
+
+    @Benchmark
+    public SearchHits commonAndRareTerms() {
+        return index.search(List.of(word(1), word(5), word(VOCABULARY_SIZE / 4)), 0, 10);
+    }
+
+    private static int zipf(SplittableRandom random) {
+        return (int) Math.min(VOCABULARY_SIZE - 1, Math.floor(Math.pow(VOCABULARY_SIZE, random.nextDouble())));
+    }
+
+    private static String word(int rank) {
+        return "w" + rank;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.custom.blog.cache;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.http.MediaType;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * An image file held in a read-only direct buffer together with the headers it is served with.
+ * Every reader gets its own view of the buffer, so one instance can be served to any number of requests at once.
+ */
+public class CachedImage extends AbstractResource {
+    private final Path path;
+    private final ByteBuffer content;
+    private final MediaType contentType;
+    private final String eTag;
+    private final long lastModified;
+
+    public CachedImage(Path path, ByteBuffer content, MediaType contentType, String eTag, long lastModified) {
+        this.path = path;
+        this.content = content.asReadOnlyBuffer();
+        this.contentType = contentType;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public ByteBuffer content() {
+        return content.duplicate();
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public long contentLength() {
+        return content.capacity();
+    }
+
+    @Override
+    public String getFilename() {
+        return path.getFileName().toString();
+    }
+
+    @Override
+    public String getDescription() {
+        return "cached image [" + path + "]";
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new BufferInputStream(content());
+    }
+
+    @Override
+    public ReadableByteChannel readableChannel() {
+        return Channels.newChannel(getInputStream());
+    }
+
+    private static class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.custom.blog.cache;
+
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a {@link CachedImage} straight from its direct buffer. On Tomcat the buffer is handed to the connector
+ * as is; elsewhere it goes through a channel. Range requests are still served by Spring's region converter.
+ */
+@Component
+public class CachedImageMessageConverter extends AbstractHttpMessageConverter<CachedImage> {
+
+    public CachedImageMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CachedImage.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CachedImage readInternal(Class<? extends CachedImage> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached images are write-only", inputMessage);
+    }
+
+    @Override
+    protected MediaType getDefaultContentType(CachedImage image) {
+        return image.getContentType();
+    }
+
+    @Override
+    protected Long getContentLength(CachedImage image, MediaType contentType) {
+        return image.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(CachedImage image, HttpOutputMessage outputMessage) throws IOException {
+        ByteBuffer content = image.content();
+        OutputStream body = outputMessage.getBody();
+
+        if (body instanceof CoyoteOutputStream coyote) {
+            coyote.write(content);
+        } else {
+            WritableByteChannel channel = Channels.newChannel(body);
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        }
+
+        body.flush();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.custom.blog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendered feed pages keyed by request parameters. Every cached page remembers the content version it was
+ * rendered for; any post, comment or like change bumps the version and so retires all pages at once.
+ */
+@Component
+public class FeedCache {
+    private final AtomicLong version = new AtomicLong();
+    private final Cache<Key, Page> pages;
+
+    public FeedCache(MeterRegistry meterRegistry, @Value("${blog.cache.feed.max-bytes:16777216}") long maxBytes) {
+        this.pages = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Key key, Page page) -> page.body().length)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "feed");
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    public Optional<Page> get(Key key) {
+        Page page = pages.getIfPresent(key);
+
+        if (page == null || page.version() != version.get()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(page);
+    }
+
+    public void put(Key key, Page page) {
+        if (page.version() == version.get()) {
+            pages.put(key, page);
+        }
+    }
+
+    public record Key(String pageNumber, String pageSize, String cursor, String search) {
+    }
+
+    public record Page(long version, String contentType, byte[] body) {
+    }
+
+    static Key key(String pageNumber, String pageSize, String cursor, String search) {
+        return new Key(Objects.toString(pageNumber, ""), Objects.toString(pageSize, ""),
+            Objects.toString(cursor, ""), Objects.toString(search, ""));
+    }
+}
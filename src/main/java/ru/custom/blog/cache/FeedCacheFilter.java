@@ -0,0 +1,68 @@
+package ru.custom.blog.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Serves GET /posts from {@link FeedCache} without running the controller or the template.
+ */
+@Component
+public class FeedCacheFilter extends OncePerRequestFilter {
+    public static final String CACHE_HEADER = "X-Feed-Cache";
+
+    private static final String FEED_PATH = "/posts";
+
+    private final FeedCache feedCache;
+
+    public FeedCacheFilter(FeedCache feedCache) {
+        this.feedCache = feedCache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        return !HttpMethod.GET.matches(request.getMethod()) || !FEED_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+
+        FeedCache.Key key = FeedCache.key(
+            request.getParameter("pageNumber"),
+            request.getParameter("pageSize"),
+            request.getParameter("cursor"),
+            request.getParameter("search"));
+
+        Optional<FeedCache.Page> cached = feedCache.get(key);
+        if (cached.isPresent()) {
+            response.setHeader(CACHE_HEADER, "HIT");
+            response.setContentType(cached.get().contentType());
+            response.setContentLength(cached.get().body().length);
+            response.getOutputStream().write(cached.get().body());
+            return;
+        }
+
+        long version = feedCache.version();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(CACHE_HEADER, "MISS");
+
+        filterChain.doFilter(request, wrapper);
+
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null) {
+            feedCache.put(key, new FeedCache.Page(version, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+        }
+
+        wrapper.copyBodyToResponse();
+    }
+}
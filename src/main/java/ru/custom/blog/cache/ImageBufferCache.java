@@ -0,0 +1,90 @@
+package ru.custom.blog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Hot image files copied into direct buffers, keyed by path. Stored blobs never change in place,
+ * so an entry stays valid until the file is deleted; the total is capped by bytes and evicted by Caffeine.
+ * A file is buffered only on its second load within the admission window, so a scan over the image store
+ * streams from disk instead of churning direct memory that is freed only by a later GC.
+ */
+@Component
+public class ImageBufferCache {
+    private final Cache<Path, CachedImage> images;
+    private final Cache<Path, Boolean> candidates;
+    private final long maxEntryBytes;
+
+    public ImageBufferCache(MeterRegistry meterRegistry,
+                            @Value("${blog.cache.image-buffers.max-bytes:67108864}") long maxBytes,
+                            @Value("${blog.cache.image-buffers.max-entry-bytes:4194304}") long maxEntryBytes,
+                            @Value("${blog.cache.image-buffers.admission-window:10000}") long admissionWindow) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.candidates = Caffeine.newBuilder()
+            .maximumSize(admissionWindow)
+            .build();
+        this.images = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Path path, CachedImage image) -> (int) image.contentLength())
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, images, "image_buffers");
+        Gauge.builder("image.buffers.resident", this, ImageBufferCache::residentBytes)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("image.buffers.hit.ratio", images, cache -> cache.stats().hitRate())
+            .register(meterRegistry);
+    }
+
+    public Optional<CachedImage> get(Path path) {
+        return Optional.ofNullable(images.getIfPresent(path));
+    }
+
+    /**
+     * Reads the file into a direct buffer and caches it if it was already loaded recently; otherwise only remembers
+     * the path and leaves the file on disk. Files above {@code max-entry-bytes} are never buffered.
+     * A missing or unreadable file is reported to the caller.
+     */
+    public Optional<CachedImage> load(Path path, MediaType contentType, String eTag, long lastModified) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > maxEntryBytes) return Optional.empty();
+            if (candidates.asMap().putIfAbsent(path, Boolean.TRUE) == null) return Optional.empty();
+
+            ByteBuffer content = ByteBuffer.allocateDirect((int) size);
+            while (content.hasRemaining()) {
+                if (channel.read(content) < 0) return Optional.empty();
+            }
+
+            CachedImage image = new CachedImage(path, content.flip(), contentType, eTag, lastModified);
+            images.put(path, image);
+            candidates.invalidate(path);
+
+            return Optional.of(image);
+        }
+    }
+
+    public void invalidate(Collection<Path> paths) {
+        images.invalidateAll(paths);
+        candidates.invalidateAll(paths);
+    }
+
+    public long residentBytes() {
+        return images.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+}
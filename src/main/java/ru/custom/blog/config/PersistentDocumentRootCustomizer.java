@@ -0,0 +1,29 @@
+package ru.custom.blog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+
+/**
+ * Uploaded and seeded images live under the servlet document root, which is a temporary directory by default.
+ * With the persistent profile it is moved next to the database so image paths stay valid after a restart.
+ */
+@Component
+@Profile("persistent")
+public class PersistentDocumentRootCustomizer implements WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> {
+    private final File documentRoot;
+
+    public PersistentDocumentRootCustomizer(@Value("${blog.data-dir}") String dataDir) {
+        this.documentRoot = new File(dataDir, "webroot").getAbsoluteFile();
+    }
+
+    @Override
+    public void customize(ConfigurableServletWebServerFactory factory) {
+        documentRoot.mkdirs();
+        factory.setDocumentRoot(documentRoot);
+    }
+}
@@ -2,6 +2,8 @@ package ru.custom.blog.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -19,6 +21,17 @@ public class CommentController {
         this.commentService = commentService;
     }
 
+    @GetMapping("/posts/{id}/comments")
+    public String showComments(
+        @PathVariable("id") Long postId,
+        @RequestParam(name = "after", required = false) Long afterId,
+        Model model) {
+
+        model.addAttribute("comments", commentService.getPage(postId, afterId));
+
+        return "post :: comments";
+    }
+
     @PostMapping("/posts/{id}/comments")
     public String handleAddComment(
         @PathVariable("id") Long postId,
@@ -38,7 +51,7 @@ public class CommentController {
         @PathVariable("id") Long postId,
         @PathVariable("commentId") Long commentId) {
 
-        commentService.removeComment(commentId);
+        commentService.removeComment(postId, commentId);
 
         return REDIRECT_POSTS + "/" + postId;
     }
@@ -0,0 +1,48 @@
+package ru.custom.blog.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.custom.blog.exporter.PostExporter;
+
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@RestController
+public class ExportController {
+    private static final String EXPORT_FILE = "posts.ndjson";
+    private static final String ZIP_FORMAT = "zip";
+
+    private final PostExporter postExporter;
+
+    public ExportController(PostExporter postExporter) {
+        this.postExporter = postExporter;
+    }
+
+    @GetMapping("/posts/export")
+    public ResponseEntity<StreamingResponseBody> exportPosts(
+        @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+
+        if (ZIP_FORMAT.equals(format)) {
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + EXPORT_FILE + ".zip\"")
+                .body(output -> {
+                    ZipOutputStream zip = new ZipOutputStream(output);
+                    zip.putNextEntry(new ZipEntry(EXPORT_FILE));
+                    postExporter.writeNdjson(zip);
+                    zip.closeEntry();
+                    zip.finish();
+                });
+        }
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + EXPORT_FILE + "\"")
+            .body(postExporter::writeNdjson);
+    }
+}
@@ -1,10 +1,12 @@
 package ru.custom.blog.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.custom.blog.service.ImageService;
 
@@ -19,7 +21,10 @@ public class ImageController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Resource> getImage(@PathVariable(name = "id") Long id) {
-        return imageService.getImage(id);
+    public ResponseEntity<Resource> getImage(@PathVariable(name = "id") Long id,
+                                             @RequestParam(name = "size", required = false) Integer size,
+                                             @RequestParam(name = "v", required = false) String version,
+                                             HttpServletRequest request) {
+        return imageService.getImage(id, size, version, request);
     }
 }
@@ -0,0 +1,35 @@
+package ru.custom.blog.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import ru.custom.blog.importer.ImportReport;
+import ru.custom.blog.importer.InvalidImportException;
+import ru.custom.blog.importer.PostImporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+public class ImportController {
+    private final PostImporter postImporter;
+
+    public ImportController(PostImporter postImporter) {
+        this.postImporter = postImporter;
+    }
+
+    @PostMapping(value = "/posts/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importPosts(InputStream body, HttpServletRequest request) throws IOException {
+        try {
+            return postImporter.importNdjson(body, request.getServletContext().getRealPath(""));
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getOriginalMessage());
+        } catch (InvalidImportException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -10,21 +10,28 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.model.PostSummary;
+import ru.custom.blog.pagination.PageCursor;
 import ru.custom.blog.pagination.Paging;
+import ru.custom.blog.search.SearchPage;
+import ru.custom.blog.service.CommentService;
 import ru.custom.blog.service.PostService;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Controller
 public class PostsController {
     private final PostService postService;
+    private final CommentService commentService;
 
     private static final String REDIRECT_POSTS = "redirect:/posts";
 
     @Autowired
-    public PostsController(PostService postService) {
+    public PostsController(PostService postService, CommentService commentService) {
         this.postService = postService;
+        this.commentService = commentService;
     }
 
     @GetMapping("/")
@@ -37,22 +44,38 @@ public class PostsController {
         @RequestParam(name = "pageNumber", defaultValue = "1") int page,
         @RequestParam(name = "pageSize", defaultValue = "10") int pageSize,
         @RequestParam(name = "search", required = false) String tag,
+        @RequestParam(name = "cursor", required = false) String cursor,
         Model model) {
 
-        List<PostModel> posts;
+        List<PostSummary> posts;
+        Paging paging;
 
-        long totalElements = postService.getTotalPostsCount();
+        Optional<PageCursor> pageCursor = Optional.ofNullable(cursor).flatMap(PageCursor::decode);
 
-        if (tag != null && !tag.isEmpty()) {
-            posts = postService.getPageByTag(tag, pageSize);
+        if (tag != null && !tag.isBlank()) {
+            SearchPage result = postService.search(tag, page, pageSize);
+            posts = result.getPosts();
+            paging = new Paging(posts, page, pageSize, result.getTotal());
         } else {
-            posts = postService.getPage(page, pageSize);
+            long totalElements = postService.getTotalPostsCount();
+
+            if (pageCursor.isPresent()) {
+                page = pageCursor.get().pageNumber();
+                posts = pageCursor.get().isAfter()
+                    ? postService.getPageAfter(pageCursor.get().postId(), pageSize)
+                    : postService.getPageBefore(pageCursor.get().postId(), pageSize);
+            } else {
+                posts = postService.getPage(page, pageSize);
+            }
+
+            paging = Paging.withCursors(posts, page, pageSize, totalElements);
         }
 
         model.addAttribute("posts", posts);
-        model.addAttribute("paging", new Paging(posts, page, pageSize, totalElements));
+        model.addAttribute("paging", paging);
         model.addAttribute("pageSize", pageSize);
         model.addAttribute("currentPage", page);
+        model.addAttribute("search", tag);
 
         return "posts";
     }
@@ -104,6 +127,7 @@ public class PostsController {
         Model model) {
 
         model.addAttribute("post", postService.getPost(id));
+        model.addAttribute("comments", commentService.getPage(id, null));
 
         return "post";
     }
@@ -0,0 +1,27 @@
+package ru.custom.blog.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import ru.custom.blog.upload.StreamingPostUpload;
+
+import java.io.IOException;
+
+@Controller
+public class UploadController {
+    private static final String REDIRECT_POSTS = "redirect:/posts";
+
+    private final StreamingPostUpload streamingPostUpload;
+
+    public UploadController(StreamingPostUpload streamingPostUpload) {
+        this.streamingPostUpload = streamingPostUpload;
+    }
+
+    @PostMapping(value = StreamingPostUpload.PATH, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public String handleUploadPost(HttpServletRequest request) throws IOException {
+        Long postId = streamingPostUpload.upload(request, request.getServletContext().getRealPath(""));
+
+        return REDIRECT_POSTS + "/" + postId;
+    }
+}
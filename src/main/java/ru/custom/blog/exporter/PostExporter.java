@@ -0,0 +1,92 @@
+package ru.custom.blog.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.service.LikeAggregator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes every post with its comments and image path as one NDJSON line, in the format
+ * {@code POST /posts/import} accepts. Posts are written as the cursor reaches them, so heap use does not grow with the export.
+ */
+@Service
+public class PostExporter {
+    private static final Logger logger = LoggerFactory.getLogger(PostExporter.class);
+
+    private final PostRepository postRepository;
+    private final LikeAggregator likeAggregator;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public PostExporter(PostRepository postRepository, LikeAggregator likeAggregator, ObjectMapper objectMapper,
+                        @Value("${blog.export.fetch-size:500}") int fetchSize) {
+        this.postRepository = postRepository;
+        this.likeAggregator = likeAggregator;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public long writeNdjson(OutputStream output) throws IOException {
+        long start = System.currentTimeMillis();
+        AtomicLong written = new AtomicLong();
+
+        likeAggregator.flush();
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            postRepository.streamPosts(fetchSize, post -> {
+                try {
+                    writePost(generator, post);
+                    written.incrementAndGet();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info(String.format("Exported %d posts in %d ms (%d posts/sec)",
+            written.get(), elapsed, written.get() * 1000 / Math.max(1, elapsed)));
+
+        return written.get();
+    }
+
+    private void writePost(JsonGenerator generator, PostModel post) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", post.getId());
+        generator.writeStringField("title", post.getTitle());
+        generator.writeStringField("text", post.getText());
+        generator.writeStringField("imagePath", post.getImagePath());
+        generator.writeNumberField("likesCount", post.getLikesCount());
+
+        generator.writeArrayFieldStart("tags");
+        for (String tag : post.getDistinctTags()) {
+            generator.writeString(tag);
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("comments");
+        for (CommentModel comment : post.getComments()) {
+            generator.writeString(comment.getText());
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,29 @@
+package ru.custom.blog.importer;
+
+public class ImportReport {
+    private final long posts;
+    private final long comments;
+    private final long elapsedMillis;
+
+    public ImportReport(long posts, long comments, long elapsedMillis) {
+        this.posts = posts;
+        this.comments = comments;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getPosts() {
+        return this.posts;
+    }
+
+    public long getComments() {
+        return this.comments;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return (this.posts + this.comments) * 1000 / Math.max(1, this.elapsedMillis);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.custom.blog.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of an NDJSON import: a post with its tags and comment texts.
+ */
+public class ImportedPost {
+    private String title;
+    private String text;
+    private String imagePath;
+    private Integer likesCount;
+    private List<String> tags;
+    private List<String> comments;
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public String getImagePath() {
+        return this.imagePath != null ? this.imagePath : "";
+    }
+
+    public Integer getLikesCount() {
+        return this.likesCount != null ? this.likesCount : 0;
+    }
+
+    public List<String> getTags() {
+        return this.tags != null ? this.tags : new ArrayList<>();
+    }
+
+    public List<String> getComments() {
+        return this.comments != null ? this.comments : new ArrayList<>();
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public void setImagePath(String imagePath) {
+        this.imagePath = imagePath;
+    }
+
+    public void setLikesCount(Integer likesCount) {
+        this.likesCount = likesCount;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public void setComments(List<String> comments) {
+        this.comments = comments;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.custom.blog.importer;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an import record parses but can't be stored as a post, e.g. it has no title.
+ */
+public class InvalidImportException extends IOException {
+    private final long record;
+
+    public InvalidImportException(long record, String reason) {
+        super(String.format("Record %d: %s", record, reason));
+        this.record = record;
+    }
+
+    public long getRecord() {
+        return record;
+    }
+}
@@ -0,0 +1,174 @@
+package ru.custom.blog.importer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.custom.blog.cache.FeedCache;
+import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.render.PostRenderer;
+import ru.custom.blog.repository.CommentRepository;
+import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.search.PostSearchIndex;
+import ru.custom.blog.service.PostCounts;
+import ru.custom.blog.storage.ImageBlobStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams NDJSON posts into the database. Lines are read one at a time; every {@code batch-size} posts go out
+ * as one JDBC batch, and {@code batches-per-transaction} batches are committed together.
+ * A record without title or text, or with a tag containing whitespace, stops the import; chunks committed before it stay.
+ * An image path outside the image store is dropped; one inside it is stored absolute and normalized, the way uploads are.
+ */
+@Service
+public class PostImporter {
+    private static final Logger logger = LoggerFactory.getLogger(PostImporter.class);
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final PostRenderer postRenderer;
+    private final PostCounts postCounts;
+    private final PostSearchIndex postSearchIndex;
+    private final FeedCache feedCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader reader;
+    private final int batchSize;
+    private final int chunkSize;
+
+    public PostImporter(PostRepository postRepository, CommentRepository commentRepository, PostRenderer postRenderer,
+                        PostCounts postCounts, PostSearchIndex postSearchIndex, FeedCache feedCache,
+                        TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                        @Value("${blog.import.batch-size:1000}") int batchSize,
+                        @Value("${blog.import.batches-per-transaction:10}") int batchesPerTransaction) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.postRenderer = postRenderer;
+        this.postCounts = postCounts;
+        this.postSearchIndex = postSearchIndex;
+        this.feedCache = feedCache;
+        this.transactionTemplate = transactionTemplate;
+        this.reader = objectMapper.readerFor(ImportedPost.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.batchSize = batchSize;
+        this.chunkSize = batchSize * batchesPerTransaction;
+    }
+
+    public ImportReport importNdjson(InputStream input, String basePath) throws IOException {
+        long start = System.currentTimeMillis();
+        long posts = 0;
+        long comments = 0;
+        List<ImportedPost> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<ImportedPost> records = reader.readValues(input)) {
+            while (records.hasNextValue()) {
+                chunk.add(validate(records.nextValue(), posts + chunk.size() + 1, basePath));
+
+                if (chunk.size() == chunkSize) {
+                    comments += saveChunk(chunk);
+                    posts += chunk.size();
+                    chunk.clear();
+                }
+            }
+
+            comments += saveChunk(chunk);
+            posts += chunk.size();
+        } finally {
+            if (posts > 0) {
+                feedCache.invalidate();
+            }
+        }
+
+        ImportReport report = new ImportReport(posts, comments, System.currentTimeMillis() - start);
+        logger.info(String.format("Imported %d posts and %d comments in %d ms (%d rows/sec)",
+            report.getPosts(), report.getComments(), report.getElapsedMillis(), report.getRowsPerSecond()));
+
+        return report;
+    }
+
+    private ImportedPost validate(ImportedPost record, long number, String basePath) throws InvalidImportException {
+        if (record.getTitle() == null || record.getTitle().isBlank()) {
+            throw new InvalidImportException(number, "title is required");
+        }
+        if (record.getText() == null || record.getText().isBlank()) {
+            throw new InvalidImportException(number, "text is required");
+        }
+        for (String tag : record.getTags()) {
+            if (tag == null || tag.isBlank() || tag.chars().anyMatch(Character::isWhitespace)) {
+                throw new InvalidImportException(number, String.format("invalid tag '%s'", tag));
+            }
+        }
+
+        if (record.getImagePath().isBlank()) return record;
+
+        if (ImageBlobStore.contains(basePath, record.getImagePath())) {
+            record.setImagePath(Paths.get(record.getImagePath()).toAbsolutePath().normalize().toString());
+        } else {
+            logger.warn(String.format("Record %d: image path %s is outside the image store, importing without image",
+                number, record.getImagePath()));
+            record.setImagePath("");
+        }
+
+        return record;
+    }
+
+    private long saveChunk(List<ImportedPost> chunk) {
+        if (chunk.isEmpty()) return 0;
+
+        List<PostModel> posts = chunk.stream().map(this::toPost).toList();
+
+        List<CommentModel> comments = transactionTemplate.execute(status -> {
+            List<CommentModel> saved = new ArrayList<>();
+
+            for (int from = 0; from < posts.size(); from += batchSize) {
+                List<PostModel> batch = posts.subList(from, Math.min(from + batchSize, posts.size()));
+                List<Long> postIds = postRepository.saveAll(batch);
+
+                for (int i = 0; i < batch.size(); i++) {
+                    PostModel post = batch.get(i);
+                    post.setId(postIds.get(i));
+                    post.getComments().forEach(comment -> comment.setPostId(post.getId()));
+                    saved.addAll(post.getComments());
+                }
+            }
+
+            for (int from = 0; from < saved.size(); from += batchSize) {
+                commentRepository.saveAll(saved.subList(from, Math.min(from + batchSize, saved.size())));
+            }
+
+            return saved;
+        });
+
+        posts.forEach(post -> {
+            postCounts.postAdded(post.getDistinctTags());
+            postSearchIndex.indexPost(post, post.getComments());
+        });
+
+        return comments.size();
+    }
+
+    private PostModel toPost(ImportedPost record) {
+        PostModel post = new PostModel();
+
+        post.setTitle(record.getTitle());
+        post.setText(record.getText());
+        post.setImagePath(record.getImagePath());
+        post.setLikesCount(record.getLikesCount());
+        post.setTags(record.getTags());
+        post.setComments(record.getComments().stream()
+            .map(text -> new CommentModel(null, null, text))
+            .toList());
+
+        return postRenderer.render(post);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.custom.blog.initializer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.custom.blog.service.ImageService;
+
+/**
+ * Records image metadata for posts stored before the images table existed, one bounded batch per run,
+ * so a large store neither delays startup nor holds up the other ready listeners. Starts after demo seeding,
+ * which records its own images, and stops once every post is recorded.
+ */
+@Component
+public class ImageMetadataInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(ImageMetadataInitializer.class);
+
+    private final ImageService imageService;
+    private final int batchSize;
+    private volatile boolean started;
+    private volatile boolean finished;
+
+    public ImageMetadataInitializer(ImageService imageService,
+                                    @Value("${blog.images.backfill.batch-size:500}") int batchSize) {
+        this.imageService = imageService;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill(ApplicationReadyEvent event) {
+        started = true;
+    }
+
+    @Scheduled(fixedDelayString = "${blog.images.backfill.interval-ms:1000}")
+    public synchronized int backfillMetadata() {
+        if (!started || finished) return 0;
+
+        try {
+            int recorded = imageService.backfillMetadata(batchSize);
+
+            if (recorded == 0) {
+                finished = true;
+                logger.info("Image metadata backfill finished");
+            } else {
+                logger.info(String.format("Image metadata recorded for %d images", recorded));
+            }
+
+            return recorded;
+        } catch (Exception e) {
+            logger.error(String.format("Failed to backfill image metadata. Got error: %s", e.getMessage()));
+
+            return 0;
+        }
+    }
+}
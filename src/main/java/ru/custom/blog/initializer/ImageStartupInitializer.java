@@ -3,25 +3,32 @@ package ru.custom.blog.initializer;
 import jakarta.servlet.ServletContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.service.ImageService;
 import ru.custom.blog.service.PostService;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Seeds the demo posts once, into an empty database. Images and texts are prepared in parallel
+ * and the posts are inserted in one batch, before the counters and the search index are loaded.
+ */
 @Component
 public class ImageStartupInitializer {
 
     private final PostService postService;
+    private final PostRepository postRepository;
+    private final ImageService imageService;
     private final ServletContext servletContext;
 
     private static final Map<String, String> INIT_FILES = Map.of(
@@ -34,30 +41,53 @@ public class ImageStartupInitializer {
     );
     private static final Logger logger = LoggerFactory.getLogger(ImageStartupInitializer.class);
 
-    public ImageStartupInitializer(PostService postService, ServletContext servletContext) {
+    public ImageStartupInitializer(PostService postService, PostRepository postRepository, ImageService imageService,
+                                   ServletContext servletContext) {
         this.postService = postService;
+        this.postRepository = postRepository;
+        this.imageService = imageService;
         this.servletContext = servletContext;
     }
 
-    @EventListener(ContextRefreshedEvent.class)
-    public void populatePosts(ContextRefreshedEvent event) {
-        for (Map.Entry<String, String> fileEntry : INIT_FILES.entrySet()) {
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void populatePosts(ApplicationReadyEvent event) {
+        long start = System.currentTimeMillis();
 
-            String targetImagePath = saveImage(fileEntry.getKey());
+        try {
+            long existing = postRepository.getTotalCount();
+            if (existing > 0) {
+                logger.info(String.format("Found %d posts, demo data seeding skipped in %d ms",
+                    existing, System.currentTimeMillis() - start));
+                return;
+            }
 
-            String text = getFileText(fileEntry.getKey());
+            List<PostModel> posts = INIT_FILES.entrySet().parallelStream()
+                .map(fileEntry -> createPost(fileEntry.getKey(), fileEntry.getValue()))
+                .toList();
+            long prepared = System.currentTimeMillis();
 
-            PostModel post = new PostModel();
-            post.setTitle(fileEntry.getValue());
-            post.setText(text);
-            post.setImagePath(targetImagePath);
-            post.setLikesCount(0);
-            post.setTags(List.of("init", "auto"));
+            postService.savePosts(posts);
+            long saved = System.currentTimeMillis();
 
-            postService.savePost(post);
+            logger.info(String.format("Seeded %d demo posts in %d ms (files %d ms, insert %d ms)",
+                posts.size(), saved - start, prepared - start, saved - prepared));
+        } catch (Exception e) {
+            logger.error(String.format("Failed to seed demo posts. Got error: %s", e.getMessage()));
         }
     }
 
+    private PostModel createPost(String fileName, String title) {
+        PostModel post = new PostModel();
+        post.setTitle(title);
+        post.setText(getFileText(fileName));
+        post.setImagePath(saveImage(fileName));
+        post.setLikesCount(0);
+        post.setTags(List.of("init", "auto"));
+
+        return post;
+    }
+
     private String getFileText(String textFileName) {
         StringBuilder builder = new StringBuilder();
         String resultFileName = textFileName + "-preview-demo.txt";
@@ -80,27 +110,13 @@ public class ImageStartupInitializer {
 
     private String saveImage(String imageFileName) {
         String initImageFilePath = imageFileName + "-preview-demo.jpg";
-        String basePath = servletContext.getRealPath("/");
-        Path imageDir = Paths.get(basePath, "images");
-        String resultImagePath = "";
 
-        try {
-            if (Files.notExists(imageDir)) {
-                Files.createDirectories(imageDir);
-            }
-
-            Path targetImagePath = imageDir.resolve(initImageFilePath);
-            resultImagePath = targetImagePath.toString();
-
-            if (Files.notExists(targetImagePath)) {
-                try (InputStream in = new ClassPathResource("init_images/" + initImageFilePath).getInputStream()) {
-                    Files.copy(in, targetImagePath);
-                }
-            }
+        try (InputStream in = new ClassPathResource("init_images/" + initImageFilePath).getInputStream()) {
+            return imageService.storeImage(in, initImageFilePath, servletContext.getRealPath("/"));
         } catch (Exception e) {
             logger.error(String.format("Failed to initialize image data. Got error: %s", e.getMessage()));
         }
 
-        return resultImagePath;
+        return "";
     }
-}
\ No newline at end of file
+}
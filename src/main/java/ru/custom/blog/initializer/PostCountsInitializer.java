@@ -0,0 +1,39 @@
+package ru.custom.blog.initializer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.custom.blog.cache.FeedCache;
+import ru.custom.blog.service.PostCounts;
+
+/**
+ * Loads post counts once the application is ready; feed pages cached before that used empty counts and are retired.
+ */
+@Component
+public class PostCountsInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(PostCountsInitializer.class);
+
+    private final PostCounts postCounts;
+    private final FeedCache feedCache;
+
+    public PostCountsInitializer(PostCounts postCounts, FeedCache feedCache) {
+        this.postCounts = postCounts;
+        this.feedCache = feedCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedCounts(ApplicationReadyEvent event) {
+        try {
+            long start = System.currentTimeMillis();
+            postCounts.reload();
+            feedCache.invalidate();
+
+            logger.info(String.format("Post counts loaded for %d posts in %d ms",
+                postCounts.total(), System.currentTimeMillis() - start));
+        } catch (Exception e) {
+            logger.error(String.format("Failed to seed post counts. Got error: %s", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.custom.blog.initializer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.custom.blog.search.PostSearchIndex;
+
+/**
+ * Builds the search index once all beans are created and before the web server starts accepting requests,
+ * so search never answers from an empty index.
+ */
+@Component
+public class SearchIndexInitializer implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexInitializer.class);
+
+    private final PostSearchIndex postSearchIndex;
+
+    public SearchIndexInitializer(PostSearchIndex postSearchIndex) {
+        this.postSearchIndex = postSearchIndex;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            long start = System.currentTimeMillis();
+            int indexed = postSearchIndex.rebuild();
+
+            logger.info(String.format("Search index built for %d posts in %d ms", indexed, System.currentTimeMillis() - start));
+        } catch (Exception e) {
+            logger.error(String.format("Failed to build search index. Got error: %s", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.custom.blog.initializer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.custom.blog.repository.PostRepository;
+
+@Component
+public class TagIndexInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(TagIndexInitializer.class);
+
+    private final PostRepository postRepository;
+
+    public TagIndexInitializer(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void backfillTags(ContextRefreshedEvent event) {
+        try {
+            long start = System.currentTimeMillis();
+            postRepository.backfillTags();
+
+            logger.info(String.format("Tag index checked in %d ms", System.currentTimeMillis() - start));
+        } catch (Exception e) {
+            logger.error(String.format("Failed to backfill tag index. Got error: %s", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.custom.blog.initializer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.custom.blog.repository.PostRepository;
+
+/**
+ * Deletes posts left unpublished by uploads that never finished, e.g. because the process died mid-upload.
+ * Runs before the web server starts, so no upload of this process can be in flight yet.
+ */
+@Component
+public class UnpublishedPostsInitializer implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(UnpublishedPostsInitializer.class);
+
+    private final PostRepository postRepository;
+
+    public UnpublishedPostsInitializer(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            int deleted = postRepository.deleteUnpublished();
+
+            if (deleted > 0) {
+                logger.warn(String.format("Deleted %d posts left unpublished by interrupted uploads", deleted));
+            }
+        } catch (Exception e) {
+            logger.error(String.format("Failed to delete unpublished posts. Got error: %s", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.custom.blog.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static ru.custom.blog.jdbc.JdbcProxies.invoke;
+import static ru.custom.blog.jdbc.JdbcProxies.proxy;
+
+/**
+ * Lets at most {@code maxConcurrent} callers hold a connection at once; the rest park on a fair semaphore.
+ * With virtual threads this keeps thousands of requests from piling onto the pool's own hand-off queue.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public ConcurrencyLimitedDataSource(DataSource dataSource, int maxConcurrent, long acquireTimeoutMs) {
+        super(dataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                    String.format("No JDBC permit available within %d ms", acquireTimeoutMs));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC permit", e);
+        }
+    }
+
+    private Connection releaseOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+
+        return proxy(Connection.class, (proxy, method, args) -> {
+            if (!method.getName().equals("close") || !released.compareAndSet(false, true)) {
+                return invoke(connection, method, args);
+            }
+
+            try {
+                return invoke(connection, method, args);
+            } finally {
+                permits.release();
+            }
+        });
+    }
+}
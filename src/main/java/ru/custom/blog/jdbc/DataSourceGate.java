@@ -0,0 +1,33 @@
+package ru.custom.blog.jdbc;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a {@link ConcurrencyLimitedDataSource} in front of the application {@link DataSource}.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.jdbc.gate.enabled", havingValue = "true")
+public class DataSourceGate implements BeanPostProcessor {
+    private final int maxConcurrent;
+    private final long acquireTimeoutMs;
+
+    public DataSourceGate(@Value("${blog.jdbc.gate.max-concurrent:10}") int maxConcurrent,
+                          @Value("${blog.jdbc.gate.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+            return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+        }
+
+        return bean;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.custom.blog.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application {@link DataSource} in an {@link InstrumentedDataSource}.
+ * Metrics are resolved on first use, so the data source does not have to wait for the meter registry.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.jdbc.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceInstrumentation implements BeanPostProcessor {
+    private final ObjectProvider<StatementMetrics> statementMetrics;
+
+    public DataSourceInstrumentation(ObjectProvider<StatementMetrics> statementMetrics) {
+        this.statementMetrics = statementMetrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+            return new InstrumentedDataSource(dataSource, SingletonSupplier.of(statementMetrics::getObject));
+        }
+
+        return bean;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.custom.blog.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+import static ru.custom.blog.jdbc.JdbcProxies.invoke;
+import static ru.custom.blog.jdbc.JdbcProxies.proxy;
+
+/**
+ * Wraps connections so every statement execution is timed and reported to {@link StatementMetrics}
+ * under the name of the SQL constant it was prepared from. Query row counts are taken when the result set is closed.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+    private final Supplier<StatementMetrics> metrics;
+
+    public InstrumentedDataSource(DataSource dataSource, Supplier<StatementMetrics> metrics) {
+        super(dataSource);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(super.getConnection(username, password));
+    }
+
+    private Connection instrument(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(PreparedStatement.class, (PreparedStatement) result,
+                    metrics.get().nameOf((String) args[0]));
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                default -> result;
+            };
+        });
+    }
+
+    private <T extends Statement> T statement(Class<T> type, T statement, String name) {
+        return proxy(type, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+
+            StatementMetrics statementMetrics = metrics.get();
+            String statementName = name != null ? name
+                : statementMetrics.nameOf(args != null && args[0] instanceof String sql ? sql : null);
+            long start = System.nanoTime();
+
+            Object result;
+            try {
+                result = invoke(statement, method, args);
+            } catch (Throwable e) {
+                statementMetrics.record(statementName, System.nanoTime() - start, true);
+                throw e;
+            }
+            statementMetrics.record(statementName, System.nanoTime() - start, false);
+
+            if (result instanceof ResultSet resultSet) {
+                return resultSet(resultSet, statementName);
+            }
+            if (result instanceof Integer || result instanceof Long) {
+                statementMetrics.recordRows(statementName, ((Number) result).longValue());
+            } else if (result instanceof int[] counts) {
+                long rows = 0;
+                for (int count : counts) {
+                    rows += Math.max(0, count);
+                }
+                statementMetrics.recordRows(statementName, rows);
+            }
+
+            return result;
+        });
+    }
+
+    private ResultSet resultSet(ResultSet resultSet, String name) {
+        long[] rows = new long[1];
+        boolean[] closed = new boolean[1];
+
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                rows[0]++;
+            } else if (method.getName().equals("close") && !closed[0]) {
+                closed[0] = true;
+                metrics.get().recordRows(name, rows[0]);
+            }
+
+            return result;
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package ru.custom.blog.jdbc;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/jdbc}: per-statement latency percentiles, row and error counts.
+ */
+@Component
+@Endpoint(id = "jdbc")
+public class JdbcStatementsEndpoint {
+    private final StatementMetrics statementMetrics;
+
+    public JdbcStatementsEndpoint(StatementMetrics statementMetrics) {
+        this.statementMetrics = statementMetrics;
+    }
+
+    @ReadOperation
+    public Map<String, StatementStats> statements() {
+        return statementMetrics.snapshot();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.custom.blog.jdbc;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps SQL text back to the {@code private static final String} constant it came from,
+ * e.g. {@code JdbcNativePostRepository.SELECT_AFTER}. JdbcTemplate passes the constant through unchanged,
+ * so an exact lookup is enough.
+ */
+public final class SqlStatementNames {
+    public static final String OTHER = "other";
+
+    private final Map<String, String> names;
+
+    private SqlStatementNames(Map<String, String> names) {
+        this.names = names;
+    }
+
+    public static SqlStatementNames of(Class<?>... sources) {
+        Map<String, String> names = new HashMap<>();
+
+        for (Class<?> source : sources) {
+            for (Field field : source.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers) || field.getType() != String.class) {
+                    continue;
+                }
+
+                try {
+                    field.setAccessible(true);
+                    names.putIfAbsent((String) field.get(null), source.getSimpleName() + "." + field.getName());
+                } catch (IllegalAccessException | RuntimeException e) {
+                    // Statements from an unreadable constant are reported as OTHER
+                }
+            }
+        }
+
+        return new SqlStatementNames(Map.copyOf(names));
+    }
+
+    public String nameOf(String sql) {
+        return sql != null ? names.getOrDefault(sql, OTHER) : OTHER;
+    }
+}
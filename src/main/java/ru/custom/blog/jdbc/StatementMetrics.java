@@ -0,0 +1,135 @@
+package ru.custom.blog.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.custom.blog.repository.JdbcNativeCommentRepository;
+import ru.custom.blog.repository.JdbcNativeImageRepository;
+import ru.custom.blog.repository.JdbcNativePostRepository;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms, row counts and error counts per repository SQL constant.
+ * Meters are created once per statement and looked up from a map afterwards, so recording stays cheap.
+ */
+@Component
+public class StatementMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(StatementMetrics.class);
+
+    private static final String TIMER_NAME = "jdbc.statement";
+    private static final String ROWS_NAME = "jdbc.statement.rows";
+    private static final String ERRORS_NAME = "jdbc.statement.errors";
+    private static final String STATEMENT_TAG = "statement";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementNames names;
+    private final long slowQueryNanos;
+    private final ConcurrentHashMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public StatementMetrics(MeterRegistry meterRegistry,
+                            @Value("${blog.jdbc.slow-query-ms:200}") long slowQueryMs) {
+        this.meterRegistry = meterRegistry;
+        this.names = SqlStatementNames.of(JdbcNativePostRepository.class, JdbcNativeCommentRepository.class,
+            JdbcNativeImageRepository.class);
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+    }
+
+    public String nameOf(String sql) {
+        return names.nameOf(sql);
+    }
+
+    public void record(String statement, long nanos, boolean failed) {
+        Meters statementMeters = meters(statement);
+
+        statementMeters.timer.record(nanos, TimeUnit.NANOSECONDS);
+        if (failed) {
+            statementMeters.errors.increment();
+        }
+
+        if (slowQueryNanos > 0 && nanos >= slowQueryNanos) {
+            logger.warn(String.format("Slow query %s took %d ms", statement, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        }
+    }
+
+    public void recordRows(String statement, long rows) {
+        meters(statement).rows.record(rows);
+    }
+
+    /**
+     * Statistics per statement, slowest total time first.
+     */
+    public Map<String, StatementStats> snapshot() {
+        Map<String, StatementStats> stats = new LinkedHashMap<>();
+
+        meters.entrySet().stream()
+            .map(entry -> Map.entry(entry.getKey(), entry.getValue().stats()))
+            .sorted(Comparator.comparingDouble((Map.Entry<String, StatementStats> entry) -> entry.getValue().getTotalMs()).reversed())
+            .forEach(entry -> stats.put(entry.getKey(), entry.getValue()));
+
+        return stats;
+    }
+
+    private Meters meters(String statement) {
+        Meters statementMeters = meters.get(statement);
+
+        return statementMeters != null ? statementMeters : meters.computeIfAbsent(statement, this::register);
+    }
+
+    private Meters register(String statement) {
+        Timer timer = Timer.builder(TIMER_NAME)
+            .tag(STATEMENT_TAG, statement)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(100_000))
+            .maximumExpectedValue(Duration.ofSeconds(30))
+            .register(meterRegistry);
+        DistributionSummary rows = DistributionSummary.builder(ROWS_NAME)
+            .tag(STATEMENT_TAG, statement)
+            .register(meterRegistry);
+        Counter errors = Counter.builder(ERRORS_NAME)
+            .tag(STATEMENT_TAG, statement)
+            .register(meterRegistry);
+
+        return new Meters(timer, rows, errors);
+    }
+
+    private record Meters(Timer timer, DistributionSummary rows, Counter errors) {
+        StatementStats stats() {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+
+            return new StatementStats(
+                snapshot.count(),
+                (long) errors.count(),
+                (long) rows.totalAmount(),
+                snapshot.total(TimeUnit.MILLISECONDS),
+                snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS),
+                percentile(snapshot, 0.5),
+                percentile(snapshot, 0.95),
+                percentile(snapshot, 0.99));
+        }
+
+        private static double percentile(HistogramSnapshot snapshot, double percentile) {
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                if (value.percentile() == percentile) {
+                    return value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+
+            return 0;
+        }
+    }
+}
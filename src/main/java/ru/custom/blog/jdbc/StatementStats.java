@@ -0,0 +1,62 @@
+package ru.custom.blog.jdbc;
+
+public class StatementStats {
+    private final long count;
+    private final long errors;
+    private final long rows;
+    private final double totalMs;
+    private final double meanMs;
+    private final double maxMs;
+    private final double p50Ms;
+    private final double p95Ms;
+    private final double p99Ms;
+
+    public StatementStats(long count, long errors, long rows, double totalMs, double meanMs, double maxMs,
+                          double p50Ms, double p95Ms, double p99Ms) {
+        this.count = count;
+        this.errors = errors;
+        this.rows = rows;
+        this.totalMs = totalMs;
+        this.meanMs = meanMs;
+        this.maxMs = maxMs;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public long getErrors() {
+        return this.errors;
+    }
+
+    public long getRows() {
+        return this.rows;
+    }
+
+    public double getTotalMs() {
+        return this.totalMs;
+    }
+
+    public double getMeanMs() {
+        return this.meanMs;
+    }
+
+    public double getMaxMs() {
+        return this.maxMs;
+    }
+
+    public double getP50Ms() {
+        return this.p50Ms;
+    }
+
+    public double getP95Ms() {
+        return this.p95Ms;
+    }
+
+    public double getP99Ms() {
+        return this.p99Ms;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.custom.blog.model;
+
+import java.util.Objects;
+
+public class ImageModel {
+    private Long id;
+    private Long postId;
+    private String path;
+    private String contentType;
+    private long byteSize;
+    private Integer width;
+    private Integer height;
+    private String hash;
+    private long mtime;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Long getPostId() {
+        return this.postId;
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public long getByteSize() {
+        return this.byteSize;
+    }
+
+    public Integer getWidth() {
+        return this.width;
+    }
+
+    public Integer getHeight() {
+        return this.height;
+    }
+
+    public String getHash() {
+        return this.hash;
+    }
+
+    public long getMtime() {
+        return this.mtime;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public void setByteSize(long byteSize) {
+        this.byteSize = byteSize;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public void setMtime(long mtime) {
+        this.mtime = mtime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof ImageModel)) return false;
+
+        ImageModel im = (ImageModel) o;
+
+        return byteSize == im.byteSize
+            && mtime == im.mtime
+            && Objects.equals(postId, im.postId)
+            && Objects.equals(path, im.path)
+            && Objects.equals(contentType, im.contentType)
+            && Objects.equals(width, im.width)
+            && Objects.equals(height, im.height)
+            && Objects.equals(hash, im.hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(postId, path, contentType, byteSize, width, height, hash, mtime);
+    }
+}
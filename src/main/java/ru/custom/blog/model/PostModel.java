@@ -11,6 +11,31 @@ public class PostModel {
     private List<String> tags;
     private String text;
 
+    private String textPreview;
+    private String bodyHtml;
+    private Integer renderVersion;
+    private Boolean published;
+    private String imageHash;
+
+    public PostModel copy() {
+        PostModel copy = new PostModel();
+
+        copy.id = this.id;
+        copy.title = this.title;
+        copy.imagePath = this.imagePath;
+        copy.likesCount = this.likesCount;
+        copy.comments = this.comments != null ? new ArrayList<>(this.comments) : null;
+        copy.tags = this.tags != null ? new ArrayList<>(this.tags) : null;
+        copy.text = this.text;
+        copy.textPreview = this.textPreview;
+        copy.bodyHtml = this.bodyHtml;
+        copy.renderVersion = this.renderVersion;
+        copy.published = this.published;
+        copy.imageHash = this.imageHash;
+
+        return copy;
+    }
+
     public Long getId() {
         return this.id;
     }
@@ -39,18 +64,34 @@ public class PostModel {
         return String.join(" ", this.tags);
     }
 
-    public String getTextPreview() {
-        if (this.text == null) return "";
+    public List<String> getDistinctTags() {
+        if (this.tags == null) return new ArrayList<>();
+
+        return this.tags.stream().filter(tag -> !tag.isBlank()).distinct().toList();
+    }
 
-        return this.text.length() > 350 ? convertUrlsToLinks(this.text).substring(0, 350) + "..." : convertUrlsToLinks(this.text);
+    public String getTextPreview() {
+        return this.textPreview != null ? this.textPreview : "";
     }
 
     public String getText() {
         return this.text;
     }
 
-    public List<String> getTextParts() {
-        return Arrays.asList(convertUrlsToLinks(this.text).split("\\R", -1));
+    public String getBodyHtml() {
+        return this.bodyHtml != null ? this.bodyHtml : "";
+    }
+
+    public Integer getRenderVersion() {
+        return this.renderVersion != null ? this.renderVersion : 0;
+    }
+
+    public String getImageHash() {
+        return this.imageHash;
+    }
+
+    public boolean isPublished() {
+        return this.published != null ? this.published : true;
     }
 
     public void setId(Long id) {
@@ -81,11 +122,24 @@ public class PostModel {
         this.text = text;
     }
 
-    private String convertUrlsToLinks(String text) {
-        return text.replaceAll(
-            "(https?://[^\\s\"']+)",
-            "<a href=\"$1\" target=\"_blank\">$1</a>"
-        );
+    public void setTextPreview(String textPreview) {
+        this.textPreview = textPreview;
+    }
+
+    public void setBodyHtml(String bodyHtml) {
+        this.bodyHtml = bodyHtml;
+    }
+
+    public void setRenderVersion(Integer renderVersion) {
+        this.renderVersion = renderVersion;
+    }
+
+    public void setPublished(Boolean published) {
+        this.published = published;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
     }
 
     @Override
@@ -0,0 +1,140 @@
+package ru.custom.blog.model;
+
+import java.util.List;
+import java.util.Objects;
+
+public class PostSummary {
+    private Long id;
+    private String title;
+    private String textPreview;
+    private Integer renderVersion;
+    private Integer likesCount;
+    private Integer commentsCount;
+    private List<String> tags;
+    private Integer imageWidth;
+    private Integer imageHeight;
+    private String imageHash;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public String getTextPreview() {
+        return this.textPreview != null ? this.textPreview : "";
+    }
+
+    public Integer getRenderVersion() {
+        return this.renderVersion != null ? this.renderVersion : 0;
+    }
+
+    /**
+     * Whether the preview was written by the renderer as escaped HTML; older rows hold raw text until re-rendered.
+     */
+    public boolean isPreviewRendered() {
+        return getRenderVersion() > 0;
+    }
+
+    public Integer getLikesCount() {
+        return this.likesCount != null ? this.likesCount : 0;
+    }
+
+    public Integer getCommentsCount() {
+        return this.commentsCount != null ? this.commentsCount : 0;
+    }
+
+    public List<String> getTags() {
+        return this.tags;
+    }
+
+    public Integer getImageWidth() {
+        return this.imageWidth;
+    }
+
+    /**
+     * Content hash of the post's image, used as the version in its URL; {@code null} until the image is described.
+     */
+    public String getImageHash() {
+        return this.imageHash;
+    }
+
+    public Integer getImageHeight() {
+        return this.imageHeight;
+    }
+
+    /**
+     * Width the image takes when shown {@code height} pixels tall, or {@code null} while its dimensions are unknown.
+     */
+    public Integer getImageWidthAt(int height) {
+        if (imageWidth == null || imageHeight == null || imageHeight == 0) return null;
+
+        return (int) Math.round((double) imageWidth * height / imageHeight);
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public void setTextPreview(String textPreview) {
+        this.textPreview = textPreview;
+    }
+
+    public void setRenderVersion(Integer renderVersion) {
+        this.renderVersion = renderVersion;
+    }
+
+    public void setLikesCount(Integer likesCount) {
+        this.likesCount = likesCount;
+    }
+
+    public void setCommentsCount(Integer commentsCount) {
+        this.commentsCount = commentsCount;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public void setImageWidth(Integer imageWidth) {
+        this.imageWidth = imageWidth;
+    }
+
+    public void setImageHeight(Integer imageHeight) {
+        this.imageHeight = imageHeight;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof PostSummary)) return false;
+
+        PostSummary ps = (PostSummary) o;
+
+        return Objects.equals(id, ps.id)
+            && Objects.equals(title, ps.title)
+            && Objects.equals(textPreview, ps.textPreview)
+            && Objects.equals(renderVersion, ps.renderVersion)
+            && Objects.equals(likesCount, ps.likesCount)
+            && Objects.equals(commentsCount, ps.commentsCount)
+            && Objects.equals(tags, ps.tags)
+            && Objects.equals(imageWidth, ps.imageWidth)
+            && Objects.equals(imageHeight, ps.imageHeight)
+            && Objects.equals(imageHash, ps.imageHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, textPreview, renderVersion, likesCount, commentsCount, tags, imageWidth, imageHeight, imageHash);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.custom.blog.pagination;
+
+import ru.custom.blog.model.CommentModel;
+
+import java.util.List;
+
+/**
+ * One keyset page of a post's comments. {@code nextAfterId} is the id to continue from, or {@code null} on the last page.
+ */
+public class CommentPage {
+    private final Long postId;
+    private final List<CommentModel> content;
+    private final int totalCount;
+    private final Long nextAfterId;
+
+    public CommentPage(Long postId, List<CommentModel> content, int totalCount, Long nextAfterId) {
+        this.postId = postId;
+        this.content = content;
+        this.totalCount = totalCount;
+        this.nextAfterId = nextAfterId;
+    }
+
+    /**
+     * Builds a page from up to {@code pageSize + 1} fetched rows; the extra row only signals that more comments follow.
+     */
+    public static CommentPage of(Long postId, List<CommentModel> fetched, int pageSize, int totalCount) {
+        if (fetched.size() <= pageSize) {
+            return new CommentPage(postId, fetched, totalCount, null);
+        }
+
+        List<CommentModel> content = fetched.subList(0, pageSize);
+
+        return new CommentPage(postId, content, totalCount, content.get(pageSize - 1).getId());
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public List<CommentModel> getContent() {
+        return content;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public boolean hasMore() {
+        return nextAfterId != null;
+    }
+}
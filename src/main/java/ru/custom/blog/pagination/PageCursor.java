@@ -0,0 +1,67 @@
+package ru.custom.blog.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+public class PageCursor {
+    private static final String AFTER = "a";
+    private static final String BEFORE = "b";
+    private static final String SEPARATOR = ":";
+
+    private final boolean after;
+    private final long postId;
+    private final int pageNumber;
+
+    private PageCursor(boolean after, long postId, int pageNumber) {
+        this.after = after;
+        this.postId = postId;
+        this.pageNumber = pageNumber;
+    }
+
+    public static PageCursor after(long lastSeenId, int pageNumber) {
+        return new PageCursor(true, lastSeenId, pageNumber);
+    }
+
+    public static PageCursor before(long firstSeenId, int pageNumber) {
+        return new PageCursor(false, firstSeenId, pageNumber);
+    }
+
+    public static Optional<PageCursor> decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(SEPARATOR);
+
+            if (parts.length != 3 || !(AFTER.equals(parts[0]) || BEFORE.equals(parts[0]))) {
+                return Optional.empty();
+            }
+
+            int pageNumber = Integer.parseInt(parts[2]);
+            if (pageNumber < 1) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new PageCursor(AFTER.equals(parts[0]), Long.parseLong(parts[1]), pageNumber));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String encode() {
+        String value = String.join(SEPARATOR, after ? AFTER : BEFORE, String.valueOf(postId), String.valueOf(pageNumber));
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isAfter() {
+        return after;
+    }
+
+    public long postId() {
+        return postId;
+    }
+
+    public int pageNumber() {
+        return pageNumber;
+    }
+}
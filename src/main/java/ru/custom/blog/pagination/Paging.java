@@ -1,30 +1,63 @@
 package ru.custom.blog.pagination;
 
-import ru.custom.blog.model.PostModel;
+import ru.custom.blog.model.PostSummary;
 
 import java.util.List;
 
 public class Paging {
-    private final List<PostModel> content;
+    private final List<PostSummary> content;
     private final int pageNumber;
     private final int pageSize;
     private final long totalElements;
+    private final String previousCursor;
+    private final String nextCursor;
 
-    public Paging(List<PostModel> content, int pageNumber, int pageSize, long totalElements) {
+    public Paging(List<PostSummary> content, int pageNumber, int pageSize, long totalElements) {
         this.content = content;
         this.pageNumber = pageNumber;
         this.pageSize = pageSize;
         this.totalElements = totalElements;
+        this.previousCursor = null;
+        this.nextCursor = null;
     }
 
-    public Paging(List<PostModel> content, int pageSize, long totalElements) {
+    private Paging(List<PostSummary> content, int pageNumber, int pageSize, long totalElements,
+                   String previousCursor, String nextCursor) {
+        this.content = content;
+        this.pageNumber = pageNumber;
+        this.pageSize = pageSize;
+        this.totalElements = totalElements;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+    }
+
+    public Paging(List<PostSummary> content, int pageSize, long totalElements) {
         this.content = content;
         this.pageNumber = 1;
         this.pageSize = pageSize;
         this.totalElements = totalElements;
+        this.previousCursor = null;
+        this.nextCursor = null;
     }
 
-    public List<PostModel> getContent() {
+    public static Paging withCursors(List<PostSummary> content, int pageNumber, int pageSize, long totalElements) {
+        Paging paging = new Paging(content, pageNumber, pageSize, totalElements);
+
+        if (content.isEmpty()) {
+            return paging;
+        }
+
+        String previousCursor = paging.hasPrevious()
+            ? PageCursor.before(content.get(0).getId(), pageNumber - 1).encode()
+            : null;
+        String nextCursor = paging.hasNext()
+            ? PageCursor.after(content.get(content.size() - 1).getId(), pageNumber + 1).encode()
+            : null;
+
+        return new Paging(content, pageNumber, pageSize, totalElements, previousCursor, nextCursor);
+    }
+
+    public List<PostSummary> getContent() {
         return content;
     }
 
@@ -51,4 +84,12 @@ public class Paging {
     public boolean hasPrevious() {
         return pageNumber > 1;
     }
+
+    public String previousCursor() {
+        return previousCursor;
+    }
+
+    public String nextCursor() {
+        return nextCursor;
+    }
 }
@@ -0,0 +1,192 @@
+package ru.custom.blog.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass converter of post text to HTML: escapes markup and wraps {@code http(s)://} URLs into links.
+ * URLs end at whitespace or a quote, the same rule the former regex used.
+ */
+public final class Linkifier {
+    private static final String HTTP = "http://";
+    private static final String HTTPS = "https://";
+    private static final String ELLIPSIS = "...";
+    private static final String ANCHOR_OPEN = "<a href=\"";
+    private static final String ANCHOR_TARGET = "\" target=\"_blank\">";
+    private static final String ANCHOR_CLOSE = "</a>";
+    private static final int MAX_ESCAPED_CHAR_LENGTH = "&quot;".length();
+
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private Linkifier() {
+    }
+
+    public static String toHtml(String text) {
+        StringBuilder out = builder();
+        appendHtml(out, text, 0, text.length(), text.length(), Integer.MAX_VALUE);
+
+        return release(out);
+    }
+
+    /**
+     * Renders at most {@code maxVisible} characters of the text; a link cut by the limit keeps its full address.
+     * The result never exceeds {@code maxLength} characters: a link whose address would not fit is rendered
+     * as plain text. {@code maxLength} must leave room for {@code maxVisible} escaped characters and the ellipsis.
+     */
+    public static String preview(String text, int maxVisible, int maxLength) {
+        StringBuilder out = builder();
+        appendHtml(out, text, 0, text.length(), maxVisible, maxLength);
+
+        if (text.length() > maxVisible) {
+            out.append(ELLIPSIS);
+        }
+
+        return release(out);
+    }
+
+    /**
+     * Renders every line of the text separately, splitting on the same terminators as {@code \R}.
+     */
+    public static List<String> lines(String text) {
+        List<String> lines = new ArrayList<>();
+        StringBuilder out = builder();
+        int start = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!isLineBreak(c)) continue;
+
+            out.setLength(0);
+            appendHtml(out, text, start, i, i - start, Integer.MAX_VALUE);
+            lines.add(out.toString());
+
+            if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                i++;
+            }
+            start = i + 1;
+        }
+
+        out.setLength(0);
+        appendHtml(out, text, start, text.length(), text.length() - start, Integer.MAX_VALUE);
+        lines.add(release(out));
+
+        return lines;
+    }
+
+    /**
+     * Renders the whole text with line breaks turned into {@code <br>}.
+     */
+    public static String body(String text) {
+        return String.join("<br>\n", lines(text));
+    }
+
+    private static void appendHtml(StringBuilder out, String text, int from, int to, int maxVisible, int maxLength) {
+        int limit = Math.min(to, from + maxVisible);
+        int i = from;
+
+        while (i < limit) {
+            int urlEnd = text.charAt(i) == 'h' ? urlEnd(text, i, to) : -1;
+
+            if (urlEnd < 0) {
+                appendEscaped(out, text.charAt(i));
+                i++;
+                continue;
+            }
+
+            int visibleEnd = Math.min(urlEnd, limit);
+            long anchorEnd = (long) out.length() + ANCHOR_OPEN.length() + escapedLength(text, i, urlEnd)
+                + ANCHOR_TARGET.length() + escapedLength(text, i, visibleEnd) + ANCHOR_CLOSE.length();
+            long reserved = (long) MAX_ESCAPED_CHAR_LENGTH * (limit - visibleEnd) + ELLIPSIS.length();
+
+            if (anchorEnd + reserved > maxLength) {
+                appendEscaped(out, text, i, visibleEnd);
+                i = visibleEnd;
+                continue;
+            }
+
+            out.append(ANCHOR_OPEN);
+            appendEscaped(out, text, i, urlEnd);
+            out.append(ANCHOR_TARGET);
+            appendEscaped(out, text, i, visibleEnd);
+            out.append(ANCHOR_CLOSE);
+
+            i = urlEnd;
+        }
+    }
+
+    private static int urlEnd(String text, int start, int to) {
+        int bodyStart;
+        if (text.startsWith(HTTPS, start)) {
+            bodyStart = start + HTTPS.length();
+        } else if (text.startsWith(HTTP, start)) {
+            bodyStart = start + HTTP.length();
+        } else {
+            return -1;
+        }
+
+        int end = bodyStart;
+        while (end < to && !endsUrl(text.charAt(end))) {
+            end++;
+        }
+
+        return end > bodyStart ? end : -1;
+    }
+
+    private static boolean endsUrl(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r' || c == '"' || c == '\'';
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\u000B' || c == '\f' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static int escapedLength(String text, int from, int to) {
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            length += switch (text.charAt(i)) {
+                case '&' -> 5;
+                case '<', '>' -> 4;
+                case '"' -> 6;
+                case '\'' -> 5;
+                default -> 1;
+            };
+        }
+
+        return length;
+    }
+
+    private static void appendEscaped(StringBuilder out, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            appendEscaped(out, text.charAt(i));
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, char c) {
+        switch (c) {
+            case '&' -> out.append("&amp;");
+            case '<' -> out.append("&lt;");
+            case '>' -> out.append("&gt;");
+            case '"' -> out.append("&quot;");
+            case '\'' -> out.append("&#39;");
+            default -> out.append(c);
+        }
+    }
+
+    private static StringBuilder builder() {
+        StringBuilder out = BUILDER.get();
+        out.setLength(0);
+
+        return out;
+    }
+
+    private static String release(StringBuilder out) {
+        String result = out.toString();
+
+        if (out.capacity() > MAX_RETAINED_CAPACITY) {
+            BUILDER.set(new StringBuilder(1024));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.custom.blog.render;
+
+import org.springframework.stereotype.Component;
+import ru.custom.blog.model.PostModel;
+
+/**
+ * Produces the preview and body HTML stored next to the post text, so views emit them verbatim.
+ * Bump {@link #VERSION} whenever the output changes; {@link RerenderJob} then brings stored posts up to date.
+ */
+@Component
+public class PostRenderer {
+    public static final int VERSION = 1;
+
+    private static final int PREVIEW_LENGTH = 350;
+    private static final int PREVIEW_MAX_LENGTH = 4000;
+
+    public PostModel render(PostModel post) {
+        String text = post.getText() != null ? post.getText() : "";
+
+        post.setTextPreview(Linkifier.preview(text, PREVIEW_LENGTH, PREVIEW_MAX_LENGTH));
+        post.setBodyHtml(Linkifier.body(text));
+        post.setRenderVersion(VERSION);
+
+        return post;
+    }
+}
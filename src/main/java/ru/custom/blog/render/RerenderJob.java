@@ -0,0 +1,55 @@
+package ru.custom.blog.render;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.custom.blog.cache.FeedCache;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.repository.PostRepository;
+
+import java.util.List;
+
+/**
+ * Re-renders posts stored with an older {@link PostRenderer#VERSION}, one bounded batch per run,
+ * so a rendering change reaches existing posts without blocking startup or the other scheduled jobs.
+ */
+@Component
+public class RerenderJob {
+    private static final Logger logger = LoggerFactory.getLogger(RerenderJob.class);
+
+    private final PostRepository postRepository;
+    private final PostRenderer postRenderer;
+    private final FeedCache feedCache;
+    private final int batchSize;
+
+    public RerenderJob(PostRepository postRepository, PostRenderer postRenderer, FeedCache feedCache,
+                       @Value("${blog.render.batch-size:500}") int batchSize) {
+        this.postRepository = postRepository;
+        this.postRenderer = postRenderer;
+        this.feedCache = feedCache;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${blog.render.interval-ms:1000}")
+    public synchronized int rerenderStale() {
+        try {
+            List<PostModel> posts = postRepository.findStaleRenders(PostRenderer.VERSION, batchSize);
+
+            if (posts.isEmpty()) return 0;
+
+            posts.forEach(postRenderer::render);
+            int updated = postRepository.updateRendered(posts);
+            feedCache.invalidate();
+
+            logger.info(String.format("Re-rendered %d posts to version %d", updated, PostRenderer.VERSION));
+
+            return updated;
+        } catch (Exception e) {
+            logger.error(String.format("Failed to re-render posts. Got error: %s", e.getMessage()));
+
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.custom.blog.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.custom.blog.model.ImageModel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache for image metadata rows in front of {@link JdbcNativeImageRepository},
+ * so serving a hot image costs neither a query nor a filesystem probe.
+ */
+@Primary
+@Repository
+public class CachingImageRepository implements ImageRepository {
+    private final JdbcNativeImageRepository delegate;
+    private final Cache<Long, ImageModel> images;
+
+    public CachingImageRepository(JdbcNativeImageRepository delegate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${blog.cache.image-metadata.max-size:10000}") long maxSize) {
+        this.delegate = delegate;
+        this.images = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, images, "image_metadata");
+    }
+
+    @Override
+    public Optional<ImageModel> findByPostId(Long postId) {
+        return Optional.ofNullable(images.get(postId, key -> delegate.findByPostId(key).orElse(null)));
+    }
+
+    @Override
+    public void save(ImageModel image) {
+        delegate.save(image);
+        images.invalidate(image.getPostId());
+    }
+
+    @Override
+    public boolean saveIfCurrent(ImageModel image) {
+        boolean saved = delegate.saveIfCurrent(image);
+        images.invalidate(image.getPostId());
+
+        return saved;
+    }
+
+    @Override
+    public void saveAll(List<ImageModel> images) {
+        delegate.saveAll(images);
+        images.forEach(image -> this.images.invalidate(image.getPostId()));
+    }
+
+    @Override
+    public void deleteByPostId(Long postId) {
+        delegate.deleteByPostId(postId);
+        images.invalidate(postId);
+    }
+
+    @Override
+    public Map<Long, String> findUnrecordedImages(Integer limit) {
+        return delegate.findUnrecordedImages(limit);
+    }
+
+    public void invalidateAll() {
+        images.invalidateAll();
+    }
+}
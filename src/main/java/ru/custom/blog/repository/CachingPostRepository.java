@@ -0,0 +1,221 @@
+package ru.custom.blog.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.model.PostSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache for single post and image lookups in front of {@link JdbcNativePostRepository}.
+ * Caffeine's W-TinyLFU policy keeps one-off reads from flushing popular posts; posts are weighed by text and rendered HTML size.
+ */
+@Primary
+@Repository
+public class CachingPostRepository implements PostRepository {
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final JdbcNativePostRepository delegate;
+    private final Cache<Long, PostModel> posts;
+    private final Cache<Long, String> images;
+
+    public CachingPostRepository(JdbcNativePostRepository delegate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${blog.cache.posts.max-bytes:67108864}") long postsMaxBytes,
+                                 @Value("${blog.cache.images.max-size:10000}") long imagesMaxSize) {
+        this.delegate = delegate;
+        this.posts = Caffeine.newBuilder()
+            .maximumWeight(postsMaxBytes)
+            .weigher((Long id, PostModel post) -> weigh(post))
+            .recordStats()
+            .build();
+        this.images = Caffeine.newBuilder()
+            .maximumSize(imagesMaxSize)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, posts, "posts");
+        CaffeineCacheMetrics.monitor(meterRegistry, images, "post_images");
+    }
+
+    @Override
+    public List<PostModel> findPageAfter(Long lastSeenId, Integer limit) {
+        return delegate.findPageAfter(lastSeenId, limit);
+    }
+
+    @Override
+    public List<PostSummary> findSummaryPage(Integer limit, Integer offset) {
+        return delegate.findSummaryPage(limit, offset);
+    }
+
+    @Override
+    public List<PostSummary> findSummaryPageAfter(Long lastSeenId, Integer limit) {
+        return delegate.findSummaryPageAfter(lastSeenId, limit);
+    }
+
+    @Override
+    public List<PostSummary> findSummaryPageBefore(Long firstSeenId, Integer limit) {
+        return delegate.findSummaryPageBefore(firstSeenId, limit);
+    }
+
+    @Override
+    public List<PostSummary> findSummaryPageByTag(String tag, Integer limit, Integer offset) {
+        return delegate.findSummaryPageByTag(tag, limit, offset);
+    }
+
+    @Override
+    public List<PostSummary> findSummariesByIds(Collection<Long> ids) {
+        return delegate.findSummariesByIds(ids);
+    }
+
+    @Override
+    public Optional<PostModel> findPostById(Long id) {
+        PostModel post = posts.get(id, key -> delegate.findPostById(key).orElse(null));
+
+        return Optional.ofNullable(post).map(PostModel::copy);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return posts.getIfPresent(id) != null || delegate.existsById(id);
+    }
+
+    @Override
+    public void streamPosts(int fetchSize, Consumer<PostModel> consumer) {
+        delegate.streamPosts(fetchSize, consumer);
+    }
+
+    @Override
+    public Long save(PostModel post) {
+        return delegate.save(post);
+    }
+
+    @Override
+    public List<Long> saveAll(List<PostModel> posts) {
+        return delegate.saveAll(posts);
+    }
+
+    @Override
+    public void update(PostModel post) {
+        delegate.update(post);
+        invalidate(post.getId());
+    }
+
+    @Override
+    public void publish(Long id, String imagePath) {
+        delegate.publish(id, imagePath);
+        invalidate(id);
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        boolean deleted = delegate.deleteById(id);
+        invalidate(id);
+
+        return deleted;
+    }
+
+    @Override
+    public int deleteUnpublished() {
+        int deleted = delegate.deleteUnpublished();
+        invalidateAll();
+
+        return deleted;
+    }
+
+    @Override
+    public Long getTotalCount() {
+        return delegate.getTotalCount();
+    }
+
+    @Override
+    public Optional<String> findImageById(Long id) {
+        return Optional.ofNullable(images.get(id, key -> delegate.findImageById(key).orElse(null)));
+    }
+
+    @Override
+    public long countByImagePath(String imagePath) {
+        return delegate.countByImagePath(imagePath);
+    }
+
+    @Override
+    public Set<String> findReferencedImagePaths(Collection<String> imagePaths) {
+        return delegate.findReferencedImagePaths(imagePaths);
+    }
+
+    @Override
+    public void applyLikesDeltas(Map<Long, Long> deltas) {
+        delegate.applyLikesDeltas(deltas);
+        posts.invalidateAll(deltas.keySet());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    posts.invalidateAll(deltas.keySet());
+                }
+            });
+        }
+    }
+
+    @Override
+    public List<PostModel> findStaleRenders(int renderVersion, Integer limit) {
+        return delegate.findStaleRenders(renderVersion, limit);
+    }
+
+    @Override
+    public int updateRendered(List<PostModel> posts) {
+        int updated = delegate.updateRendered(posts);
+        posts.forEach(post -> this.posts.invalidate(post.getId()));
+
+        return updated;
+    }
+
+    @Override
+    public List<String> findTagsById(Long id) {
+        return delegate.findTagsById(id);
+    }
+
+    @Override
+    public Map<String, Long> countByTags() {
+        return delegate.countByTags();
+    }
+
+    @Override
+    public void backfillTags() {
+        delegate.backfillTags();
+    }
+
+    public void invalidateAll() {
+        posts.invalidateAll();
+        images.invalidateAll();
+    }
+
+    private void invalidate(Long id) {
+        posts.invalidate(id);
+        images.invalidate(id);
+    }
+
+    private static int weigh(PostModel post) {
+        long bytes = ENTRY_OVERHEAD_BYTES
+            + 2L * (post.getText() != null ? post.getText().length() : 0)
+            + 2L * post.getBodyHtml().length()
+            + 2L * post.getTextPreview().length()
+            + 2L * (post.getTitle() != null ? post.getTitle().length() : 0);
+
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+}
@@ -2,11 +2,19 @@ package ru.custom.blog.repository;
 
 import ru.custom.blog.model.CommentModel;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface CommentRepository {
     List<CommentModel> findByPostId(Long postId);
+    List<CommentModel> findByPostId(Long postId, Long afterId, Integer limit);
+    int countByPostId(Long postId);
+    Optional<CommentModel> findById(Long id);
+    Map<Long, List<CommentModel>> findByPostIds(Collection<Long> postIds);
     Long save(CommentModel comment);
+    void saveAll(List<CommentModel> comments);
     void deleteById(Long id);
     void update(CommentModel comment);
     void deleteByPostId(Long postId);
@@ -0,0 +1,16 @@
+package ru.custom.blog.repository;
+
+import ru.custom.blog.model.ImageModel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface ImageRepository {
+    Optional<ImageModel> findByPostId(Long postId);
+    void save(ImageModel image);
+    boolean saveIfCurrent(ImageModel image);
+    void saveAll(List<ImageModel> images);
+    void deleteByPostId(Long postId);
+    Map<Long, String> findUnrecordedImages(Integer limit);
+}
@@ -4,21 +4,45 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.custom.blog.model.CommentModel;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Repository
 public class JdbcNativeCommentRepository implements CommentRepository {
     private static final String SELECT_ALL = "SELECT id, post_id, text FROM comments WHERE post_id = ? ORDER BY id ASC";
+    private static final String SELECT_PAGE = "SELECT id, post_id, text FROM comments WHERE post_id = ? AND id > ? ORDER BY id ASC LIMIT ?";
+    private static final String SELECT_BY_ID = "SELECT id, post_id, text FROM comments WHERE id = ?";
+    private static final String SELECT_COUNT = "SELECT comments_count FROM posts WHERE id = ?";
+    private static final String SELECT_ALL_POSTS = "SELECT id, post_id, text FROM comments WHERE post_id = ANY(?) ORDER BY post_id ASC, id ASC";
     private static final  String INSERT_COMMENT = "INSERT INTO comments(post_id, text) VALUES (?, ?)";
     private static final String UPDATE_COMMENT = "UPDATE comments SET text = ? WHERE id = ?";
 
     private static final String DELETE_COMMENT = "DELETE FROM comments WHERE id = ?";
     private static final String DELETE_POST_COMMENTS = "DELETE FROM comments WHERE post_id = ?";
 
+    private static final String INCREMENT_COMMENTS_COUNT = "UPDATE posts SET comments_count = comments_count + 1 WHERE id = ?";
+    private static final String ADD_COMMENTS_COUNT = "UPDATE posts SET comments_count = comments_count + ? WHERE id = ?";
+    private static final String DECREMENT_COMMENTS_COUNT = """
+                                UPDATE 
+                                    posts
+                                SET 
+                                    comments_count = comments_count - 1
+                                WHERE 
+                                    id = (SELECT post_id FROM comments WHERE id = ?)
+                            """;
+    private static final String RESET_COMMENTS_COUNT = "UPDATE posts SET comments_count = 0 WHERE id = ?";
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcNativeCommentRepository(JdbcTemplate jdbcTemplate) {
@@ -28,15 +52,56 @@ public class JdbcNativeCommentRepository implements CommentRepository {
     public List<CommentModel> findByPostId(Long postId) {
         return jdbcTemplate.query(
             SELECT_ALL,
-            (rs, rowNum) -> new CommentModel(
-                rs.getLong("id"),
-                rs.getLong("post_id"),
-                rs.getString("text")
-            ),
+            (rs, rowNum) -> populateComment(rs),
+            postId);
+    }
+
+    @Override
+    public List<CommentModel> findByPostId(Long postId, Long afterId, Integer limit) {
+        return jdbcTemplate.query(
+            SELECT_PAGE,
+            (rs, rowNum) -> populateComment(rs),
+            postId, afterId != null ? afterId : 0L, limit);
+    }
+
+    @Override
+    public int countByPostId(Long postId) {
+        return jdbcTemplate.query(
+            SELECT_COUNT,
+            (ResultSet rs) -> rs.next() ? rs.getInt(1) : 0,
             postId);
     }
 
     @Override
+    public Optional<CommentModel> findById(Long id) {
+        return jdbcTemplate.query(
+            SELECT_BY_ID,
+            (rs, rowNum) -> populateComment(rs),
+            id).stream().findFirst();
+    }
+
+    @Override
+    public Map<Long, List<CommentModel>> findByPostIds(Collection<Long> postIds) {
+        Map<Long, List<CommentModel>> comments = new HashMap<>();
+
+        if (postIds.isEmpty()) {
+            return comments;
+        }
+
+        jdbcTemplate.query(
+            SELECT_ALL_POSTS,
+            (PreparedStatement statement) ->
+                statement.setArray(1, statement.getConnection().createArrayOf("BIGINT", postIds.toArray())),
+            (ResultSet rs) -> {
+                CommentModel comment = populateComment(rs);
+                comments.computeIfAbsent(comment.getPostId(), id -> new ArrayList<>()).add(comment);
+            });
+
+        return comments;
+    }
+
+    @Override
+    @Transactional
     public Long save(CommentModel comment) {
         KeyHolder keyHolder = new GeneratedKeyHolder();
 
@@ -50,9 +115,33 @@ public class JdbcNativeCommentRepository implements CommentRepository {
                 return statement;
             }, keyHolder);
 
+        jdbcTemplate.update(INCREMENT_COMMENTS_COUNT, comment.getPostId());
+
         return keyHolder.getKey().longValue();
     }
 
+    @Override
+    @Transactional
+    public void saveAll(List<CommentModel> comments) {
+        if (comments.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_COMMENT, comments, comments.size(),
+            (PreparedStatement statement, CommentModel comment) -> {
+                statement.setLong(1, comment.getPostId());
+                statement.setString(2, comment.getText());
+            });
+
+        Map<Long, Integer> counts = new HashMap<>();
+        comments.forEach(comment -> counts.merge(comment.getPostId(), 1, Integer::sum));
+
+        List<Map.Entry<Long, Integer>> entries = List.copyOf(counts.entrySet());
+        jdbcTemplate.batchUpdate(ADD_COMMENTS_COUNT, entries, entries.size(),
+            (PreparedStatement statement, Map.Entry<Long, Integer> entry) -> {
+                statement.setInt(1, entry.getValue());
+                statement.setLong(2, entry.getKey());
+            });
+    }
+
     @Override
     public void update(CommentModel comment) {
         jdbcTemplate.update(UPDATE_COMMENT,
@@ -62,12 +151,24 @@ public class JdbcNativeCommentRepository implements CommentRepository {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
+        jdbcTemplate.update(DECREMENT_COMMENTS_COUNT, id);
         jdbcTemplate.update(DELETE_COMMENT, id);
     }
 
     @Override
+    @Transactional
     public void deleteByPostId(Long postId) {
         jdbcTemplate.update(DELETE_POST_COMMENTS, postId);
+        jdbcTemplate.update(RESET_COMMENTS_COUNT, postId);
+    }
+
+    private CommentModel populateComment(ResultSet resultSet) throws SQLException {
+        return new CommentModel(
+            resultSet.getLong("id"),
+            resultSet.getLong("post_id"),
+            resultSet.getString("text")
+        );
     }
 }
@@ -0,0 +1,169 @@
+package ru.custom.blog.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.custom.blog.model.ImageModel;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+public class JdbcNativeImageRepository implements ImageRepository {
+    private static final String SELECT_BY_POST = """
+                                            SELECT 
+                                                id, post_id, path, content_type, byte_size, width, height, hash, mtime
+                                            FROM 
+                                                images
+                                            WHERE 
+                                                post_id = ?
+                                        """;
+    private static final String MERGE_IMAGE = """
+                                        MERGE INTO 
+                                            images(post_id, path, content_type, byte_size, width, height, hash, mtime) 
+                                        KEY (post_id) 
+                                        VALUES 
+                                            (?, ?, ?, ?, ?, ?, ?, ?)
+                                    """;
+    private static final String INSERT_IF_CURRENT = """
+                                        INSERT INTO 
+                                            images(post_id, path, content_type, byte_size, width, height, hash, mtime) 
+                                        SELECT 
+                                            p.id, p.image_path, CAST(? AS VARCHAR(100)), CAST(? AS BIGINT), CAST(? AS INTEGER),
+                                            CAST(? AS INTEGER), CAST(? AS VARCHAR(64)), CAST(? AS BIGINT)
+                                        FROM 
+                                            posts p
+                                        WHERE 
+                                            p.id = ? AND p.image_path = ?
+                                            AND NOT EXISTS (SELECT 1 FROM images i WHERE i.post_id = p.id)
+                                    """;
+    private static final String DELETE_BY_POST = "DELETE FROM images WHERE post_id = ?";
+    private static final String SELECT_UNRECORDED = """
+                                            SELECT 
+                                                p.id, p.image_path
+                                            FROM 
+                                                posts p
+                                            WHERE NOT EXISTS (
+                                                SELECT 1 FROM images i WHERE i.post_id = p.id
+                                            )
+                                            ORDER BY p.id
+                                            LIMIT ?
+                                        """;
+
+    private static final String ID_FIELD = "id";
+    private static final String POST_ID_FIELD = "post_id";
+    private static final String PATH_FIELD = "path";
+    private static final String CONTENT_TYPE_FIELD = "content_type";
+    private static final String BYTE_SIZE_FIELD = "byte_size";
+    private static final String WIDTH_FIELD = "width";
+    private static final String HEIGHT_FIELD = "height";
+    private static final String HASH_FIELD = "hash";
+    private static final String MTIME_FIELD = "mtime";
+    private static final String IMAGE_PATH_FIELD = "image_path";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcNativeImageRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<ImageModel> findByPostId(Long postId) {
+        return jdbcTemplate.query(SELECT_BY_POST, (rs, rowNum) -> populateImage(rs), postId)
+            .stream()
+            .findFirst();
+    }
+
+    @Override
+    public void save(ImageModel image) {
+        jdbcTemplate.update(MERGE_IMAGE, (PreparedStatement ps) -> setImage(ps, image));
+    }
+
+    /**
+     * Inserts the row only if the post has none yet and still points at the image's path, so a lazily probed image
+     * never overwrites the row written by a concurrent edit. Returns whether the row was inserted.
+     */
+    @Override
+    public boolean saveIfCurrent(ImageModel image) {
+        try {
+            return jdbcTemplate.update(INSERT_IF_CURRENT, (PreparedStatement ps) -> {
+                ps.setString(1, image.getContentType());
+                ps.setLong(2, image.getByteSize());
+                setNullableInt(ps, 3, image.getWidth());
+                setNullableInt(ps, 4, image.getHeight());
+                ps.setString(5, image.getHash());
+                ps.setLong(6, image.getMtime());
+                ps.setLong(7, image.getPostId());
+                ps.setString(8, image.getPath());
+            }) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void saveAll(List<ImageModel> images) {
+        if (images.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(MERGE_IMAGE, images, images.size(), this::setImage);
+    }
+
+    @Override
+    public void deleteByPostId(Long postId) {
+        jdbcTemplate.update(DELETE_BY_POST, postId);
+    }
+
+    @Override
+    public Map<Long, String> findUnrecordedImages(Integer limit) {
+        Map<Long, String> images = new LinkedHashMap<>();
+
+        jdbcTemplate.query(SELECT_UNRECORDED,
+            (ResultSet rs) -> {
+                images.put(rs.getLong(ID_FIELD), rs.getString(IMAGE_PATH_FIELD));
+            },
+            limit);
+
+        return images;
+    }
+
+    private void setImage(PreparedStatement ps, ImageModel image) throws SQLException {
+        ps.setLong(1, image.getPostId());
+        ps.setString(2, image.getPath());
+        ps.setString(3, image.getContentType());
+        ps.setLong(4, image.getByteSize());
+        setNullableInt(ps, 5, image.getWidth());
+        setNullableInt(ps, 6, image.getHeight());
+        ps.setString(7, image.getHash());
+        ps.setLong(8, image.getMtime());
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    private ImageModel populateImage(ResultSet resultSet) throws SQLException {
+        ImageModel image = new ImageModel();
+
+        image.setId(resultSet.getLong(ID_FIELD));
+        image.setPostId(resultSet.getLong(POST_ID_FIELD));
+        image.setPath(resultSet.getString(PATH_FIELD));
+        image.setContentType(resultSet.getString(CONTENT_TYPE_FIELD));
+        image.setByteSize(resultSet.getLong(BYTE_SIZE_FIELD));
+        image.setWidth(resultSet.getObject(WIDTH_FIELD, Integer.class));
+        image.setHeight(resultSet.getObject(HEIGHT_FIELD, Integer.class));
+        image.setHash(resultSet.getString(HASH_FIELD));
+        image.setMtime(resultSet.getLong(MTIME_FIELD));
+
+        return image;
+    }
+}
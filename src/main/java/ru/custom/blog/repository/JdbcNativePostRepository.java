@@ -1,115 +1,311 @@
 package ru.custom.blog.repository;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.custom.blog.model.CommentModel;
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.model.PostSummary;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.sql.*;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Repository
 public class JdbcNativePostRepository implements PostRepository{
-    private static final Logger logger = LoggerFactory.getLogger(JdbcNativePostRepository.class);
-
     private final JdbcTemplate jdbcTemplate;
 
-    private static final String SELECT_ALL = """
+    private static final String SELECT_AFTER = """
                                             SELECT 
                                                 id, title, text, image_path, likes_count, tags
                                             FROM 
                                                 posts
+                                            WHERE 
+                                                id < ? AND published = TRUE
                                             ORDER BY id DESC
+                                            LIMIT ?
+                                        """;
+
+    private static final String SELECT_SUMMARY_ALL = """
+                                            SELECT 
+                                                p.id, p.title, p.preview, p.render_version, p.likes_count, p.comments_count, p.tags, i.width, i.height, i.hash
+                                            FROM 
+                                                posts p
+                                            LEFT JOIN 
+                                                images i ON i.post_id = p.id
+                                            WHERE 
+                                                p.published = TRUE
+                                            ORDER BY p.id DESC
                                             LIMIT ? OFFSET ?
                                         """;
-    private static final String SELECT_ALL_TAG = """
+    private static final String SELECT_SUMMARY_AFTER = """
                                             SELECT 
-                                                id, title, text, image_path, likes_count, tags
+                                                p.id, p.title, p.preview, p.render_version, p.likes_count, p.comments_count, p.tags, i.width, i.height, i.hash
                                             FROM 
-                                                posts
+                                                posts p
+                                            LEFT JOIN 
+                                                images i ON i.post_id = p.id
                                             WHERE 
-                                                tags LIKE CONCAT('% ', ?, ' %')
-                                            OR
-                                                tags LIKE CONCAT(?, ' %')
-                                            OR
-                                                tags LIKE CONCAT('% ', ?)
-                                            OR
-                                                tags LIKE ?
-                                            ORDER BY id DESC
+                                                p.id < ? AND p.published = TRUE
+                                            ORDER BY p.id DESC
+                                            LIMIT ?
+                                        """;
+    private static final String SELECT_SUMMARY_BEFORE = """
+                                            SELECT 
+                                                page.id, page.title, page.preview, page.render_version, page.likes_count, page.comments_count, page.tags,
+                                                i.width, i.height, i.hash
+                                            FROM (
+                                                SELECT 
+                                                    id, title, preview, render_version, likes_count, comments_count, tags
+                                                FROM 
+                                                    posts
+                                                WHERE 
+                                                    id > ? AND published = TRUE
+                                                ORDER BY id ASC
+                                                LIMIT ?
+                                            ) AS page
+                                            LEFT JOIN 
+                                                images i ON i.post_id = page.id
+                                            ORDER BY page.id DESC
+                                        """;
+    private static final String SELECT_SUMMARY_BY_IDS = """
+                                            SELECT 
+                                                p.id, p.title, p.preview, p.render_version, p.likes_count, p.comments_count, p.tags, i.width, i.height, i.hash
+                                            FROM 
+                                                posts p
+                                            LEFT JOIN 
+                                                images i ON i.post_id = p.id
+                                            WHERE 
+                                                p.id = ANY(?) AND p.published = TRUE
+                                        """;
+    private static final String SELECT_SUMMARY_ALL_TAG = """
+                                            SELECT 
+                                                p.id, p.title, p.preview, p.render_version, p.likes_count, p.comments_count, p.tags, i.width, i.height, i.hash
+                                            FROM 
+                                                post_tags t
+                                            JOIN 
+                                                posts p ON p.id = t.post_id
+                                            LEFT JOIN 
+                                                images i ON i.post_id = p.id
+                                            WHERE 
+                                                t.tag = ? AND p.published = TRUE
+                                            ORDER BY t.post_id DESC
                                             LIMIT ? OFFSET ?
                                         """;
 
     private static final String SELECT_POST = """
                                             SELECT 
-                                                id, title, text, image_path, likes_count, tags
+                                                p.id, p.title, p.text, p.image_path, p.likes_count, p.tags, p.preview, p.body_html,
+                                                p.render_version, i.hash
                                             FROM 
-                                                posts
+                                                posts p
+                                            LEFT JOIN 
+                                                images i ON i.post_id = p.id
+                                            WHERE 
+                                                p.id = ?
+                                        """;
+    private static final String SELECT_EXPORT = """
+                                            SELECT 
+                                                p.id, p.title, p.text, p.image_path, p.likes_count, p.tags,
+                                                c.id AS comment_id, c.text AS comment_text
+                                            FROM 
+                                                posts p
+                                            LEFT JOIN 
+                                                comments c ON c.post_id = p.id
                                             WHERE 
-                                                id = ?
+                                                p.published = TRUE
+                                            ORDER BY p.id, c.id
                                         """;
     private static final String SELECT_IMAGE = "SELECT image_path FROM posts WHERE id = ?";
+    private static final String EXISTS_BY_ID = "SELECT EXISTS(SELECT 1 FROM posts WHERE id = ?)";
+    private static final String COUNT_BY_IMAGE = "SELECT COUNT(*) AS cnt FROM posts WHERE image_path = ?";
+    private static final String SELECT_REFERENCED_IMAGES = "SELECT DISTINCT image_path FROM posts WHERE image_path = ANY(?)";
     private static final String INSERT_ROW = """
                                         INSERT INTO 
-                                            posts(title, text, image_path, likes_count, tags) 
+                                            posts(title, text, image_path, likes_count, tags, preview, body_html, render_version, published) 
                                         VALUES 
-                                            (?, ?, ?, ?, ?)
+                                            (?, ?, ?, ?, ?, ?, ?, ?, ?)
                                     """;
-    private static final String UPDATE_LIKES = "UPDATE posts SET likes_count = likes_count";
+    private static final String UPDATE_LIKES_DELTA = "UPDATE posts SET likes_count = likes_count + ? WHERE id = ?";
 
-    private static final String SELECT_COUNT = "SELECT COUNT(*) AS cnt FROM posts";
+    private static final String SELECT_COUNT = "SELECT COUNT(*) AS cnt FROM posts WHERE published = TRUE";
     private static final String UPDATE_POST = """
                                 UPDATE 
                                     posts
                                 SET 
-                                     title = ?, text = ?, image_path = ?, tags = ?
+                                     title = ?, text = ?, image_path = ?, tags = ?, preview = ?, body_html = ?, render_version = ?
                                 WHERE 
                                     id = ?
                             """;
+    private static final String PUBLISH_POST = "UPDATE posts SET image_path = ?, published = TRUE WHERE id = ?";
+    private static final String DELETE_UNPUBLISHED_TAGS = """
+                                DELETE FROM 
+                                    post_tags
+                                WHERE 
+                                    post_id IN (SELECT id FROM posts WHERE published = FALSE)
+                            """;
+    private static final String DELETE_UNPUBLISHED_COMMENTS = """
+                                DELETE FROM 
+                                    comments
+                                WHERE 
+                                    post_id IN (SELECT id FROM posts WHERE published = FALSE)
+                            """;
+    private static final String DELETE_UNPUBLISHED_IMAGES = """
+                                DELETE FROM 
+                                    images
+                                WHERE 
+                                    post_id IN (SELECT id FROM posts WHERE published = FALSE)
+                            """;
+    private static final String DELETE_UNPUBLISHED = "DELETE FROM posts WHERE published = FALSE";
     private static final String DELETE_POST = "DELETE FROM posts WHERE id = ?";
+    private static final String SELECT_STALE_RENDERS = """
+                                            SELECT 
+                                                id, text, render_version
+                                            FROM 
+                                                posts
+                                            WHERE 
+                                                render_version < ?
+                                            ORDER BY id
+                                            LIMIT ?
+                                        """;
+    private static final String UPDATE_RENDERED = """
+                                UPDATE 
+                                    posts
+                                SET 
+                                     preview = ?, body_html = ?, render_version = ?
+                                WHERE 
+                                    id = ? AND render_version < ?
+                            """;
+
+    private static final String INSERT_TAG = "INSERT INTO post_tags(post_id, tag) VALUES (?, ?)";
+    private static final String DELETE_POST_TAGS = "DELETE FROM post_tags WHERE post_id = ?";
+    private static final String SELECT_POST_TAGS = "SELECT tag FROM post_tags WHERE post_id = ?";
+    private static final String SELECT_TAG_COUNTS = """
+                                            SELECT 
+                                                t.tag, COUNT(*) AS cnt
+                                            FROM 
+                                                post_tags t
+                                            JOIN 
+                                                posts p ON p.id = t.post_id
+                                            WHERE 
+                                                p.published = TRUE
+                                            GROUP BY t.tag
+                                        """;
+    private static final String SELECT_NOT_INDEXED_TAGS = """
+                                            SELECT 
+                                                p.id, p.tags
+                                            FROM 
+                                                posts p
+                                            WHERE NOT EXISTS (
+                                                SELECT 1 FROM post_tags t WHERE t.post_id = p.id
+                                            )
+                                        """;
 
     private static final String TITLE_FIELD = "title";
     private static final String IMAGE_PATH_FIELD = "image_path";
     private static final String LIKES_COUNT_FIELD = "likes_count";
     private static final String ID_FIELD = "id";
     private static final String TEXT_FIELD = "text";
+    private static final String TAGS_FIELD = "tags";
+    private static final String TAG_FIELD = "tag";
+    private static final String PREVIEW_FIELD = "preview";
+    private static final String COMMENTS_COUNT_FIELD = "comments_count";
+    private static final String BODY_HTML_FIELD = "body_html";
+    private static final String RENDER_VERSION_FIELD = "render_version";
+    private static final String WIDTH_FIELD = "width";
+    private static final String HEIGHT_FIELD = "height";
+    private static final String HASH_FIELD = "hash";
 
     public JdbcNativePostRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
-    public List<PostModel> findPage(Integer limit, Integer offset) {
-        return jdbcTemplate.query(SELECT_ALL,
+    public List<PostModel> findPageAfter(Long lastSeenId, Integer limit) {
+        return jdbcTemplate.query(SELECT_AFTER,
+            (PreparedStatement statement) -> {
+                statement.setLong(1, lastSeenId);
+                statement.setInt(2, limit);
+            },
+            (rs, rowNum) -> populatePost(rs));
+    }
+
+    @Override
+    public List<PostSummary> findSummaryPage(Integer limit, Integer offset) {
+        return jdbcTemplate.query(SELECT_SUMMARY_ALL,
             (PreparedStatement statement) -> {
                 statement.setInt(1, limit);
                 statement.setInt(2, offset);
             },
-            (rs, rowNum) -> populatePost(rs));
+            (rs, rowNum) -> populateSummary(rs));
     }
 
     @Override
-    public List<PostModel> findPageByTag(String tag, Integer limit, Integer offset) {
-        return jdbcTemplate.query(
-            SELECT_ALL_TAG,
+    public List<PostSummary> findSummaryPageAfter(Long lastSeenId, Integer limit) {
+        return jdbcTemplate.query(SELECT_SUMMARY_AFTER,
+            (PreparedStatement statement) -> {
+                statement.setLong(1, lastSeenId);
+                statement.setInt(2, limit);
+            },
+            (rs, rowNum) -> populateSummary(rs));
+    }
+
+    @Override
+    public List<PostSummary> findSummaryPageBefore(Long firstSeenId, Integer limit) {
+        return jdbcTemplate.query(SELECT_SUMMARY_BEFORE,
+            (PreparedStatement statement) -> {
+                statement.setLong(1, firstSeenId);
+                statement.setInt(2, limit);
+            },
+            (rs, rowNum) -> populateSummary(rs));
+    }
+
+    @Override
+    public List<PostSummary> findSummaryPageByTag(String tag, Integer limit, Integer offset) {
+        return jdbcTemplate.query(SELECT_SUMMARY_ALL_TAG,
             (PreparedStatement statement) -> {
                 statement.setString(1, tag);
-                statement.setString(2, tag);
-                statement.setString(3, tag);
-                statement.setString(4, tag);
-                statement.setInt(5, limit);
-                statement.setInt(6, offset);
+                statement.setInt(2, limit);
+                statement.setInt(3, offset);
             },
-            (rs, rowNum) -> populatePost(rs));
+            (rs, rowNum) -> populateSummary(rs));
     }
 
+    /**
+     * Walks all posts with their comments over one forward-only cursor, handing out one post at a time.
+     */
     @Override
+    public void streamPosts(int fetchSize, Consumer<PostModel> consumer) {
+        PostStreamHandler handler = new PostStreamHandler(consumer);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                SELECT_EXPORT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+
+            return statement;
+        }, handler);
+
+        handler.finish();
+    }
+
+    @Override
+    @Transactional
     public Long save(PostModel post) {
         KeyHolder keyHolder = new GeneratedKeyHolder();
 
@@ -117,25 +313,102 @@ public class JdbcNativePostRepository implements PostRepository{
             PreparedStatement statement = connection.prepareStatement(INSERT_ROW, Statement.RETURN_GENERATED_KEYS);
 
             statement.setString(1, post.getTitle());
-            statement.setBlob(2, new ByteArrayInputStream(post.getText().getBytes(StandardCharsets.UTF_8)));
+            statement.setString(2, post.getText());
             statement.setString(3, post.getImagePath());
             statement.setInt(4, post.getLikesCount());
             statement.setString(5, post.getTagsAsText());
+            statement.setString(6, post.getTextPreview());
+            statement.setString(7, post.getBodyHtml());
+            statement.setInt(8, post.getRenderVersion());
+            statement.setBoolean(9, post.isPublished());
 
             return statement;
         }, keyHolder);
 
-        return keyHolder.getKey().longValue();
+        Long postId = keyHolder.getKey().longValue();
+        insertTags(postId, post.getDistinctTags());
+
+        return postId;
     }
 
     @Override
+    @Transactional
+    public List<Long> saveAll(List<PostModel> posts) {
+        if (posts.isEmpty()) return new ArrayList<>();
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_ROW, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    PostModel post = posts.get(i);
+
+                    statement.setString(1, post.getTitle());
+                    statement.setString(2, post.getText());
+                    statement.setString(3, post.getImagePath());
+                    statement.setInt(4, post.getLikesCount());
+                    statement.setString(5, post.getTagsAsText());
+                    statement.setString(6, post.getTextPreview());
+                    statement.setString(7, post.getBodyHtml());
+                    statement.setInt(8, post.getRenderVersion());
+                    statement.setBoolean(9, post.isPublished());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return posts.size();
+                }
+            },
+            keyHolder);
+
+        List<Long> postIds = keyHolder.getKeyList().stream()
+            .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+            .toList();
+
+        List<Map.Entry<Long, String>> tags = new ArrayList<>();
+        for (int i = 0; i < posts.size(); i++) {
+            Long postId = postIds.get(i);
+            posts.get(i).getDistinctTags().forEach(tag -> tags.add(Map.entry(postId, tag)));
+        }
+
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG, tags, tags.size(),
+                (PreparedStatement statement, Map.Entry<Long, String> tag) -> {
+                    statement.setLong(1, tag.getKey());
+                    statement.setString(2, tag.getValue());
+                });
+        }
+
+        return postIds;
+    }
+
+    @Override
+    @Transactional
     public void update(PostModel post) {
         jdbcTemplate.update(UPDATE_POST,
             post.getTitle(),
-            new ByteArrayInputStream(post.getText().getBytes(StandardCharsets.UTF_8)),
+            post.getText(),
             post.getImagePath(),
             post.getTagsAsText(),
+            post.getTextPreview(),
+            post.getBodyHtml(),
+            post.getRenderVersion(),
             post.getId());
+
+        jdbcTemplate.update(DELETE_POST_TAGS, post.getId());
+        insertTags(post.getId(), post.getDistinctTags());
+    }
+
+    @Override
+    public void publish(Long id, String imagePath) {
+        jdbcTemplate.update(PUBLISH_POST, imagePath, id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_BY_ID, Boolean.class, id));
     }
 
     @Override
@@ -149,29 +422,70 @@ public class JdbcNativePostRepository implements PostRepository{
         return images.stream().findFirst();
     }
 
+    @Override
+    public long countByImagePath(String imagePath) {
+        Long count = jdbcTemplate.queryForObject(COUNT_BY_IMAGE, Long.class, imagePath);
+
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public Set<String> findReferencedImagePaths(Collection<String> imagePaths) {
+        if (imagePaths.isEmpty()) return new HashSet<>();
+
+        return new HashSet<>(jdbcTemplate.query(SELECT_REFERENCED_IMAGES,
+            (PreparedStatement statement) ->
+                statement.setArray(1, statement.getConnection().createArrayOf("VARCHAR", imagePaths.toArray())),
+            (rs, rowNum) -> rs.getString(IMAGE_PATH_FIELD)));
+    }
+
+    @Override
+    public List<PostSummary> findSummariesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+
+        return jdbcTemplate.query(SELECT_SUMMARY_BY_IDS,
+            (PreparedStatement statement) ->
+                statement.setArray(1, statement.getConnection().createArrayOf("BIGINT", ids.toArray())),
+            (rs, rowNum) -> populateSummary(rs));
+    }
+
     @Override
     public Optional<PostModel> findPostById(Long id) {
         List<PostModel> posts = jdbcTemplate.query(SELECT_POST,
-            (rs, rowNum) -> populatePost(rs), id);
+            (rs, rowNum) -> populateRenderedPost(rs), id);
 
         return posts.stream().findFirst();
     }
 
     @Override
-    public void incrementLikesCount(Long id) {
-        String query = UPDATE_LIKES + " + 1 " + "WHERE id = ?";
-        jdbcTemplate.update(query, id);
+    @Transactional
+    public void applyLikesDeltas(Map<Long, Long> deltas) {
+        List<Map.Entry<Long, Long>> entries = List.copyOf(deltas.entrySet());
+
+        if (entries.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(UPDATE_LIKES_DELTA, entries, entries.size(),
+            (PreparedStatement statement, Map.Entry<Long, Long> entry) -> {
+                statement.setLong(1, entry.getValue());
+                statement.setLong(2, entry.getKey());
+            });
     }
 
     @Override
-    public void decrementLikesCount(Long id) {
-        String query = UPDATE_LIKES + " - 1 " + "WHERE id = ?";
-        jdbcTemplate.update(query, id);
+    @Transactional
+    public boolean deleteById(Long id) {
+        jdbcTemplate.update(DELETE_POST_TAGS, id);
+        return jdbcTemplate.update(DELETE_POST, id) > 0;
     }
 
     @Override
-    public void deleteById(Long id) {
-        jdbcTemplate.update(DELETE_POST, id);
+    @Transactional
+    public int deleteUnpublished() {
+        jdbcTemplate.update(DELETE_UNPUBLISHED_TAGS);
+        jdbcTemplate.update(DELETE_UNPUBLISHED_COMMENTS);
+        jdbcTemplate.update(DELETE_UNPUBLISHED_IMAGES);
+
+        return jdbcTemplate.update(DELETE_UNPUBLISHED);
     }
 
     @Override
@@ -182,34 +496,150 @@ public class JdbcNativePostRepository implements PostRepository{
         ).get(0);
     }
 
+    @Override
+    public List<PostModel> findStaleRenders(int renderVersion, Integer limit) {
+        return jdbcTemplate.query(SELECT_STALE_RENDERS,
+            (PreparedStatement statement) -> {
+                statement.setInt(1, renderVersion);
+                statement.setInt(2, limit);
+            },
+            (rs, rowNum) -> {
+                PostModel post = new PostModel();
+
+                post.setId(rs.getLong(ID_FIELD));
+                post.setText(rs.getString(TEXT_FIELD));
+                post.setRenderVersion(rs.getInt(RENDER_VERSION_FIELD));
+
+                return post;
+            });
+    }
+
+    @Override
+    @Transactional
+    public int updateRendered(List<PostModel> posts) {
+        if (posts.isEmpty()) return 0;
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_RENDERED, posts, posts.size(),
+            (PreparedStatement statement, PostModel post) -> {
+                statement.setString(1, post.getTextPreview());
+                statement.setString(2, post.getBodyHtml());
+                statement.setInt(3, post.getRenderVersion());
+                statement.setLong(4, post.getId());
+                statement.setInt(5, post.getRenderVersion());
+            });
+
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).sum();
+    }
+
+    @Override
+    public List<String> findTagsById(Long id) {
+        return jdbcTemplate.query(SELECT_POST_TAGS, (rs, rowNum) -> rs.getString(TAG_FIELD), id);
+    }
+
+    @Override
+    public Map<String, Long> countByTags() {
+        Map<String, Long> counts = new HashMap<>();
+
+        jdbcTemplate.query(SELECT_TAG_COUNTS, (ResultSet rs) -> {
+            counts.put(rs.getString(TAG_FIELD), rs.getLong("cnt"));
+        });
+
+        return counts;
+    }
+
+    @Override
+    @Transactional
+    public void backfillTags() {
+        jdbcTemplate.query(SELECT_NOT_INDEXED_TAGS, (ResultSet rs) -> {
+            PostModel post = new PostModel();
+            post.setTags(Arrays.stream(rs.getString(TAGS_FIELD).split(" ")).toList());
+
+            insertTags(rs.getLong(ID_FIELD), post.getDistinctTags());
+        });
+    }
+
+    private void insertTags(Long postId, List<String> tags) {
+        if (tags.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_TAG, tags, tags.size(),
+            (PreparedStatement statement, String tag) -> {
+                statement.setLong(1, postId);
+                statement.setString(2, tag);
+            });
+    }
+
+    private class PostStreamHandler implements RowCallbackHandler {
+        private final Consumer<PostModel> consumer;
+        private PostModel current;
+        private List<CommentModel> comments;
+
+        PostStreamHandler(Consumer<PostModel> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long postId = rs.getLong(ID_FIELD);
+
+            if (current == null || current.getId() != postId) {
+                finish();
+                current = populatePost(rs);
+                comments = new ArrayList<>();
+            }
+
+            long commentId = rs.getLong("comment_id");
+            if (!rs.wasNull()) {
+                comments.add(new CommentModel(commentId, postId, rs.getString("comment_text")));
+            }
+        }
+
+        void finish() {
+            if (current == null) return;
+
+            current.setComments(comments);
+            consumer.accept(current);
+            current = null;
+        }
+    }
+
     private PostModel populatePost(ResultSet resultSet) throws SQLException {
         PostModel post = new PostModel();
 
         post.setId(resultSet.getLong(ID_FIELD));
         post.setTitle(resultSet.getString(TITLE_FIELD));
-        post.setText(transformBlob(resultSet.getBlob(TEXT_FIELD)));
+        post.setText(resultSet.getString(TEXT_FIELD));
         post.setImagePath(resultSet.getString(IMAGE_PATH_FIELD));
         post.setLikesCount(resultSet.getInt(LIKES_COUNT_FIELD));
-        post.setTags(Arrays.stream(resultSet.getString("tags").split(" ")).toList());
+        post.setTags(Arrays.stream(resultSet.getString(TAGS_FIELD).split(" ")).toList());
 
         return post;
     }
 
-    private String transformBlob(Blob blob) throws SQLException {
-        StringBuilder builder = new StringBuilder();
+    private PostModel populateRenderedPost(ResultSet resultSet) throws SQLException {
+        PostModel post = populatePost(resultSet);
 
-        try (BufferedReader br = new BufferedReader(
-            new InputStreamReader(blob.getBinaryStream(), StandardCharsets.UTF_8))) {
+        post.setTextPreview(resultSet.getString(PREVIEW_FIELD));
+        post.setBodyHtml(resultSet.getString(BODY_HTML_FIELD));
+        post.setRenderVersion(resultSet.getInt(RENDER_VERSION_FIELD));
+        post.setImageHash(resultSet.getString(HASH_FIELD));
 
-            int c;
-            while ((c = br.read()) != -1) {
-                builder.append((char) c);
-            }
-
-        } catch (IOException e) {
-            logger.error(String.format("Failed to read blob. Got error: %s", e.getMessage()));
-        }
+        return post;
+    }
 
-        return builder.toString();
+    private PostSummary populateSummary(ResultSet resultSet) throws SQLException {
+        PostSummary summary = new PostSummary();
+
+        summary.setId(resultSet.getLong(ID_FIELD));
+        summary.setTitle(resultSet.getString(TITLE_FIELD));
+        summary.setTextPreview(resultSet.getString(PREVIEW_FIELD));
+        summary.setRenderVersion(resultSet.getInt(RENDER_VERSION_FIELD));
+        summary.setLikesCount(resultSet.getInt(LIKES_COUNT_FIELD));
+        summary.setCommentsCount(resultSet.getInt(COMMENTS_COUNT_FIELD));
+        summary.setTags(Arrays.stream(resultSet.getString(TAGS_FIELD).split(" ")).toList());
+        summary.setImageWidth(resultSet.getObject(WIDTH_FIELD, Integer.class));
+        summary.setImageHeight(resultSet.getObject(HEIGHT_FIELD, Integer.class));
+        summary.setImageHash(resultSet.getString(HASH_FIELD));
+
+        return summary;
     }
 }
@@ -1,19 +1,39 @@
 package ru.custom.blog.repository;
 
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.model.PostSummary;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface PostRepository {
-    List<PostModel> findPage(Integer limit, Integer offset);
-    List<PostModel> findPageByTag(String tag, Integer limit, Integer offset);
+    List<PostModel> findPageAfter(Long lastSeenId, Integer limit);
+    List<PostSummary> findSummaryPage(Integer limit, Integer offset);
+    List<PostSummary> findSummaryPageAfter(Long lastSeenId, Integer limit);
+    List<PostSummary> findSummaryPageBefore(Long firstSeenId, Integer limit);
+    List<PostSummary> findSummaryPageByTag(String tag, Integer limit, Integer offset);
+    List<PostSummary> findSummariesByIds(Collection<Long> ids);
     Optional<PostModel> findPostById(Long id);
+    boolean existsById(Long id);
+    void streamPosts(int fetchSize, Consumer<PostModel> consumer);
     Long save(PostModel post);
+    List<Long> saveAll(List<PostModel> posts);
     void update(PostModel post);
-    void deleteById(Long id);
+    void publish(Long id, String imagePath);
+    boolean deleteById(Long id);
+    int deleteUnpublished();
     Long getTotalCount();
     Optional<String> findImageById(Long l);
-    void incrementLikesCount(Long id);
-    void decrementLikesCount(Long id);
+    long countByImagePath(String imagePath);
+    Set<String> findReferencedImagePaths(Collection<String> imagePaths);
+    void applyLikesDeltas(Map<Long, Long> deltas);
+    List<PostModel> findStaleRenders(int renderVersion, Integer limit);
+    int updateRendered(List<PostModel> posts);
+    List<String> findTagsById(Long id);
+    Map<String, Long> countByTags();
+    void backfillTags();
 }
@@ -0,0 +1,294 @@
+package ru.custom.blog.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe in-memory inverted index with BM25 ranking.
+ * <p>
+ * Every (re)indexed post gets a fresh internal document number, so posting lists stay append-only;
+ * replaced and removed documents are tombstoned and dropped by {@link #compact()} once they, or their postings,
+ * outnumber live ones. Each live document keeps its term frequencies so {@link #update} can change part of a post
+ * without the caller re-reading the rest of it.
+ */
+public class InvertedIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_DOCS_TO_COMPACT = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docByPost = new HashMap<>();
+    private long[] postIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private DocTerms[] docTerms = new DocTerms[1024];
+    private BitSet deleted = new BitSet();
+    private int docCount;
+    private int liveDocs;
+    private long liveLength;
+    private long postingCount;
+    private long livePostings;
+
+    public void index(long postId, List<String> terms) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(postId);
+            addDocument(postId, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds and removes term occurrences of an indexed post, e.g. those of one comment. Posts not in the index are skipped.
+     */
+    public void update(long postId, List<String> added, List<String> removed) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByPost.get(postId);
+            if (doc == null) return;
+
+            Map<String, Integer> frequencies = docTerms[doc].toMap();
+            added.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            removed.forEach(term -> frequencies.computeIfPresent(term, (t, freq) -> freq > 1 ? freq - 1 : null));
+
+            removeDocument(postId);
+            addDocument(postId, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns posts containing every term, best BM25 score first.
+     */
+    public SearchHits search(Collection<String> terms, int offset, int limit) {
+        Set<String> distinctTerms = new LinkedHashSet<>(terms);
+        if (distinctTerms.isEmpty() || limit <= 0) return SearchHits.empty();
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(distinctTerms.size());
+            for (String term : distinctTerms) {
+                PostingList list = postings.get(term);
+                if (list == null) return SearchHits.empty();
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+
+            PostingList.Cursor[] cursors = new PostingList.Cursor[lists.size()];
+            double[] idf = new double[lists.size()];
+            for (int i = 0; i < lists.size(); i++) {
+                cursors[i] = lists.get(i).cursor();
+                idf[i] = idf(lists.get(i).size());
+            }
+
+            double averageLength = liveDocs == 0 ? 1 : Math.max(1.0, (double) liveLength / liveDocs);
+            int wanted = offset + limit;
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(Comparator.comparingDouble(ScoredDoc::score));
+            long total = 0;
+
+            PostingList.Cursor lead = cursors[0];
+            boolean more = lead.next();
+            while (more) {
+                int doc = lead.doc();
+                int matched = 1;
+
+                for (; matched < cursors.length; matched++) {
+                    if (!cursors[matched].advance(doc)) return collect(top, offset, total);
+                    if (cursors[matched].doc() != doc) break;
+                }
+
+                if (matched < cursors.length) {
+                    more = lead.advance(cursors[matched].doc());
+                    continue;
+                }
+
+                if (!deleted.get(doc)) {
+                    total++;
+
+                    double score = 0;
+                    double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                    for (int i = 0; i < cursors.length; i++) {
+                        int freq = cursors[i].freq();
+                        score += idf[i] * freq * (K1 + 1) / (freq + norm);
+                    }
+
+                    if (top.size() < wanted) {
+                        top.add(new ScoredDoc(doc, score));
+                    } else if (top.peek().score() < score) {
+                        top.poll();
+                        top.add(new ScoredDoc(doc, score));
+                    }
+                }
+
+                more = lead.next();
+            }
+
+            return collect(top, offset, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SearchHits collect(PriorityQueue<ScoredDoc> top, int offset, long total) {
+        List<ScoredDoc> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.comparingDouble(ScoredDoc::score).reversed().thenComparingInt(ScoredDoc::doc));
+
+        List<Long> page = new ArrayList<>();
+        for (int i = offset; i < ranked.size(); i++) {
+            page.add(postIds[ranked.get(i).doc()]);
+        }
+
+        return new SearchHits(page, total);
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (liveDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void addDocument(long postId, Map<String, Integer> frequencies) {
+        int doc = docCount++;
+        if (doc == postIds.length) {
+            postIds = Arrays.copyOf(postIds, doc * 2);
+            docLengths = Arrays.copyOf(docLengths, doc * 2);
+            docTerms = Arrays.copyOf(docTerms, doc * 2);
+        }
+
+        DocTerms terms = DocTerms.of(frequencies);
+        postIds[doc] = postId;
+        docLengths[doc] = terms.length();
+        docTerms[doc] = terms;
+        docByPost.put(postId, doc);
+        liveDocs++;
+        liveLength += docLengths[doc];
+        postingCount += frequencies.size();
+        livePostings += frequencies.size();
+
+        frequencies.forEach((term, freq) -> postings.computeIfAbsent(term, t -> new PostingList()).add(doc, freq));
+
+        if (docCount > MIN_DOCS_TO_COMPACT && (docCount - liveDocs > liveDocs || postingCount - livePostings > livePostings)) {
+            compact();
+        }
+    }
+
+    private void removeDocument(long postId) {
+        Integer doc = docByPost.remove(postId);
+        if (doc == null) return;
+
+        deleted.set(doc);
+        liveDocs--;
+        liveLength -= docLengths[doc];
+        livePostings -= docTerms[doc].terms().length;
+        docTerms[doc] = null;
+    }
+
+    private void compact() {
+        int[] remap = new int[docCount];
+        int live = 0;
+
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = live;
+                postIds[live] = postIds[doc];
+                docLengths[live] = docLengths[doc];
+                docTerms[live] = docTerms[doc];
+                docByPost.put(postIds[live], live);
+                live++;
+            }
+        }
+
+        Map<String, PostingList> compacted = new HashMap<>();
+        postings.forEach((term, list) -> {
+            PostingList.Cursor cursor = list.cursor();
+            PostingList target = null;
+
+            while (cursor.next()) {
+                int doc = remap[cursor.doc()];
+                if (doc < 0) continue;
+
+                if (target == null) {
+                    target = new PostingList();
+                    compacted.put(term, target);
+                }
+                target.add(doc, cursor.freq());
+            }
+        });
+
+        postings = compacted;
+        deleted = new BitSet();
+        Arrays.fill(docTerms, live, docCount, null);
+        docCount = live;
+        postingCount = livePostings;
+    }
+
+    private record ScoredDoc(int doc, double score) {
+    }
+
+    private record DocTerms(String[] terms, int[] freqs) {
+        private static DocTerms of(Map<String, Integer> frequencies) {
+            String[] terms = new String[frequencies.size()];
+            int[] freqs = new int[frequencies.size()];
+            int i = 0;
+
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                terms[i] = entry.getKey();
+                freqs[i++] = entry.getValue();
+            }
+
+            return new DocTerms(terms, freqs);
+        }
+
+        private Map<String, Integer> toMap() {
+            Map<String, Integer> frequencies = new HashMap<>(terms.length * 2);
+            for (int i = 0; i < terms.length; i++) {
+                frequencies.put(terms[i], freqs[i]);
+            }
+
+            return frequencies;
+        }
+
+        private int length() {
+            int length = 0;
+            for (int freq : freqs) {
+                length += freq;
+            }
+
+            return length;
+        }
+    }
+}
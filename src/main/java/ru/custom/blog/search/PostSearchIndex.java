@@ -0,0 +1,186 @@
+package ru.custom.blog.search;
+
+import org.springframework.stereotype.Component;
+import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.repository.CommentRepository;
+import ru.custom.blog.repository.PostRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the search index in step with post and comment writes.
+ * Writes to a post go through {@link #write} so that a running {@link #rebuild} records the post and reloads it
+ * into the new index before the swap.
+ */
+@Component
+public class PostSearchIndex {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int WRITE_STRIPES = 64;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final ReentrantLock[] stripes = new ReentrantLock[WRITE_STRIPES];
+    private final Object journalLock = new Object();
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private Set<Long> journal;
+
+    public PostSearchIndex(PostRepository postRepository, CommentRepository commentRepository) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+
+        for (int i = 0; i < WRITE_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs a database write of a post or its comments together with the matching index update.
+     * Writes to the same post are serialized, and a post written while {@link #rebuild} runs is reloaded into the new index.
+     */
+    public void write(Long postId, Runnable write) {
+        locked(postId, () -> {
+            journal(postId);
+            write.run();
+        });
+    }
+
+    /**
+     * Builds a new index from the database in keyset-ordered batches, reloads the posts written meanwhile
+     * and swaps it in when no write is left to replay.
+     */
+    public synchronized int rebuild() {
+        InvertedIndex rebuilt = new InvertedIndex();
+
+        synchronized (journalLock) {
+            journal = new HashSet<>();
+        }
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+            stripe.unlock();
+        }
+
+        Long lastSeenId = Long.MAX_VALUE;
+        List<PostModel> batch;
+
+        do {
+            batch = postRepository.findPageAfter(lastSeenId, REBUILD_BATCH_SIZE);
+            if (batch.isEmpty()) break;
+
+            Map<Long, List<CommentModel>> comments =
+                commentRepository.findByPostIds(batch.stream().map(PostModel::getId).toList());
+
+            for (PostModel post : batch) {
+                rebuilt.index(post.getId(), documentTerms(post, comments.getOrDefault(post.getId(), List.of())));
+            }
+
+            lastSeenId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        while (true) {
+            List<Long> written;
+
+            synchronized (journalLock) {
+                if (journal.isEmpty()) {
+                    index = rebuilt;
+                    journal = null;
+
+                    return rebuilt.size();
+                }
+                written = List.copyOf(journal);
+                journal.clear();
+            }
+
+            written.forEach(postId -> locked(postId, () -> reload(rebuilt, postId)));
+        }
+    }
+
+    public void indexPost(PostModel post, List<CommentModel> comments) {
+        write(post.getId(), () -> index.index(post.getId(), documentTerms(post, comments)));
+    }
+
+    /**
+     * Replaces the title, text and tag terms of an indexed post and keeps the terms of its comments.
+     */
+    public void updatePost(PostModel previous, PostModel post) {
+        index.update(post.getId(), postTerms(post), postTerms(previous));
+    }
+
+    public void addComment(CommentModel comment) {
+        index.update(comment.getPostId(), Tokenizer.tokenize(comment.getText()), List.of());
+    }
+
+    public void editComment(CommentModel previous, CommentModel comment) {
+        index.update(previous.getPostId(), Tokenizer.tokenize(comment.getText()), Tokenizer.tokenize(previous.getText()));
+    }
+
+    public void removeComment(CommentModel comment) {
+        index.update(comment.getPostId(), List.of(), Tokenizer.tokenize(comment.getText()));
+    }
+
+    public void removePost(Long postId) {
+        write(postId, () -> index.remove(postId));
+    }
+
+    public SearchHits search(SearchQuery query, int offset, int limit) {
+        return index.search(query.terms(), offset, limit);
+    }
+
+    private void reload(InvertedIndex target, Long postId) {
+        Optional<PostModel> post = postRepository.findPostById(postId);
+
+        if (post.isPresent()) {
+            target.index(postId, documentTerms(post.get(), commentRepository.findByPostId(postId)));
+        } else {
+            target.remove(postId);
+        }
+    }
+
+    private void journal(Long postId) {
+        synchronized (journalLock) {
+            if (journal != null) {
+                journal.add(postId);
+            }
+        }
+    }
+
+    private void locked(Long postId, Runnable action) {
+        ReentrantLock stripe = stripes[Math.floorMod(postId.hashCode(), WRITE_STRIPES)];
+
+        stripe.lock();
+        try {
+            action.run();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private List<String> documentTerms(PostModel post, List<CommentModel> comments) {
+        List<String> terms = postTerms(post);
+
+        for (CommentModel comment : comments) {
+            terms.addAll(Tokenizer.tokenize(comment.getText()));
+        }
+
+        return terms;
+    }
+
+    private List<String> postTerms(PostModel post) {
+        List<String> terms = new ArrayList<>(Tokenizer.tokenize(post.getTitle()));
+        terms.addAll(Tokenizer.tokenize(post.getText()));
+
+        for (String tag : post.getDistinctTags()) {
+            terms.addAll(Tokenizer.tokenize(tag));
+            terms.add(Tokenizer.tagTerm(tag));
+        }
+
+        return terms;
+    }
+}
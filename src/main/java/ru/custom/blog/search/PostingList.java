@@ -0,0 +1,122 @@
+package ru.custom.blog.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only list of (document, term frequency) pairs, stored as varint-encoded document deltas.
+ * Every {@link #SKIP_INTERVAL} entries a skip point is recorded so intersections can jump over blocks.
+ */
+final class PostingList {
+    private static final int SKIP_INTERVAL = 128;
+
+    private byte[] data = new byte[16];
+    private int length;
+    private int size;
+    private int lastDoc = -1;
+
+    private int[] skipDocs = new int[4];
+    private int[] skipOffsets = new int[4];
+    private int skips;
+
+    void add(int doc, int freq) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException(String.format("Document %d is not greater than %d", doc, lastDoc));
+        }
+
+        if (size % SKIP_INTERVAL == 0) {
+            if (skips == skipDocs.length) {
+                skipDocs = Arrays.copyOf(skipDocs, skips * 2);
+                skipOffsets = Arrays.copyOf(skipOffsets, skips * 2);
+            }
+            skipDocs[skips] = lastDoc;
+            skipOffsets[skips] = length;
+            skips++;
+        }
+
+        writeVarInt(doc - lastDoc);
+        writeVarInt(freq);
+        lastDoc = doc;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    final class Cursor {
+        private int offset;
+        private int read;
+        private int doc = -1;
+        private int freq;
+
+        int doc() {
+            return doc;
+        }
+
+        int freq() {
+            return freq;
+        }
+
+        boolean next() {
+            if (read == size) return false;
+
+            doc += readVarInt();
+            freq = readVarInt();
+            read++;
+
+            return true;
+        }
+
+        /**
+         * Moves to the first document not less than {@code target}.
+         */
+        boolean advance(int target) {
+            if (read > 0 && doc >= target) return true;
+
+            int found = Arrays.binarySearch(skipDocs, 0, skips, target);
+            int block = (found >= 0 ? found : -found - 1) - 1;
+
+            if (block >= 0 && block * SKIP_INTERVAL > read) {
+                offset = skipOffsets[block];
+                doc = skipDocs[block];
+                read = block * SKIP_INTERVAL;
+            }
+
+            while (next()) {
+                if (doc >= target) return true;
+            }
+
+            return false;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+
+            do {
+                b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            return value;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.custom.blog.search;
+
+import java.util.List;
+
+public class SearchHits {
+    private final List<Long> postIds;
+    private final long total;
+
+    public SearchHits(List<Long> postIds, long total) {
+        this.postIds = postIds;
+        this.total = total;
+    }
+
+    public static SearchHits empty() {
+        return new SearchHits(List.of(), 0);
+    }
+
+    public List<Long> getPostIds() {
+        return postIds;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
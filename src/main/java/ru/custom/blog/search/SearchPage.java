@@ -0,0 +1,23 @@
+package ru.custom.blog.search;
+
+import ru.custom.blog.model.PostSummary;
+
+import java.util.List;
+
+public class SearchPage {
+    private final List<PostSummary> posts;
+    private final long total;
+
+    public SearchPage(List<PostSummary> posts, long total) {
+        this.posts = posts;
+        this.total = total;
+    }
+
+    public List<PostSummary> getPosts() {
+        return posts;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
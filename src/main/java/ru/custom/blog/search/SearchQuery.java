@@ -0,0 +1,57 @@
+package ru.custom.blog.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed value of the feed search box: free words are matched against titles, texts, tags and comments,
+ * words prefixed with {@code #} must be tags of the post. All parts must match.
+ */
+public class SearchQuery {
+    private static final String TAG_PREFIX = "#";
+
+    private final List<String> words;
+    private final List<String> tags;
+
+    private SearchQuery(List<String> words, List<String> tags) {
+        this.words = words;
+        this.tags = tags;
+    }
+
+    public static SearchQuery parse(String query) {
+        List<String> words = new ArrayList<>();
+        List<String> tags = new ArrayList<>();
+
+        if (query != null) {
+            for (String part : query.trim().split("\\s+")) {
+                if (part.startsWith(TAG_PREFIX)) {
+                    String tag = part.substring(TAG_PREFIX.length());
+                    if (!tag.isBlank()) tags.add(tag);
+                } else {
+                    words.addAll(Tokenizer.tokenize(part));
+                }
+            }
+        }
+
+        return new SearchQuery(words, tags);
+    }
+
+    public boolean isEmpty() {
+        return words.isEmpty() && tags.isEmpty();
+    }
+
+    public boolean isSingleTag() {
+        return words.isEmpty() && tags.size() == 1;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public List<String> terms() {
+        List<String> terms = new ArrayList<>(words);
+        tags.forEach(tag -> terms.add(Tokenizer.tagTerm(tag)));
+
+        return terms;
+    }
+}
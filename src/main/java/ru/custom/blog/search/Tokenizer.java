@@ -0,0 +1,43 @@
+package ru.custom.blog.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Tokenizer {
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (Character.isLetterOrDigit(c)) {
+                if (token.length() < MAX_TOKEN_LENGTH) {
+                    token.append(Character.toLowerCase(c));
+                }
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Index term for a tag. Tags match case-sensitively, like the {@code post_tags} lookup used for tag-only queries.
+     */
+    public static String tagTerm(String tag) {
+        return "#" + tag;
+    }
+}
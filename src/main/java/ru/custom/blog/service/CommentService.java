@@ -1,38 +1,76 @@
 package ru.custom.blog.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import ru.custom.blog.cache.FeedCache;
 import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.pagination.CommentPage;
 import ru.custom.blog.repository.CommentRepository;
+import ru.custom.blog.search.PostSearchIndex;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class CommentService {
 
     private final CommentRepository commentRepository;
+    private final PostSearchIndex postSearchIndex;
+    private final FeedCache feedCache;
+    private final int pageSize;
 
-    public CommentService(CommentRepository commentRepository) {
+    public CommentService(CommentRepository commentRepository, PostSearchIndex postSearchIndex, FeedCache feedCache,
+                          @Value("${blog.comments.page-size:50}") int pageSize) {
         this.commentRepository = commentRepository;
+        this.postSearchIndex = postSearchIndex;
+        this.feedCache = feedCache;
+        this.pageSize = pageSize;
     }
 
     public List<CommentModel> getByPostId(Long postId) {
         return commentRepository.findByPostId(postId);
     }
 
+    /**
+     * Returns the comments of a post that follow {@code afterId}, oldest first; a {@code null} id starts from the first comment.
+     */
+    public CommentPage getPage(Long postId, Long afterId) {
+        List<CommentModel> fetched = commentRepository.findByPostId(postId, afterId, pageSize + 1);
+
+        return CommentPage.of(postId, fetched, pageSize, commentRepository.countByPostId(postId));
+    }
+
     public void saveComment(CommentModel comment) {
-        commentRepository.save(comment);
+        postSearchIndex.write(comment.getPostId(), () -> {
+            commentRepository.save(comment);
+            postSearchIndex.addComment(comment);
+        });
+        feedCache.invalidate();
     }
 
-    public void removeComment(Long id) {
-        commentRepository.deleteById(id);
+    public void removeComment(Long postId, Long id) {
+        postSearchIndex.write(postId, () -> {
+            Optional<CommentModel> removed = commentRepository.findById(id);
+
+            commentRepository.deleteById(id);
+            removed.ifPresent(postSearchIndex::removeComment);
+        });
+        feedCache.invalidate();
     }
 
     public void editComment(CommentModel comment) {
-        commentRepository.update(comment);
+        postSearchIndex.write(comment.getPostId(), () -> {
+            Optional<CommentModel> previous = commentRepository.findById(comment.getId());
+
+            commentRepository.update(comment);
+            previous.ifPresent(found -> postSearchIndex.editComment(found, comment));
+        });
+        feedCache.invalidate();
     }
 
     public void deleteAllPostComments(Long postId) {
         commentRepository.deleteByPostId(postId);
+        feedCache.invalidate();
     }
 
 }
@@ -1,88 +1,327 @@
 package ru.custom.blog.service;
 
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import ru.custom.blog.cache.CachedImage;
+import ru.custom.blog.cache.ImageBufferCache;
+import ru.custom.blog.model.ImageModel;
+import ru.custom.blog.repository.ImageRepository;
 import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.storage.ImageBlobStore;
+import ru.custom.blog.storage.ImageVariants;
 
-import java.io.File;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ImageService {
     private static final Logger logger = LoggerFactory.getLogger(ImageService.class);
     private final PostRepository postRepository;
+    private final ImageRepository imageRepository;
+    private final ImageBlobStore imageBlobStore;
+    private final ImageVariants imageVariants;
+    private final ImageBufferCache imageBufferCache;
+    private final ServletContext servletContext;
+    private final Duration releaseGracePeriod;
 
-    public ImageService(PostRepository postRepository) {
+    private final CacheControl cacheControl;
+    private final CacheControl revalidateCacheControl = CacheControl.noCache();
+
+    public ImageService(PostRepository postRepository, ImageRepository imageRepository, ImageBlobStore imageBlobStore,
+                        ImageVariants imageVariants, ImageBufferCache imageBufferCache, ServletContext servletContext,
+                        @Value("${blog.images.max-age-seconds:604800}") long maxAgeSeconds,
+                        @Value("${blog.images.release.grace-period-seconds:60}") long releaseGracePeriodSeconds) {
         this.postRepository = postRepository;
+        this.imageRepository = imageRepository;
+        this.imageBlobStore = imageBlobStore;
+        this.imageVariants = imageVariants;
+        this.imageBufferCache = imageBufferCache;
+        this.servletContext = servletContext;
+        this.releaseGracePeriod = Duration.ofSeconds(releaseGracePeriodSeconds);
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
     }
 
     public ResponseEntity<Resource> getImage(Long id) {
-        Optional<String> imagePath = postRepository.findImageById(id);
+        return getImage(id, null);
+    }
 
-        if (imagePath.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<Resource> getImage(Long id, Integer size) {
+        return getImage(id, size, null, null);
+    }
 
-        Path filePath = Paths.get(imagePath.get());
-        if (!Files.exists(filePath)) {
+    /**
+     * Serves a post's image. The URL {@code /images/{id}} keeps pointing at the post when its image is edited,
+     * so only a request carrying the current content hash as {@code version} may be cached for long;
+     * any other request gets {@code no-cache} and is revalidated by its ETag.
+     * Conditional requests are answered from the recorded validators before the file is opened.
+     */
+    public ResponseEntity<Resource> getImage(Long id, Integer size, String version, HttpServletRequest request) {
+        Optional<ImageModel> image = imageRepository.findByPostId(id)
+            .or(() -> postRepository.findImageById(id).flatMap(imagePath -> recordCurrentImage(id, imagePath)));
+
+        if (image.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        try {
-            Resource resource = new UrlResource(filePath.toUri());
+        ImageModel metadata = image.get();
+        CacheControl versionedCacheControl = version != null && version.equals(metadata.getHash())
+            ? cacheControl
+            : revalidateCacheControl;
+        Optional<Integer> variantSize = size == null ? Optional.empty() : imageVariants.sizeFor(size);
+        if (variantSize.isPresent()) {
+            Path variantPath = ImageVariants.variantPath(Paths.get(metadata.getPath()), variantSize.get());
+            String eTag = eTagOf(metadata) + "-" + variantSize.get();
 
-            String contentType = Files.probeContentType(filePath);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
+            if (imageBufferCache.get(variantPath).isPresent() || imageVariants.find(metadata.getPath(), size).isPresent()) {
+                try {
+                    return serve(variantPath, MediaType.IMAGE_JPEG, eTag, metadata.getMtime(), versionedCacheControl, request);
+                } catch (IOException e) {
+                    logger.warn(String.format("Can't read variant %s, serving the original. Got error: %s", variantPath, e.getMessage()));
+                }
             }
+        }
 
-            return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filePath.getFileName() + "\"")
-                .body(resource);
-
+        try {
+            return serve(Paths.get(metadata.getPath()), MediaType.parseMediaType(metadata.getContentType()),
+                eTagOf(metadata), metadata.getMtime(), variantSize.isPresent() ? revalidateCacheControl : versionedCacheControl,
+                request);
         } catch (IOException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     public String saveImage(MultipartFile imageFile, String basePath) {
-        String uploadDir =  Paths.get(basePath, "images").toString();
+        try (InputStream content = imageFile.getInputStream()) {
+            return storeImage(content, imageFile.getOriginalFilename(), basePath);
+        } catch (IOException e) {
+            logger.error(String.format("Can't read upload %s. Got error: %s", imageFile.getOriginalFilename(), e.getMessage()));
+            return "";
+        }
+    }
+
+    public String storeImage(InputStream content, String originalFilename, String basePath) {
+        try {
+            return writeImage(content, originalFilename, basePath);
+        } catch (IOException e) {
+            logger.error(String.format("Can't store image %s. Got error: %s", originalFilename, e.getMessage()));
+            return "";
+        }
+    }
+
+    /**
+     * Like {@link #storeImage}, but lets read failures and {@link ru.custom.blog.storage.ImageTooLargeException}
+     * through, so a streaming upload can be rejected instead of saved without its image.
+     */
+    public String writeImage(InputStream content, String originalFilename, String basePath) throws IOException {
+        return imageBlobStore.put(content, originalFilename, basePath).toString();
+    }
+
+    public void generateVariants(String imagePath) {
+        imageVariants.generate(imagePath);
+    }
+
+    public ImageModel recordImage(Long postId, String imagePath) {
+        ImageModel image = describe(postId, imagePath);
+        imageRepository.save(image);
+
+        return image;
+    }
+
+    public void recordImages(Map<Long, String> imagePaths) {
+        imageRepository.saveAll(imagePaths.entrySet().stream()
+            .map(entry -> describe(entry.getKey(), entry.getValue()))
+            .toList());
+    }
+
+    public void forgetImage(Long postId) {
+        imageRepository.deleteByPostId(postId);
+    }
+
+    /**
+     * Records metadata for up to {@code batchSize} posts that have none yet, e.g. created before the images table existed,
+     * and returns how many were recorded. Posts missed by the backfill, such as bulk imports, are recorded on their
+     * first image request instead.
+     */
+    public int backfillMetadata(int batchSize) {
+        Map<Long, String> batch = imageRepository.findUnrecordedImages(batchSize);
+        if (batch.isEmpty()) return 0;
+
+        recordImages(batch);
+
+        return batch.size();
+    }
 
-        File uploadDirFile = new File(uploadDir);
-        if (!uploadDirFile.exists()) {
-            uploadDirFile.mkdirs();
+    /**
+     * Deletes an image no post references any more. A blob stored again within the grace period may be about to be
+     * referenced by a post being saved, so it is kept and left to the orphan sweeper.
+     */
+    public void releaseImage(String imagePath) {
+        if (imagePath == null || imagePath.isBlank()) return;
+
+        if (postRepository.countByImagePath(imagePath) == 0) {
+            removeImage(imagePath, Instant.now().minus(releaseGracePeriod));
         }
+    }
 
-        String filePath = uploadDir + File.separator + imageFile.getOriginalFilename();
+    public boolean removeImage(String imagePath) {
+        return removeImage(imagePath, Instant.MAX);
+    }
 
-        File destinationFile = new File(filePath);
+    /**
+     * Deletes an image and its variants unless it was stored at or after {@code storedBefore}.
+     * Paths outside the image store are refused. Returns whether the image is gone.
+     */
+    public boolean removeImage(String imagePath, Instant storedBefore) {
+        if (!ImageBlobStore.contains(servletContext.getRealPath(""), imagePath)) {
+            logger.warn(String.format("Refusing to remove %s outside the image store", imagePath));
+            return false;
+        }
 
         try {
-            imageFile.transferTo(destinationFile);
+            if (!imageBlobStore.delete(Path.of(imagePath), storedBefore)) return false;
         } catch (IOException e) {
-            logger.error(String.format("Can't write file %s. Got error: %s", filePath, e.getMessage()));
+            logger.error(String.format("Can't remove file %s. Got error: %s", imagePath, e.getMessage()));
+            return false;
         }
 
-        return filePath;
+        List<Path> paths = new ArrayList<>(imageVariants.variantPaths(imagePath));
+        paths.add(Path.of(imagePath));
+        imageBufferCache.invalidate(paths);
+        imageVariants.delete(imagePath);
+
+        return true;
+    }
+
+    /**
+     * Serves a file with the given caching policy; an original standing in for a variant that is not ready yet
+     * must not be cached for long, or clients keep the full-size image after the variant appears.
+     */
+    private ResponseEntity<Resource> serve(Path path, MediaType contentType, String eTag, long lastModified,
+                                           CacheControl cacheControl, HttpServletRequest request) throws IOException {
+        if (request != null && new ServletWebRequest(request).checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .build();
+        }
+
+        Optional<CachedImage> cached = imageBufferCache.get(path);
+        if (cached.isPresent()) {
+            return respond(cached.get(), cacheControl);
+        }
+
+        Resource body = imageBufferCache.load(path, contentType, eTag, lastModified)
+            .<Resource>map(image -> image)
+            .orElseGet(() -> new FileSystemResource(path));
+
+        return respond(body, contentType, eTag, lastModified, cacheControl);
+    }
+
+    private ResponseEntity<Resource> respond(CachedImage image, CacheControl cacheControl) {
+        return respond(image, image.getContentType(), image.getETag(), image.lastModified(), cacheControl);
+    }
+
+    private ResponseEntity<Resource> respond(Resource body, MediaType contentType, String eTag, long lastModified,
+                                             CacheControl cacheControl) {
+        return ResponseEntity.ok()
+            .eTag(eTag)
+            .lastModified(lastModified)
+            .cacheControl(cacheControl)
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + body.getFilename() + "\"")
+            .body(body);
     }
 
-    public void removeImage(String imagePath) {
+    /**
+     * Records a lazily probed image unless the post got a row or a new path meanwhile; then the stored row wins.
+     */
+    private Optional<ImageModel> recordCurrentImage(Long postId, String imagePath) {
+        ImageModel image = describe(postId, imagePath);
+
+        return imageRepository.saveIfCurrent(image) ? Optional.of(image) : imageRepository.findByPostId(postId);
+    }
+
+    /**
+     * Probes a stored file once: size, modification time, content hash and pixel dimensions.
+     * A file that can't be read is still recorded, so serving it answers 404 without probing again.
+     */
+    private ImageModel describe(Long postId, String imagePath) {
+        ImageModel image = new ImageModel();
+        image.setPostId(postId);
+        image.setPath(imagePath);
+        image.setContentType(MediaTypeFactory.getMediaType(imagePath).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        if (imagePath.isBlank()) {
+            return image;
+        }
+
+        Path path = Paths.get(imagePath);
         try {
-            Files.delete(Path.of(imagePath));
-        } catch(IOException e) {
-            logger.error(String.format("Can't remove file %s. Got error: %s", imagePath, e.getMessage()));
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            image.setByteSize(attributes.size());
+            image.setMtime(attributes.lastModifiedTime().toMillis());
+
+            Optional<String> hash = ImageBlobStore.hashOf(path);
+            image.setHash(hash.isPresent() ? hash.get() : ImageBlobStore.digest(path));
+
+            try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+                Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+                if (readers.hasNext()) {
+                    ImageReader reader = readers.next();
+                    try {
+                        reader.setInput(input, true, true);
+                        image.setWidth(reader.getWidth(0));
+                        image.setHeight(reader.getHeight(0));
+                    } finally {
+                        reader.dispose();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn(String.format("Can't read image %s of post %d. Got error: %s", imagePath, postId, e.getMessage()));
+        }
+
+        return image;
+    }
+
+    /**
+     * The content hash is a strong validator; files that could not be hashed fall back to size and modification time.
+     */
+    private static String eTagOf(ImageModel image) {
+        if (image.getHash() != null) {
+            return image.getHash();
         }
+
+        return Long.toHexString(image.getByteSize()) + "-" + Long.toHexString(image.getMtime());
     }
 }
@@ -0,0 +1,141 @@
+package ru.custom.blog.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import ru.custom.blog.cache.FeedCache;
+import ru.custom.blog.repository.PostRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Accumulates like/dislike clicks in memory and writes them to the database in one batch per flush,
+ * so a burst of clicks on the same post does not queue up on its row lock.
+ * A flush moves deltas from pending to in-flight under a write lock and runs the batch update without it.
+ * Only the commit and the clearing of in-flight happen under the write lock again, so a read wrapped in
+ * {@link #read} sees every click exactly once, either in the stored count or in {@link #pendingDelta},
+ * and never waits for the update statements themselves. Cached feed pages are retired once per committed flush
+ * rather than per click, so between flushes the feed may lag the post page by up to one flush interval.
+ * Pending deltas are merged per post and dropped once they sum to zero, so the map holds only posts
+ * clicked since the last flush.
+ */
+@Component
+public class LikeAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(LikeAggregator.class);
+
+    private final PostRepository postRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final FeedCache feedCache;
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private volatile Map<Long, Long> inFlight = Map.of();
+
+    public LikeAggregator(PostRepository postRepository, PlatformTransactionManager transactionManager,
+                          FeedCache feedCache) {
+        this.postRepository = postRepository;
+        this.transactionManager = transactionManager;
+        this.feedCache = feedCache;
+    }
+
+    public void add(Long postId, long delta) {
+        pending.merge(postId, delta, LikeAggregator::sumOrRemove);
+    }
+
+    /**
+     * Delta not yet visible in the database: clicks still pending plus the batch currently being written.
+     */
+    public long pendingDelta(Long postId) {
+        return pending.getOrDefault(postId, 0L) + inFlight.getOrDefault(postId, 0L);
+    }
+
+    /**
+     * Runs a read of stored likes counts so that no flush moves or commits deltas until it has applied {@link #pendingDelta}.
+     */
+    public <T> T read(Supplier<T> read) {
+        flushLock.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public int pendingPosts() {
+        return pending.size();
+    }
+
+    public void discard(Long postId) {
+        pending.remove(postId);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.likes.flush-interval-ms:500}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+
+        flushLock.writeLock().lock();
+        try {
+            pending.forEach(deltas::put);
+            inFlight = deltas;
+            deltas.forEach((postId, delta) -> pending.merge(postId, -delta, LikeAggregator::sumOrRemove));
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        if (deltas.isEmpty()) return;
+
+        TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        try {
+            postRepository.applyLikesDeltas(deltas);
+        } catch (Exception e) {
+            transactionManager.rollback(transaction);
+            restore(deltas, e);
+            return;
+        }
+
+        flushLock.writeLock().lock();
+        try {
+            transactionManager.commit(transaction);
+            inFlight = Map.of();
+        } catch (Exception e) {
+            restore(deltas, e);
+            return;
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        feedCache.invalidate();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void restore(Map<Long, Long> deltas, Exception error) {
+        logger.error(String.format("Failed to flush likes for %d posts. Got error: %s", deltas.size(), error.getMessage()));
+
+        flushLock.writeLock().lock();
+        try {
+            deltas.forEach(this::add);
+            inFlight = Map.of();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private static Long sumOrRemove(Long current, Long delta) {
+        long sum = current + delta;
+
+        return sum == 0 ? null : sum;
+    }
+}
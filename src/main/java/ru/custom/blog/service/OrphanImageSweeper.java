@@ -0,0 +1,221 @@
+package ru.custom.blog.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.storage.ImageVariants;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes image files that no post references: blobs left behind by failed removals or by edits whose update
+ * did not commit, and temp files of interrupted uploads. The image directory is walked as a stream and checked
+ * against {@code posts.image_path} in batches, so memory stays at one batch however many files there are.
+ * Files younger than the grace period are never touched, and deletes are paced to {@code max-deletes-per-second}.
+ * Since pacing can hold a batch for seconds, each candidate's reference is checked again right before its delete.
+ * Variants are removed together with their original and are not swept on their own.
+ */
+@Component
+public class OrphanImageSweeper {
+    private static final Logger logger = LoggerFactory.getLogger(OrphanImageSweeper.class);
+    private static final String IMAGES_DIR = "images";
+    private static final String TEMP_DIR = ".tmp";
+
+    private final PostRepository postRepository;
+    private final ImageService imageService;
+    private final ImageVariants imageVariants;
+    private final ServletContext servletContext;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final long deleteIntervalNanos;
+    private final Counter reclaimedBytes;
+    private final Counter deletedFiles;
+    private long nextDeleteAt;
+
+    public OrphanImageSweeper(PostRepository postRepository, ImageService imageService, ImageVariants imageVariants,
+                              ServletContext servletContext, MeterRegistry meterRegistry,
+                              @Value("${blog.images.sweeper.grace-period-minutes:60}") long gracePeriodMinutes,
+                              @Value("${blog.images.sweeper.batch-size:500}") int batchSize,
+                              @Value("${blog.images.sweeper.max-deletes-per-second:50}") int maxDeletesPerSecond) {
+        this.postRepository = postRepository;
+        this.imageService = imageService;
+        this.imageVariants = imageVariants;
+        this.servletContext = servletContext;
+        this.gracePeriod = Duration.ofMinutes(gracePeriodMinutes);
+        this.batchSize = batchSize;
+        this.deleteIntervalNanos = TimeUnit.SECONDS.toNanos(1) / maxDeletesPerSecond;
+        this.reclaimedBytes = Counter.builder("image.sweeper.reclaimed")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.deletedFiles = Counter.builder("image.sweeper.deleted")
+            .baseUnit("files")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${blog.images.sweeper.initial-delay-ms:600000}",
+        fixedDelayString = "${blog.images.sweeper.interval-ms:21600000}")
+    public long sweep() {
+        return sweep(Paths.get(servletContext.getRealPath(""), IMAGES_DIR));
+    }
+
+    /**
+     * Sweeps one image directory and returns the number of bytes reclaimed.
+     */
+    public synchronized long sweep(Path imagesDir) {
+        if (Files.notExists(imagesDir)) return 0;
+
+        long start = System.currentTimeMillis();
+        Sweep sweep = new Sweep(imagesDir.resolve(TEMP_DIR), FileTime.from(Instant.now().minus(gracePeriod)));
+
+        try {
+            Files.walkFileTree(imagesDir, sweep);
+            sweep.flush();
+        } catch (IOException e) {
+            logger.error(String.format("Failed to sweep %s. Got error: %s", imagesDir, e.getMessage()));
+        }
+
+        logger.info(String.format("Swept %d files in %s, deleted %d orphans (%d bytes) in %d ms",
+            sweep.visited, imagesDir, sweep.deleted, sweep.reclaimed, System.currentTimeMillis() - start));
+
+        return sweep.reclaimed;
+    }
+
+    private boolean pace() {
+        long wait = nextDeleteAt - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        nextDeleteAt = Math.max(nextDeleteAt, System.nanoTime()) + deleteIntervalNanos;
+
+        return true;
+    }
+
+    private record Candidate(Path path, long size) {
+    }
+
+    private final class Sweep extends SimpleFileVisitor<Path> {
+        private final Path tempDir;
+        private final FileTime cutoff;
+        private final List<Candidate> batch = new ArrayList<>(batchSize);
+        private long visited;
+        private long deleted;
+        private long reclaimed;
+        private boolean interrupted;
+
+        private Sweep(Path tempDir, FileTime cutoff) {
+            this.tempDir = tempDir;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+            visited++;
+
+            if (!attributes.isRegularFile() || attributes.lastModifiedTime().compareTo(cutoff) >= 0) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            if (tempDir.equals(file.getParent())) {
+                deleteTemp(file, attributes.size());
+            } else if (!imageVariants.isVariant(file)) {
+                batch.add(new Candidate(file, attributes.size()));
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            }
+
+            return interrupted ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            logger.warn(String.format("Can't read %s while sweeping. Got error: %s", file, e.getMessage()));
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        private void flush() {
+            if (batch.isEmpty() || interrupted) return;
+
+            Set<String> referenced = postRepository.findReferencedImagePaths(
+                batch.stream().map(candidate -> candidate.path().toString()).toList());
+
+            for (Candidate candidate : batch) {
+                if (!referenced.contains(candidate.path().toString())) {
+                    deleteOrphan(candidate);
+                }
+                if (interrupted) break;
+            }
+            batch.clear();
+        }
+
+        private void deleteOrphan(Candidate candidate) {
+            if (!pace()) {
+                interrupted = true;
+                return;
+            }
+
+            String path = candidate.path().toString();
+            if (postRepository.countByImagePath(path) > 0) return;
+
+            long size = candidate.size();
+            for (Path variant : imageVariants.variantPaths(path)) {
+                try {
+                    size += Files.exists(variant) ? Files.size(variant) : 0;
+                } catch (IOException e) {
+                    logger.warn(String.format("Can't read size of %s. Got error: %s", variant, e.getMessage()));
+                }
+            }
+
+            if (imageService.removeImage(path, cutoff.toInstant())) {
+                count(size);
+            }
+        }
+
+        private void deleteTemp(Path file, long size) {
+            if (!pace()) {
+                interrupted = true;
+                return;
+            }
+
+            try {
+                if (Files.deleteIfExists(file)) {
+                    count(size);
+                }
+            } catch (IOException e) {
+                logger.error(String.format("Can't remove stale upload %s. Got error: %s", file, e.getMessage()));
+            }
+        }
+
+        private void count(long size) {
+            deleted++;
+            reclaimed += size;
+            deletedFiles.increment();
+            reclaimedBytes.increment(size);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.custom.blog.service;
+
+import org.springframework.stereotype.Component;
+import ru.custom.blog.repository.PostRepository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory total and per-tag post counts, so the feed does not run an aggregate query per request.
+ * Seeded from the database on startup and adjusted by {@link PostService} on every write.
+ */
+@Component
+public class PostCounts {
+    private final PostRepository postRepository;
+
+    private final AtomicLong total = new AtomicLong();
+    private volatile ConcurrentHashMap<String, Long> byTag = new ConcurrentHashMap<>();
+
+    public PostCounts(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    public synchronized void reload() {
+        ConcurrentHashMap<String, Long> tagCounts = new ConcurrentHashMap<>(postRepository.countByTags());
+
+        total.set(postRepository.getTotalCount());
+        byTag = tagCounts;
+    }
+
+    public long total() {
+        return total.get();
+    }
+
+    public long byTag(String tag) {
+        return byTag.getOrDefault(tag, 0L);
+    }
+
+    public void postAdded(Collection<String> tags) {
+        total.incrementAndGet();
+        tags.forEach(tag -> adjust(tag, 1));
+    }
+
+    public void postRemoved(Collection<String> tags) {
+        total.decrementAndGet();
+        tags.forEach(tag -> adjust(tag, -1));
+    }
+
+    public void tagsChanged(Collection<String> previousTags, Collection<String> currentTags) {
+        Set<String> removed = new HashSet<>(previousTags);
+        removed.removeAll(currentTags);
+
+        Set<String> added = new HashSet<>(currentTags);
+        added.removeAll(previousTags);
+
+        removed.forEach(tag -> adjust(tag, -1));
+        added.forEach(tag -> adjust(tag, 1));
+    }
+
+    private void adjust(String tag, long delta) {
+        byTag.compute(tag, (key, count) -> {
+            long updated = (count == null ? 0 : count) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+}
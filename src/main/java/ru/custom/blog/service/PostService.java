@@ -2,85 +2,236 @@ package ru.custom.blog.service;
 
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.cache.FeedCache;
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.model.PostSummary;
+import ru.custom.blog.render.PostRenderer;
 import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.search.PostSearchIndex;
+import ru.custom.blog.search.SearchHits;
+import ru.custom.blog.search.SearchPage;
+import ru.custom.blog.search.SearchQuery;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class PostService {
     private final PostRepository postRepository;
     private final CommentService commentService;
     private final ImageService imageService;
-
-    public PostService(PostRepository postRepository, CommentService commentService, ImageService imageService) {
+    private final LikeAggregator likeAggregator;
+    private final PostCounts postCounts;
+    private final PostSearchIndex postSearchIndex;
+    private final FeedCache feedCache;
+    private final PostRenderer postRenderer;
+
+    public PostService(PostRepository postRepository, CommentService commentService, ImageService imageService,
+                       LikeAggregator likeAggregator, PostCounts postCounts, PostSearchIndex postSearchIndex,
+                       FeedCache feedCache, PostRenderer postRenderer) {
         this.postRepository = postRepository;
         this.commentService = commentService;
         this.imageService = imageService;
+        this.likeAggregator = likeAggregator;
+        this.postCounts = postCounts;
+        this.postSearchIndex = postSearchIndex;
+        this.feedCache = feedCache;
+        this.postRenderer = postRenderer;
     }
 
     public long getTotalPostsCount() {
-        return postRepository.getTotalCount();
+        return postCounts.total();
+    }
+
+    public long getTaggedPostsCount(String tagName) {
+        return postCounts.byTag(tagName);
     }
 
     public Long savePost(PostModel post, MultipartFile imageFile, String basePath) {
-        String filePath = imageService.saveImage(imageFile, basePath);
-        post.setImagePath(filePath);
+        post.setImagePath(imageService.saveImage(imageFile, basePath));
+        postRenderer.render(post);
+
+        Long postId = postRepository.save(post);
+        post.setId(postId);
+        publishPost(post);
+
+        return postId;
+    }
+
+    /**
+     * Inserts a post whose image is still being uploaded. The row is saved unpublished, so feed, tag, search, export
+     * and count queries skip it until {@link #attachImage} publishes it; a row left behind by an upload that never
+     * finished is deleted on the next startup.
+     */
+    public Long insertPost(PostModel post) {
+        post.setImagePath("");
+        post.setPublished(false);
+        postRenderer.render(post);
+
+        Long postId = postRepository.save(post);
+        post.setId(postId);
+
+        return postId;
+    }
 
-        return postRepository.save(post);
+    public void attachImage(PostModel post, String imagePath) {
+        post.setImagePath(imagePath);
+        post.setPublished(true);
+        postRepository.publish(post.getId(), imagePath);
+        publishPost(post);
+    }
+
+    /**
+     * Removes a post inserted by {@link #insertPost} whose upload failed before it was published.
+     */
+    public void discardPost(Long id) {
+        postRepository.deleteById(id);
     }
 
     public void editPost(PostModel post, MultipartFile imageFile, String basePath) {
+        postSearchIndex.write(post.getId(), () -> writePost(post, imageFile, basePath));
+        feedCache.invalidate();
+    }
+
+    private void writePost(PostModel post, MultipartFile imageFile, String basePath) {
+        Optional<PostModel> previousPost = postRepository.findPostById(post.getId());
         Optional<String> previousImagePath = postRepository.findImageById(post.getId());
+        List<String> previousTags = postRepository.findTagsById(post.getId());
 
         if (!imageFile.getOriginalFilename().isEmpty()) {
-            previousImagePath.ifPresent(imageService::removeImage);
             post.setImagePath(imageService.saveImage(imageFile, basePath));
         } else {
             previousImagePath.ifPresent(post::setImagePath);
         }
 
+        postRenderer.render(post);
         postRepository.update(post);
+        previousImagePath
+            .filter(previous -> !previous.equals(post.getImagePath()))
+            .ifPresent(previous -> {
+                imageService.recordImage(post.getId(), post.getImagePath());
+                imageService.releaseImage(previous);
+                imageService.generateVariants(post.getImagePath());
+            });
+        postCounts.tagsChanged(previousTags, post.getDistinctTags());
+        previousPost.ifPresent(previous -> postSearchIndex.updatePost(previous, post));
+    }
+
+    public List<PostSummary> getPage(Integer pageNumber, Integer pageSize) {
+        return withPendingLikes(() -> postRepository.findSummaryPage(pageSize, (pageNumber - 1) * pageSize));
+    }
+
+    public List<PostSummary> getPageAfter(Long lastSeenId, Integer pageSize) {
+        return withPendingLikes(() -> postRepository.findSummaryPageAfter(lastSeenId, pageSize));
     }
 
-    public List<PostModel> getPage(Integer pageNumber, Integer pageSize) {
-        List<PostModel> posts = postRepository.findPage(pageSize, (pageNumber - 1) * pageSize);
+    public List<PostSummary> getPageBefore(Long firstSeenId, Integer pageSize) {
+        return withPendingLikes(() -> postRepository.findSummaryPageBefore(firstSeenId, pageSize));
+    }
 
-        return posts.stream().map(this::getPostComments).toList();
+    public List<PostSummary> getPageByTag(String tagName, Integer pageNumber, Integer pageSize) {
+        return withPendingLikes(() -> postRepository.findSummaryPageByTag(tagName, pageSize, (pageNumber - 1) * pageSize));
     }
 
-    public List<PostModel> getPageByTag(String tagName, Integer pageSize) {
-        List<PostModel> posts =  postRepository.findPageByTag(tagName, pageSize, 0);
-        return posts.stream().map(this::getPostComments).toList();
+    public SearchPage search(String search, Integer pageNumber, Integer pageSize) {
+        SearchQuery query = SearchQuery.parse(search);
+
+        if (query.isSingleTag()) {
+            String tag = query.getTags().get(0);
+            return new SearchPage(getPageByTag(tag, pageNumber, pageSize), getTaggedPostsCount(tag));
+        }
+
+        SearchHits hits = postSearchIndex.search(query, (pageNumber - 1) * pageSize, pageSize);
+        Map<Long, PostSummary> summaries = new HashMap<>();
+        withPendingLikes(() -> postRepository.findSummariesByIds(hits.getPostIds()))
+            .forEach(summary -> summaries.put(summary.getId(), summary));
+
+        List<PostSummary> posts = hits.getPostIds().stream()
+            .map(summaries::get)
+            .filter(Objects::nonNull)
+            .toList();
+
+        return new SearchPage(posts, hits.getTotal());
     }
 
+    /**
+     * Loads a post for its page. A post stored before the current renderer version, e.g. from a migrated database
+     * the background job has not reached yet, is rendered on read, so its page never shows an empty body.
+     */
     public PostModel getPost(Long id) {
-        PostModel post = postRepository.findPostById(id).orElseGet(PostModel::new);
-        return getPostComments(post);
+        return likeAggregator.read(() -> {
+            PostModel post = postRepository.findPostById(id).orElseGet(PostModel::new);
+            if (post.getId() != null) {
+                if (post.getRenderVersion() < PostRenderer.VERSION) {
+                    postRenderer.render(post);
+                }
+                post.setLikesCount(post.getLikesCount() + (int) likeAggregator.pendingDelta(post.getId()));
+            }
+
+            return post;
+        });
     }
 
     public void updateLikesCount(Long id, boolean like) {
-        if (like) {
-            postRepository.incrementLikesCount(id);
-        } else {
-            postRepository.decrementLikesCount(id);
-        }
+        if (!postRepository.existsById(id)) return;
+
+        likeAggregator.add(id, like ? 1 : -1);
     }
 
     public void deletePost(Long id) {
+        List<String> tags = postRepository.findTagsById(id);
+        Optional<String> imagePath = postRepository.findImageById(id);
+
         commentService.deleteAllPostComments(id);
-        postRepository.deleteById(id);
+        imageService.forgetImage(id);
+        if (postRepository.deleteById(id)) {
+            postCounts.postRemoved(tags);
+            imagePath.ifPresent(imageService::releaseImage);
+        }
+        postSearchIndex.removePost(id);
+        feedCache.invalidate();
+        likeAggregator.discard(id);
     }
 
-    private PostModel getPostComments(PostModel post) {
-        List<CommentModel> comments = commentService.getByPostId(post.getId());
-        post.setComments(comments);
-        return post;
+    private List<PostSummary> withPendingLikes(Supplier<List<PostSummary>> read) {
+        return likeAggregator.read(() -> {
+            List<PostSummary> posts = read.get();
+            posts.forEach(post ->
+                post.setLikesCount(post.getLikesCount() + (int) likeAggregator.pendingDelta(post.getId())));
+
+            return posts;
+        });
     }
 
-    public void savePost(PostModel post) {
-        postRepository.save(post);
+    public void savePosts(List<PostModel> posts) {
+        posts.forEach(postRenderer::render);
+        List<Long> postIds = postRepository.saveAll(posts);
+        Map<Long, String> imagePaths = new LinkedHashMap<>();
+
+        for (int i = 0; i < posts.size(); i++) {
+            PostModel post = posts.get(i);
+            post.setId(postIds.get(i));
+            imagePaths.put(post.getId(), post.getImagePath());
+
+            postCounts.postAdded(post.getDistinctTags());
+            postSearchIndex.indexPost(post, List.of());
+            imageService.generateVariants(post.getImagePath());
+        }
+        imageService.recordImages(imagePaths);
+        feedCache.invalidate();
+    }
+
+    private void publishPost(PostModel post) {
+        imageService.recordImage(post.getId(), post.getImagePath());
+        imageService.generateVariants(post.getImagePath());
+
+        postCounts.postAdded(post.getDistinctTags());
+        postSearchIndex.indexPost(post, List.of());
+        feedCache.invalidate();
     }
 }
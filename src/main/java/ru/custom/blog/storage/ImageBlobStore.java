@@ -0,0 +1,200 @@
+package ru.custom.blog.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image storage: a blob lives at {@code images/ab/cd/<sha-256>.<ext>}.
+ * The hash is computed while the upload is streamed into a temp file, which is then renamed into place,
+ * so readers never see a partial file and identical uploads share one blob.
+ * Uploads larger than {@code blog.images.upload.max-bytes} are rejected while they are still being read.
+ * Storing content that already exists refreshes the blob's modification time, which keeps
+ * the orphan sweeper from collecting it before the new post points at it. Storing and {@link #delete deleting}
+ * the same blob are serialized by a lock striped on the file name.
+ */
+@Component
+public class ImageBlobStore {
+    private static final String IMAGES_DIR = "images";
+    private static final String TEMP_DIR = ".tmp";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String DEFAULT_EXTENSION = "bin";
+    private static final int MAX_EXTENSION_LENGTH = 8;
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})\\.[a-z0-9]+");
+    private static final int LOCK_STRIPES = 64;
+
+    private final long maxBytes;
+    private final int writeBufferBytes;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ImageBlobStore(@Value("${blog.images.upload.max-bytes:20971520}") long maxBytes,
+                          @Value("${blog.images.upload.write-buffer-bytes:65536}") int writeBufferBytes) {
+        this.maxBytes = maxBytes;
+        this.writeBufferBytes = writeBufferBytes;
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Path put(InputStream content, String originalFilename, String basePath) throws IOException {
+        Path imagesDir = Paths.get(basePath, IMAGES_DIR);
+        Path temp = Files.createTempFile(Files.createDirectories(imagesDir.resolve(TEMP_DIR)), "upload-", ".part");
+
+        try {
+            Path target = locate(imagesDir, write(content, temp), extensionOf(originalFilename));
+            ReentrantLock lock = lockFor(target);
+
+            lock.lock();
+            try {
+                if (Files.notExists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } else {
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            return target;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Deletes a blob unless it was stored or re-stored at or after {@code storedBefore}.
+     * Returns whether the blob is gone, so a blob that a concurrent {@link #put} has just handed out is kept.
+     */
+    public boolean delete(Path blob, Instant storedBefore) throws IOException {
+        ReentrantLock lock = lockFor(blob);
+
+        lock.lock();
+        try {
+            if (Files.notExists(blob)) return true;
+            if (!Files.getLastModifiedTime(blob).toInstant().isBefore(storedBefore)) return false;
+
+            Files.delete(blob);
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies the content into {@code target} through one reusable buffer, hashing each chunk before it is written,
+     * and returns the hex digest. Memory use stays at one buffer whatever the upload size.
+     */
+    private String write(InputStream content, Path target) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocate(writeBufferBytes);
+        long received = 0;
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int read;
+            do {
+                read = content.read(buffer.array(), buffer.position(), buffer.remaining());
+                if (read > 0) {
+                    received += read;
+                    if (received > maxBytes) {
+                        throw new ImageTooLargeException(maxBytes);
+                    }
+                    buffer.position(buffer.position() + read);
+                }
+
+                if (read < 0 || !buffer.hasRemaining()) {
+                    buffer.flip();
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            } while (read >= 0);
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Whether {@code path} resolves inside the {@code images} directory under {@code basePath}.
+     */
+    public static boolean contains(String basePath, String path) {
+        Path imagesDir = Paths.get(basePath, IMAGES_DIR).toAbsolutePath().normalize();
+
+        return Paths.get(path).toAbsolutePath().normalize().startsWith(imagesDir);
+    }
+
+    /**
+     * The content hash a blob is stored under, taken from its file name without touching the file.
+     */
+    public static Optional<String> hashOf(Path path) {
+        Matcher matcher = BLOB_NAME.matcher(path.getFileName().toString());
+
+        return matcher.matches() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    public static String digest(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream input = new DigestInputStream(Files.newInputStream(path), digest)) {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private ReentrantLock lockFor(Path blob) {
+        return locks[Math.floorMod(blob.getFileName().toString().hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Path locate(Path imagesDir, String hash, String extension) {
+        return imagesDir
+            .resolve(hash.substring(0, 2))
+            .resolve(hash.substring(2, 4))
+            .resolve(hash + "." + extension);
+    }
+
+    private static String extensionOf(String filename) {
+        int dot = filename == null ? -1 : filename.lastIndexOf('.');
+        if (dot < 0) return DEFAULT_EXTENSION;
+
+        String extension = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        boolean plain = extension.chars().allMatch(c -> (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'));
+        if (extension.isEmpty() || extension.length() > MAX_EXTENSION_LENGTH || !plain) {
+            return DEFAULT_EXTENSION;
+        }
+
+        return extension;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.custom.blog.storage;
+
+import java.io.IOException;
+
+/**
+ * Thrown while an image is being written once it grows past the configured upload limit.
+ */
+public class ImageTooLargeException extends IOException {
+    private final long maxBytes;
+
+    public ImageTooLargeException(long maxBytes) {
+        super(String.format("Image exceeds the limit of %d bytes", maxBytes));
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
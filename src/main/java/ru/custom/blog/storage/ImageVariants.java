@@ -0,0 +1,250 @@
+package ru.custom.blog.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downscaled JPEG copies of stored images, written next to the original as {@code <name>-<height>.jpg}.
+ * Variants are produced on a bounded worker pool; a full queue drops the job and the original keeps being served.
+ * Originals that are missing or can't be decoded are remembered for a while in a bounded cache,
+ * so requests for them don't schedule a failing job each time.
+ */
+@Component
+public class ImageVariants {
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariants.class);
+    private static final String VARIANT_FORMAT = "jpg";
+    private static final Pattern VARIANT_NAME = Pattern.compile(".+-(\\d{1,5})\\." + VARIANT_FORMAT);
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final List<Integer> sizes;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> failed;
+
+    public ImageVariants(@Value("${blog.images.variants.sizes:300,800}") List<Integer> sizes,
+                         @Value("${blog.images.variants.threads:2}") int threads,
+                         @Value("${blog.images.variants.queue-capacity:256}") int queueCapacity,
+                         @Value("${blog.images.variants.failed-max-entries:10000}") long failedMaxEntries,
+                         @Value("${blog.images.variants.failed-ttl-minutes:10}") long failedTtlMinutes) {
+        this.sizes = sizes.stream().sorted().toList();
+        this.failed = Caffeine.newBuilder()
+            .maximumSize(failedMaxEntries)
+            .expireAfterWrite(Duration.ofMinutes(failedTtlMinutes))
+            .build();
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "image-variants-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    public CompletableFuture<Void> generate(String imagePath) {
+        if (imagePath == null || imagePath.isBlank()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> job = new CompletableFuture<>();
+        CompletableFuture<Void> pending = inFlight.putIfAbsent(imagePath, job);
+        if (pending != null) return pending;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    writeVariants(imagePath);
+                } finally {
+                    inFlight.remove(imagePath, job);
+                    job.complete(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(imagePath, job);
+            job.complete(null);
+            logger.warn(String.format("Variant queue is full, %s will be served at full size", imagePath));
+        }
+
+        return job;
+    }
+
+    /**
+     * Returns the smallest ready variant at least {@code height} pixels tall.
+     * A missing variant is scheduled for generation, so images stored before this pipeline are picked up on first request,
+     * unless the original is missing or recently failed to decode.
+     */
+    public Optional<Path> find(String imagePath, int height) {
+        Optional<Path> variant = pathFor(imagePath, height);
+        if (variant.isEmpty() || Files.exists(variant.get())) return variant;
+        if (failed.getIfPresent(imagePath) != null) return Optional.empty();
+
+        if (Files.exists(Paths.get(imagePath))) {
+            generate(imagePath);
+        } else {
+            failed.put(imagePath, Boolean.TRUE);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Where the variant serving {@code height} lives, whether or not it has been generated yet.
+     */
+    public Optional<Path> pathFor(String imagePath, int height) {
+        return sizeFor(height).map(size -> variantPath(Paths.get(imagePath), size));
+    }
+
+    /**
+     * The configured variant height that serves a request for {@code height}, if any is large enough.
+     */
+    public Optional<Integer> sizeFor(int height) {
+        return sizes.stream().filter(candidate -> candidate >= height).findFirst();
+    }
+
+    public List<Path> variantPaths(String imagePath) {
+        return sizes.stream().map(size -> variantPath(Paths.get(imagePath), size)).toList();
+    }
+
+    /**
+     * Whether the file is named like a variant of one of the configured sizes; such files are owned by their original.
+     */
+    public boolean isVariant(Path path) {
+        Matcher matcher = VARIANT_NAME.matcher(path.getFileName().toString());
+
+        return matcher.matches() && sizes.contains(Integer.parseInt(matcher.group(1)));
+    }
+
+    public void delete(String imagePath) {
+        failed.invalidate(imagePath);
+
+        for (Path variant : variantPaths(imagePath)) {
+            try {
+                Files.deleteIfExists(variant);
+            } catch (IOException e) {
+                logger.error(String.format("Can't remove variant %s. Got error: %s", variant, e.getMessage()));
+            }
+        }
+    }
+
+    public static Path variantPath(Path original, int height) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String stem = dot < 0 ? name : name.substring(0, dot);
+
+        return original.resolveSibling(stem + "-" + height + "." + VARIANT_FORMAT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void writeVariants(String imagePath) {
+        Path original = Paths.get(imagePath);
+        long start = System.currentTimeMillis();
+
+        try {
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                failed.put(imagePath, Boolean.TRUE);
+                logger.warn(String.format("Can't decode %s, no variants generated", original));
+                return;
+            }
+
+            for (int size : sizes) {
+                Path variant = variantPath(original, size);
+                if (Files.exists(variant)) continue;
+
+                write(scale(source, Math.min(size, source.getHeight())), variant);
+            }
+
+            failed.invalidate(imagePath);
+            logger.debug(String.format("Generated variants of %s in %d ms", original, System.currentTimeMillis() - start));
+        } catch (IOException e) {
+            failed.put(imagePath, Boolean.TRUE);
+            logger.error(String.format("Can't generate variants of %s. Got error: %s", original, e.getMessage()));
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int height) {
+        BufferedImage current = source;
+
+        while (current.getHeight() / 2 >= height) {
+            current = resize(current, current.getHeight() / 2);
+        }
+
+        return resize(current, height);
+    }
+
+    private static BufferedImage resize(BufferedImage source, int height) {
+        int width = Math.max(1, (int) Math.round((double) source.getWidth() * height / source.getHeight()));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return target;
+    }
+
+    private static void write(BufferedImage image, Path variant) throws IOException {
+        Path temp = Files.createTempFile(variant.getParent(), "variant-", ".part");
+
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(VARIANT_FORMAT).next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+
+            Files.move(temp, variant, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
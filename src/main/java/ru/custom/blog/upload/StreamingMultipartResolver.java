@@ -0,0 +1,25 @@
+package ru.custom.blog.upload;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * The standard servlet resolver, except for {@link StreamingPostUpload#PATH}: that request is left unparsed,
+ * so the container never buffers its parts and the body can be read as a stream.
+ */
+@Component(DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+public class StreamingMultipartResolver extends StandardServletMultipartResolver {
+    public StreamingMultipartResolver(@Value("${spring.servlet.multipart.resolve-lazily:false}") boolean resolveLazily) {
+        setResolveLazily(resolveLazily);
+    }
+
+    @Override
+    public boolean isMultipart(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        return !StreamingPostUpload.PATH.equals(path) && super.isMultipart(request);
+    }
+}
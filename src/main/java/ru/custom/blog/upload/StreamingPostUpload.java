@@ -0,0 +1,172 @@
+package ru.custom.blog.upload;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.tomcat.util.http.fileupload.FileItemIterator;
+import org.apache.tomcat.util.http.fileupload.FileItemStream;
+import org.apache.tomcat.util.http.fileupload.impl.SizeException;
+import org.apache.tomcat.util.http.fileupload.servlet.ServletFileUpload;
+import org.apache.tomcat.util.http.fileupload.servlet.ServletRequestContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.server.ResponseStatusException;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.service.ImageService;
+import ru.custom.blog.service.PostService;
+import ru.custom.blog.storage.ImageTooLargeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Creates a post from a multipart form without letting the container spool it to temp files first.
+ * The body is read part by part; the image part goes straight into the blob store. When the text fields
+ * arrive before the image, the post row is inserted on another thread while the image is still being written.
+ * The request, the image and every text field are size-limited; text fields are also capped at their column sizes.
+ */
+@Service
+public class StreamingPostUpload {
+    public static final String PATH = "/posts/upload";
+
+    private static final String TITLE_FIELD = "title";
+    private static final String TAGS_FIELD = "tags";
+    private static final String TEXT_FIELD = "text";
+    private static final String IMAGE_FIELD = "image";
+    private static final List<String> POST_FIELDS = List.of(TITLE_FIELD, TAGS_FIELD, TEXT_FIELD);
+    private static final Map<String, Integer> FIELD_MAX_CHARS = Map.of(TITLE_FIELD, 256, TAGS_FIELD, 500);
+
+    private final PostService postService;
+    private final ImageService imageService;
+    private final Executor executor;
+    private final ServletFileUpload fileUpload = new ServletFileUpload();
+    private final int maxFieldBytes;
+
+    public StreamingPostUpload(PostService postService, ImageService imageService,
+                               @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                               Executor executor,
+                               @Value("${blog.upload.max-request-bytes:23068672}") long maxRequestBytes,
+                               @Value("${blog.images.upload.max-bytes:20971520}") long maxImageBytes,
+                               @Value("${blog.upload.max-field-bytes:1048576}") int maxFieldBytes) {
+        this.postService = postService;
+        this.imageService = imageService;
+        this.executor = executor;
+        this.maxFieldBytes = maxFieldBytes;
+
+        fileUpload.setSizeMax(maxRequestBytes);
+        fileUpload.setFileSizeMax(maxImageBytes);
+    }
+
+    public Long upload(HttpServletRequest request, String basePath) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        PostModel post = null;
+        CompletableFuture<Long> insert = null;
+        String imagePath = "";
+
+        try {
+            FileItemIterator items = fileUpload.getItemIterator(new ServletRequestContext(request));
+            while (items.hasNext()) {
+                FileItemStream item = items.next();
+
+                if (item.isFormField()) {
+                    fields.put(item.getFieldName(), readField(item));
+                } else if (IMAGE_FIELD.equals(item.getFieldName()) && item.getName() != null && !item.getName().isBlank()) {
+                    if (post == null && fields.keySet().containsAll(POST_FIELDS)) {
+                        post = toPost(fields);
+                        PostModel inserted = post;
+                        insert = CompletableFuture.supplyAsync(() -> postService.insertPost(inserted), executor);
+                    }
+
+                    try (InputStream content = item.openStream()) {
+                        imagePath = imageService.writeImage(content, item.getName(), basePath);
+                    }
+                }
+            }
+
+            if (insert != null) {
+                insert.join();
+            } else {
+                post = toPost(fields);
+                postService.insertPost(post);
+            }
+        } catch (ImageTooLargeException e) {
+            discard(insert);
+            throw new MaxUploadSizeExceededException(e.getMaxBytes(), e);
+        } catch (IOException e) {
+            discard(insert);
+            SizeException tooLarge = sizeException(e);
+            if (tooLarge != null) {
+                throw new MaxUploadSizeExceededException(tooLarge.getPermittedSize(), e);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            discard(insert);
+            throw e;
+        }
+
+        postService.attachImage(post, imagePath);
+
+        return post.getId();
+    }
+
+    private void discard(CompletableFuture<Long> insert) {
+        if (insert != null) {
+            insert.thenAccept(postService::discardPost);
+        }
+    }
+
+    /**
+     * The size error behind a failed read: thrown directly for the request limit, wrapped in an {@link IOException}
+     * when a part outgrows its limit while being read.
+     */
+    private static SizeException sizeException(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SizeException sizeException) {
+                return sizeException;
+            }
+        }
+
+        return null;
+    }
+
+    private String readField(FileItemStream item) throws IOException {
+        byte[] bytes;
+        try (InputStream content = item.openStream()) {
+            bytes = content.readNBytes(maxFieldBytes + 1);
+        }
+
+        String value = new String(bytes, 0, Math.min(bytes.length, maxFieldBytes), StandardCharsets.UTF_8);
+        int maxChars = FIELD_MAX_CHARS.getOrDefault(item.getFieldName(), Integer.MAX_VALUE);
+        if (bytes.length > maxFieldBytes || value.length() > maxChars) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format("Field '%s' is too long", item.getFieldName()));
+        }
+
+        return value;
+    }
+
+    private static PostModel toPost(Map<String, String> fields) {
+        POST_FIELDS.stream()
+            .filter(field -> !fields.containsKey(field))
+            .findFirst()
+            .ifPresent(field -> {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format("Required field '%s' is not present", field));
+            });
+
+        PostModel post = new PostModel();
+        post.setTitle(fields.get(TITLE_FIELD));
+        post.setLikesCount(0);
+        post.setTags(Arrays.stream(fields.get(TAGS_FIELD).split(" ")).toList());
+        post.setText(fields.get(TEXT_FIELD));
+
+        return post;
+    }
+}
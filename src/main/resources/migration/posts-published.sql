@@ -0,0 +1,4 @@
+-- Adds the published flag to databases created before it. Existing posts are
+-- published; only posts still waiting for their image upload are not.
+-- RUNSCRIPT FROM 'classpath:migration/posts-published.sql'
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS published BOOLEAN DEFAULT TRUE NOT NULL;
@@ -0,0 +1,8 @@
+-- Adds the render-on-write columns to databases created before them. Existing
+-- posts keep render_version 0 and are re-rendered by the background job.
+-- RUNSCRIPT FROM 'classpath:migration/posts-rendered-html.sql'
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS body_html CLOB DEFAULT '' NOT NULL;
+
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS render_version INTEGER DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS posts_render_version_idx ON posts(render_version);
@@ -0,0 +1,9 @@
+-- Adds the feed summary columns to databases created before them and fills
+-- comments_count from the existing comments. Previews are written by the
+-- render job, so run posts-rendered-html.sql afterwards on such a database, e.g.
+-- RUNSCRIPT FROM 'classpath:migration/posts-summary-columns.sql'
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS preview VARCHAR(4000) DEFAULT '' NOT NULL;
+
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS comments_count INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE posts p SET comments_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id);
@@ -0,0 +1,12 @@
+-- Converts posts.text from BLOB (UTF-8 bytes) to CLOB for databases created
+-- before the column type change. Run once against such a database, e.g.
+-- RUNSCRIPT FROM 'classpath:migration/posts-text-to-clob.sql'
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS text_clob CLOB;
+
+UPDATE posts SET text_clob = UTF8TOSTRING(text) WHERE text_clob IS NULL;
+
+ALTER TABLE posts DROP COLUMN text;
+
+ALTER TABLE posts ALTER COLUMN text_clob RENAME TO text;
+
+ALTER TABLE posts ALTER COLUMN text SET NOT NULL;
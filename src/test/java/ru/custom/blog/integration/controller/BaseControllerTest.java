@@ -12,13 +12,18 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import ru.custom.blog.cache.FeedCache;
 import ru.custom.blog.model.CommentModel;
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.render.PostRenderer;
+import ru.custom.blog.repository.CachingImageRepository;
+import ru.custom.blog.repository.CachingPostRepository;
+import ru.custom.blog.search.PostSearchIndex;
+import ru.custom.blog.service.LikeAggregator;
+import ru.custom.blog.service.PostCounts;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.PreparedStatement;
@@ -40,6 +45,27 @@ abstract class BaseControllerTest {
     @Autowired
     protected MockMvc mockMvc;
 
+    @Autowired
+    protected LikeAggregator likeAggregator;
+
+    @Autowired
+    protected PostCounts postCounts;
+
+    @Autowired
+    protected PostSearchIndex postSearchIndex;
+
+    @Autowired
+    protected CachingPostRepository cachingPostRepository;
+
+    @Autowired
+    protected CachingImageRepository cachingImageRepository;
+
+    @Autowired
+    protected FeedCache feedCache;
+
+    @Autowired
+    protected PostRenderer postRenderer;
+
     protected static final ArrayList<CommentModel> IDLE_COMMENTS = new ArrayList<>();
     protected static final ArrayList<PostModel> IDLE_POSTS = new ArrayList<>();
 
@@ -58,13 +84,23 @@ abstract class BaseControllerTest {
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
 
+        likeAggregator.flush();
+        cachingPostRepository.invalidateAll();
+        cachingImageRepository.invalidateAll();
+        feedCache.invalidate();
+
+        jdbcTemplate.execute("DELETE FROM post_tags");
         jdbcTemplate.execute("DELETE FROM comments");
+        jdbcTemplate.execute("DELETE FROM images");
         jdbcTemplate.execute("DELETE FROM posts");
 
         jdbcTemplate.execute("ALTER TABLE posts ALTER COLUMN id RESTART WITH 1");
         jdbcTemplate.execute("ALTER TABLE comments ALTER COLUMN id RESTART WITH 1");
 
         additionalSetup();
+
+        postCounts.reload();
+        postSearchIndex.rebuild();
     }
 
     @AfterEach
@@ -92,23 +128,32 @@ abstract class BaseControllerTest {
             post.setImagePath(IDLE_IMAGE_PATH.get(i));
             post.setLikesCount(1);
             post.setTags(Arrays.stream(IDLE_TTAGS.get(i).split(" ")).toList());
+            postRenderer.render(post);
 
             jdbcTemplate.update(connection -> {
                 PreparedStatement statement = connection.prepareStatement(
-                    "INSERT INTO posts(title, text, image_path, likes_count, tags) VALUES (?, ?, ?, ?, ?)",
+                    "INSERT INTO posts(title, text, preview, image_path, likes_count, tags, body_html, render_version) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
                     Statement.RETURN_GENERATED_KEYS);
 
                 statement.setString(1, post.getTitle());
-                statement.setBlob(2, new ByteArrayInputStream(post.getText().getBytes(StandardCharsets.UTF_8)));
-                statement.setString(3, post.getImagePath());
-                statement.setInt(4, post.getLikesCount());
-                statement.setString(5, post.getTagsAsText());
+                statement.setString(2, post.getText());
+                statement.setString(3, post.getTextPreview());
+                statement.setString(4, post.getImagePath());
+                statement.setInt(5, post.getLikesCount());
+                statement.setString(6, post.getTagsAsText());
+                statement.setString(7, post.getBodyHtml());
+                statement.setInt(8, post.getRenderVersion());
 
 
                 return statement;
             }, keyHolder);
 
             post.setId(keyHolder.getKey().longValue());
+            for (String tag : post.getDistinctTags()) {
+                jdbcTemplate.update("INSERT INTO post_tags(post_id, tag) VALUES (?, ?)", post.getId(), tag);
+            }
+
             IDLE_POSTS.add(post);
         }
     }
@@ -133,6 +178,9 @@ abstract class BaseControllerTest {
             }, keyHolder);
 
             comment.setId(keyHolder.getKey().longValue());
+            jdbcTemplate.update(
+                "UPDATE posts SET comments_count = comments_count + 1 WHERE id = ?", comment.getPostId());
+
             IDLE_COMMENTS.add(comment);
         }
     }
@@ -0,0 +1,68 @@
+package ru.custom.blog.integration.controller;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.repository.CommentRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(properties = "blog.comments.page-size=2")
+class CommentPagingIntegrationTest extends BaseControllerTest {
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Override
+    protected void additionalSetup() {
+        IDLE_COMMENTS.clear();
+        IDLE_POSTS.clear();
+
+        populatePosts();
+        populateComments();
+
+        commentRepository.saveAll(List.of(
+            new CommentModel(null, 1L, "post 1 comment 2"),
+            new CommentModel(null, 1L, "post 1 comment 3")));
+    }
+
+    @Test
+    void showPost_shouldRenderFirstCommentPage() throws Exception {
+        MvcResult result = mockMvc.perform(get("/posts/1"))
+            .andExpect(status().isOk())
+            .andExpect(model().attributeExists("comments"))
+            .andReturn();
+
+        Document doc = Jsoup.parse(result.getResponse().getContentAsString());
+        List<CommentModel> comments = commentRepository.findByPostId(1L);
+
+        assertEquals(List.of("post 1 comment 1", "post 1 comment 2"), doc.select("span[id^=comment]").eachText());
+        assertTrue(doc.select("span").eachText().contains("комментарии 3"));
+        assertEquals("/posts/1/comments?after=" + comments.get(1).getId(),
+            doc.select("button#loadMoreComments").attr("data-url"));
+    }
+
+    @Test
+    void showComments_shouldRenderNextPageFragment() throws Exception {
+        List<CommentModel> comments = commentRepository.findByPostId(1L);
+
+        MvcResult result = mockMvc.perform(get("/posts/1/comments")
+                .param("after", comments.get(1).getId().toString()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/html;charset=UTF-8"))
+            .andReturn();
+
+        Document doc = Jsoup.parse("<table>" + result.getResponse().getContentAsString() + "</table>");
+
+        assertEquals(List.of("post 1 comment 3"), doc.select("span[id^=comment]").eachText());
+        assertTrue(doc.select("button#loadMoreComments").isEmpty());
+        assertTrue(doc.select("h2").isEmpty());
+    }
+}
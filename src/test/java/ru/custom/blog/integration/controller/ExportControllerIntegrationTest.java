@@ -0,0 +1,85 @@
+package ru.custom.blog.integration.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ExportControllerIntegrationTest extends BaseControllerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    protected void additionalSetup() {
+        IDLE_COMMENTS.clear();
+        IDLE_POSTS.clear();
+
+        populatePosts();
+        populateComments();
+    }
+
+    @Test
+    void exportPosts_shouldStreamPostsWithComments() throws Exception {
+        MvcResult started = mockMvc.perform(get("/posts/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn();
+
+        List<JsonNode> lines = parse(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+        assertEquals(IDLE_POSTS.size(), lines.size());
+        for (int i = 0; i < IDLE_POSTS.size(); i++) {
+            assertEquals(IDLE_POSTS.get(i).getId(), lines.get(i).get("id").asLong());
+            assertEquals(IDLE_POSTS.get(i).getTitle(), lines.get(i).get("title").asText());
+            assertEquals(IDLE_POSTS.get(i).getImagePath(), lines.get(i).get("imagePath").asText());
+            assertEquals(IDLE_COMMENTS_DATA.get(IDLE_POSTS.get(i).getId()), lines.get(i).get("comments").get(0).asText());
+        }
+    }
+
+    @Test
+    void exportPosts_shouldPackNdjsonIntoZip() throws Exception {
+        MvcResult started = mockMvc.perform(get("/posts/export").param("format", "zip"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/zip"))
+            .andReturn();
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            ZipEntry entry = zip.getNextEntry();
+
+            assertNotNull(entry);
+            assertEquals("posts.ndjson", entry.getName());
+            assertEquals(IDLE_POSTS.size(), parse(new String(zip.readAllBytes(), StandardCharsets.UTF_8)).size());
+        }
+    }
+
+    private List<JsonNode> parse(String ndjson) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+
+        for (String line : ndjson.split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+
+        return lines;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.custom.blog.integration.controller;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.custom.blog.cache.FeedCacheFilter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class FeedCacheFilterIntegrationTest extends BaseControllerTest {
+    @Autowired
+    private FeedCacheFilter feedCacheFilter;
+
+    @Override
+    protected void additionalSetup() {
+        IDLE_COMMENTS.clear();
+        IDLE_POSTS.clear();
+
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).addFilters(feedCacheFilter).build();
+
+        populatePosts();
+        populateComments();
+    }
+
+    @Test
+    void showPosts_shouldServeRepeatedRequestFromCache() throws Exception {
+        MvcResult first = mockMvc.perform(get("/posts").param("pageSize", "5"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(FeedCacheFilter.CACHE_HEADER, "MISS"))
+            .andReturn();
+
+        MvcResult second = mockMvc.perform(get("/posts").param("pageSize", "5"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(FeedCacheFilter.CACHE_HEADER, "HIT"))
+            .andExpect(content().contentType("text/html;charset=UTF-8"))
+            .andReturn();
+
+        assertEquals(first.getResponse().getContentAsString(), second.getResponse().getContentAsString());
+    }
+
+    @Test
+    void showPosts_shouldKeySeparatePages() throws Exception {
+        mockMvc.perform(get("/posts").param("pageSize", "5"))
+            .andExpect(header().string(FeedCacheFilter.CACHE_HEADER, "MISS"));
+
+        mockMvc.perform(get("/posts").param("pageSize", "10"))
+            .andExpect(header().string(FeedCacheFilter.CACHE_HEADER, "MISS"));
+
+        mockMvc.perform(get("/posts").param("pageSize", "5").param("search", "tag1"))
+            .andExpect(header().string(FeedCacheFilter.CACHE_HEADER, "MISS"));
+    }
+
+    @Test
+    void showPosts_shouldRenderAgainAfterLikesFlush() throws Exception {
+        mockMvc.perform(get("/posts"))
+            .andExpect(header().string(FeedCacheFilter.CACHE_HEADER, "MISS"));
+
+        mockMvc.perform(post("/posts/1/like").param("like", "true"))
+            .andExpect(status().is3xxRedirection());
+
+        likeAggregator.flush();
+
+        MvcResult result = mockMvc.perform(get("/posts"))
+            .andExpect(header().string(FeedCacheFilter.CACHE_HEADER, "MISS"))
+            .andReturn();
+
+        List<String> spans = Jsoup.parse(result.getResponse().getContentAsString()).select("span").eachText();
+        assertTrue(spans.contains("\uD83D\uDC4D 2"));
+    }
+
+    @Test
+    void showPost_shouldNotBeCached() throws Exception {
+        mockMvc.perform(get("/posts/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(FeedCacheFilter.CACHE_HEADER));
+    }
+}
@@ -1,11 +1,17 @@
 package ru.custom.blog.integration.controller;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.custom.blog.storage.ImageVariants;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.*;
+import java.util.Arrays;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
@@ -14,6 +20,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.junit.jupiter.api.Assertions.*;
 
 class ImageControllerIntegrationTest extends BaseControllerTest {
+    @Autowired
+    private ImageVariants imageVariants;
 
     private static final String IMAGE_NAME = "/images/test-image.jpg";
 
@@ -38,6 +46,101 @@ class ImageControllerIntegrationTest extends BaseControllerTest {
             .andExpect(content().bytes(getImageBytes(IMAGE_NAME)));
     }
 
+    @Test
+    void getImage_shouldServeGeneratedVariant() throws Exception {
+        MockMultipartFile imageFile = new MockMultipartFile(
+            "image",
+            "test-image.png",
+            "image/png",
+            new ClassPathResource(IMAGE_NAME).getInputStream()
+        );
+
+        mockMvc.perform(multipart("/posts")
+            .file(imageFile)
+            .param("title", "new title")
+            .param("tags", "some newTag")
+            .param("text", "some test text"));
+
+        imageVariants.generate(cachingPostRepository.findImageById(1L).orElseThrow()).join();
+
+        byte[] variant = mockMvc.perform(get("/images/1").param("size", "300"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(variant));
+        assertEquals(300, image.getHeight());
+        assertTrue(variant.length < getImageBytes(IMAGE_NAME).length);
+    }
+
+    @Test
+    void getImage_shouldAnswerNotModifiedForMatchingETag() throws Exception {
+        uploadImage();
+
+        MvcResult first = mockMvc.perform(get("/images/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/images/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/images/1").header(HttpHeaders.IF_MODIFIED_SINCE, first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+            .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/images/1").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void getImage_shouldCacheVersionedUrlOnly() throws Exception {
+        uploadImage();
+
+        String eTag = mockMvc.perform(get("/images/1"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String version = eTag.replace("\"", "");
+
+        mockMvc.perform(get("/images/1").param("v", version))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=604800, public"));
+
+        mockMvc.perform(get("/images/1").param("v", "outdated"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void getImage_shouldServeByteRange() throws Exception {
+        uploadImage();
+        byte[] original = getImageBytes(IMAGE_NAME);
+
+        MvcResult result = mockMvc.perform(get("/images/1").header(HttpHeaders.RANGE, "bytes=100-199"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/" + original.length))
+            .andReturn();
+
+        assertArrayEquals(Arrays.copyOfRange(original, 100, 200), result.getResponse().getContentAsByteArray());
+    }
+
+    private void uploadImage() throws Exception {
+        MockMultipartFile imageFile = new MockMultipartFile(
+            "image",
+            "test-image.png",
+            "image/png",
+            new ClassPathResource(IMAGE_NAME).getInputStream()
+        );
+
+        mockMvc.perform(multipart("/posts")
+            .file(imageFile)
+            .param("title", "new title")
+            .param("tags", "some newTag")
+            .param("text", "some test text"));
+    }
+
     private byte[] getImageBytes(String path) throws IOException {
         try (InputStream is = new ClassPathResource(IMAGE_NAME).getInputStream()) {
             assertNotNull(is, "Файл " + path + " не найден в resources");
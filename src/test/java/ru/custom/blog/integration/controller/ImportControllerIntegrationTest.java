@@ -0,0 +1,92 @@
+package ru.custom.blog.integration.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import ru.custom.blog.search.SearchQuery;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ImportControllerIntegrationTest extends BaseControllerTest {
+    private static final String NDJSON = """
+        {"title": "imported1", "text": "see https://a.ru", "tags": ["import", "first"], "likesCount": 3, "comments": ["c1", "c2"]}
+        {"title": "imported2", "text": "second", "tags": ["import"], "legacyId": 42}
+
+        {"title": "imported3", "text": "third", "imagePath": "/old/3.jpg", "comments": ["c3"]}
+        """;
+
+    @Override
+    protected void additionalSetup() {
+        IDLE_COMMENTS.clear();
+        IDLE_POSTS.clear();
+
+        populatePosts();
+    }
+
+    @Test
+    void importPosts_shouldInsertPostsTagsAndComments() throws Exception {
+        mockMvc.perform(post("/posts/import").contentType(MediaType.APPLICATION_NDJSON).content(NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posts").value(3))
+            .andExpect(jsonPath("$.comments").value(3))
+            .andExpect(jsonPath("$.rowsPerSecond").isNumber());
+
+        Long firstId = jdbcTemplate.queryForObject("SELECT id FROM posts WHERE title = 'imported1'", Long.class);
+
+        assertEquals(IDLE_POSTS.size() + 3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts", Long.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT comments_count FROM posts WHERE id = ?", Integer.class, firstId));
+        assertEquals(List.of("first", "import"),
+            jdbcTemplate.queryForList("SELECT tag FROM post_tags WHERE post_id = ? ORDER BY tag", String.class, firstId));
+        assertTrue(jdbcTemplate.queryForObject("SELECT body_html FROM posts WHERE id = ?", String.class, firstId)
+            .contains("<a href=\"https://a.ru\""));
+
+        assertEquals("", jdbcTemplate.queryForObject("SELECT image_path FROM posts WHERE title = 'imported3'", String.class));
+
+        assertEquals(IDLE_POSTS.size() + 3, postCounts.total());
+        assertEquals(2, postCounts.byTag("import"));
+        assertEquals(1, postSearchIndex.search(SearchQuery.parse("c3"), 0, 10).getTotal());
+    }
+
+    @Test
+    void importPosts_shouldStoreNormalizedImagePath() throws Exception {
+        Path imagesDir = Path.of(webApplicationContext.getServletContext().getRealPath("")).toAbsolutePath().resolve("images");
+        String imagePath = imagesDir + "/../images/./imported.jpg";
+
+        mockMvc.perform(post("/posts/import").contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"title\": \"with image\", \"text\": \"text\", \"imagePath\": \"" + imagePath + "\"}"))
+            .andExpect(status().isOk());
+
+        assertEquals(imagesDir.resolve("imported.jpg").normalize().toString(),
+            jdbcTemplate.queryForObject("SELECT image_path FROM posts WHERE title = 'with image'", String.class));
+    }
+
+    @Test
+    void importPosts_shouldRejectMalformedLine() throws Exception {
+        mockMvc.perform(post("/posts/import").contentType(MediaType.APPLICATION_NDJSON).content("{\"title\": "))
+            .andExpect(status().isBadRequest());
+
+        assertEquals(IDLE_POSTS.size(), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts", Long.class));
+    }
+
+    @Test
+    void importPosts_shouldRejectRecordWithoutTitle() throws Exception {
+        mockMvc.perform(post("/posts/import").contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"title\": \"ok\", \"text\": \"text\"}\n{\"text\": \"no title\"}"))
+            .andExpect(status().isBadRequest());
+
+        assertEquals(IDLE_POSTS.size(), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts", Long.class));
+    }
+
+    @Test
+    void importPosts_shouldRejectTagWithSpace() throws Exception {
+        mockMvc.perform(post("/posts/import").contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"title\": \"title\", \"text\": \"text\", \"tags\": [\"two words\"]}"))
+            .andExpect(status().isBadRequest());
+
+        assertEquals(IDLE_POSTS.size(), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts", Long.class));
+    }
+}
@@ -4,10 +4,13 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.pagination.Paging;
 import java.io.IOException;
 import java.util.List;
 
@@ -18,6 +21,14 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class PostsControllerIntegrationTest extends BaseControllerTest {
     private static final String IMAGE_NAME = "/images/test-image.jpg";
+    private static final String SELECT_EXECUTED_QUERIES = """
+                                            SELECT
+                                                COALESCE(SUM(EXECUTION_COUNT), 0)
+                                            FROM
+                                                INFORMATION_SCHEMA.QUERY_STATISTICS
+                                            WHERE
+                                                SQL_STATEMENT NOT LIKE '%QUERY_STATISTICS%'
+                                        """;
 
     @Override
     protected void additionalSetup() {
@@ -52,6 +63,22 @@ class PostsControllerIntegrationTest extends BaseControllerTest {
         }
     }
 
+    @Test
+    void showPosts_shouldEscapePreviewNotYetRendered() throws Exception {
+        jdbcTemplate.update("UPDATE posts SET preview = ?, render_version = 0 WHERE id = ?",
+            "<script>alert(1)</script>", IDLE_POSTS.get(0).getId());
+        feedCache.invalidate();
+
+        String html = mockMvc.perform(get("/posts"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertFalse(html.contains("<script>alert(1)</script>"));
+        assertTrue(html.contains("&lt;script&gt;alert(1)&lt;/script&gt;"));
+    }
+
     @Test
     void showPosts_shouldReturnWithPageSize() throws Exception {
         MvcResult result = mockMvc.perform(get("/posts")
@@ -78,6 +105,60 @@ class PostsControllerIntegrationTest extends BaseControllerTest {
         }
     }
 
+    @Test
+    void showPosts_shouldNavigateWithCursors() throws Exception {
+        Document firstPage = getPostsPage(get("/posts").param("pageSize", "1"));
+        String nextCursor = firstPage.select("button[name=cursor]").attr("value");
+
+        assertEquals(List.of(IDLE_POSTS.get(2).getTitle()), firstPage.select("h2").eachText());
+        assertFalse(nextCursor.isEmpty());
+
+        Document secondPage = getPostsPage(get("/posts").param("pageSize", "1").param("cursor", nextCursor));
+        Elements cursors = secondPage.select("button[name=cursor]");
+
+        assertEquals(List.of(IDLE_POSTS.get(1).getTitle()), secondPage.select("h2").eachText());
+        assertTrue(secondPage.text().contains("Страница: 2"));
+        assertEquals(2, cursors.size());
+
+        Document previousPage = getPostsPage(get("/posts").param("pageSize", "1").param("cursor", cursors.get(0).attr("value")));
+
+        assertEquals(List.of(IDLE_POSTS.get(2).getTitle()), previousPage.select("h2").eachText());
+        assertTrue(previousPage.text().contains("Страница: 1"));
+    }
+
+    @Test
+    void showPosts_shouldIgnoreMalformedCursor() throws Exception {
+        Document page = getPostsPage(get("/posts").param("cursor", "not a cursor"));
+
+        assertEquals(IDLE_POSTS.size(), page.select("h2").size());
+    }
+
+    @Test
+    void showPosts_shouldUseTagTotalWhenSearching() throws Exception {
+        MvcResult result = mockMvc.perform(get("/posts")
+                .param("search", "tag2")
+                .param("pageSize", "1"))
+            .andExpect(status().isOk())
+            .andExpect(model().attribute("search", "tag2"))
+            .andReturn();
+
+        Paging paging = (Paging) result.getModelAndView().getModel().get("paging");
+
+        assertEquals(1, paging.getTotalElements());
+        assertFalse(paging.hasNext());
+    }
+
+    @Test
+    void showPosts_shouldSearchByTextAndComments() throws Exception {
+        Document byText = getPostsPage(get("/posts").param("search", "string 3"));
+        Document byComment = getPostsPage(get("/posts").param("search", "post 2 comment"));
+        Document byHashTag = getPostsPage(get("/posts").param("search", "#tag1"));
+
+        assertEquals(List.of(IDLE_POSTS.get(2).getTitle()), byText.select("h2").eachText());
+        assertEquals(List.of(IDLE_POSTS.get(1).getTitle()), byComment.select("h2").eachText());
+        assertEquals(List.of(IDLE_POSTS.get(0).getTitle()), byHashTag.select("h2").eachText());
+    }
+
     @Test
     void showPosts_shouldSearchByTag() throws Exception {
         MvcResult result = mockMvc.perform(get("/posts")
@@ -100,6 +181,26 @@ class PostsControllerIntegrationTest extends BaseControllerTest {
         assertEquals(IDLE_POSTS.get(1).getTitle(), titles.get(0));
     }
 
+    @Test
+    void showPosts_shouldRunSameQueriesCountForAnyPageSize() throws Throwable {
+        long smallPageQueries = countQueries(() -> mockMvc.perform(get("/posts")
+                .param("pageSize", "5"))
+            .andExpect(status().isOk()));
+
+        for (int i = 0; i < 10; i++) {
+            populatePosts();
+        }
+        for (PostModel post : IDLE_POSTS) {
+            jdbcTemplate.update("INSERT INTO comments(post_id, text) VALUES (?, ?)", post.getId(), "extra comment");
+        }
+
+        long bigPageQueries = countQueries(() -> mockMvc.perform(get("/posts")
+                .param("pageSize", "50"))
+            .andExpect(status().isOk()));
+
+        assertEquals(smallPageQueries, bigPageQueries);
+    }
+
     @Test
     void redirectToPosts_shouldRedirectToPosts() throws Exception {
         mockMvc.perform(get("/"))
@@ -182,6 +283,27 @@ class PostsControllerIntegrationTest extends BaseControllerTest {
             .andExpect(redirectedUrl("/posts"));
     }
 
+    private Document getPostsPage(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andExpect(view().name("posts"))
+            .andReturn();
+
+        return Jsoup.parse(result.getResponse().getContentAsString());
+    }
+
+    private long countQueries(Executable request) throws Throwable {
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+
+        try {
+            long before = jdbcTemplate.queryForObject(SELECT_EXECUTED_QUERIES, Long.class);
+            request.execute();
+            return jdbcTemplate.queryForObject(SELECT_EXECUTED_QUERIES, Long.class) - before;
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+    }
+
     private MockMultipartFile createMultipart() throws IOException {
         return new MockMultipartFile(
             "image",
@@ -0,0 +1,152 @@
+package ru.custom.blog.integration.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(properties = {
+    "blog.images.upload.max-bytes=1048576",
+    "blog.upload.max-request-bytes=2621440",
+    "blog.upload.max-field-bytes=1024"
+})
+class UploadControllerIntegrationTest extends BaseControllerTest {
+    private static final String BOUNDARY = "----upload-test-boundary";
+    private static final String IMAGE_NAME = "/images/test-image.jpg";
+
+    @Override
+    protected void additionalSetup() {
+        IDLE_COMMENTS.clear();
+        IDLE_POSTS.clear();
+
+        populatePosts();
+    }
+
+    @Test
+    void handleUploadPost_shouldStoreImageAndPost() throws Exception {
+        byte[] image = new ClassPathResource(IMAGE_NAME).getInputStream().readAllBytes();
+        byte[] body = multipartBody(Map.of("title", "streamed title", "tags", "some newTag", "text", "some test text"), image);
+
+        mockMvc.perform(post("/posts/upload").contentType("multipart/form-data; boundary=" + BOUNDARY).content(body))
+            .andExpect(status().is3xxRedirection())
+            .andExpect(redirectedUrl("/posts/" + (IDLE_POSTS.size() + 1)));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT title, tags, image_path FROM posts WHERE id = ?",
+            IDLE_POSTS.size() + 1);
+        Path stored = Path.of((String) row.get("image_path"));
+
+        assertEquals("streamed title", row.get("title"));
+        assertEquals("some newTag", row.get("tags"));
+        assertArrayEquals(image, Files.readAllBytes(stored));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM images WHERE post_id = ?", Integer.class,
+            IDLE_POSTS.size() + 1));
+    }
+
+    @Test
+    void handleUploadPost_shouldAcceptImageBeforeFields() throws Exception {
+        byte[] body = multipartBody(Map.of(), "image".getBytes(), Map.of("title", "late title", "tags", "late", "text", "late text"));
+
+        mockMvc.perform(post("/posts/upload").contentType("multipart/form-data; boundary=" + BOUNDARY).content(body))
+            .andExpect(status().is3xxRedirection());
+
+        assertEquals("late title", jdbcTemplate.queryForObject("SELECT title FROM posts WHERE id = ?", String.class,
+            IDLE_POSTS.size() + 1));
+    }
+
+    @Test
+    void handleUploadPost_shouldRejectMissingField() throws Exception {
+        byte[] body = multipartBody(Map.of("title", "no text", "tags", "tag"), "image".getBytes());
+
+        mockMvc.perform(post("/posts/upload").contentType("multipart/form-data; boundary=" + BOUNDARY).content(body))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void handleUploadPost_shouldRejectTitleLongerThanColumn() throws Exception {
+        byte[] body = multipartBody(Map.of("title", "t".repeat(257), "tags", "tag", "text", "text"), "image".getBytes());
+
+        mockMvc.perform(post("/posts/upload").contentType("multipart/form-data; boundary=" + BOUNDARY).content(body))
+            .andExpect(status().isBadRequest());
+
+        assertEquals(IDLE_POSTS.size(), countPosts());
+    }
+
+    @Test
+    void handleUploadPost_shouldRejectOversizedField() throws Exception {
+        byte[] body = multipartBody(Map.of("title", "big text", "tags", "tag", "text", "x".repeat(1024 + 1)), "image".getBytes());
+
+        mockMvc.perform(post("/posts/upload").contentType("multipart/form-data; boundary=" + BOUNDARY).content(body))
+            .andExpect(status().isBadRequest());
+
+        assertEquals(IDLE_POSTS.size(), countPosts());
+    }
+
+    @Test
+    void handleUploadPost_shouldRejectOversizedRequest() throws Exception {
+        byte[] body = multipartBody(Map.of("title", "huge", "tags", "tag", "text", "text"), new byte[3 * 1048576]);
+
+        mockMvc.perform(post("/posts/upload").contentType("multipart/form-data; boundary=" + BOUNDARY).content(body))
+            .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void handleUploadPost_shouldRejectOversizedImageAndDropPost() throws Exception {
+        byte[] body = multipartBody(Map.of("title", "too big", "tags", "tag", "text", "text"), new byte[2 * 1048576]);
+
+        mockMvc.perform(post("/posts/upload").contentType("multipart/form-data; boundary=" + BOUNDARY).content(body))
+            .andExpect(status().isPayloadTooLarge());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (countPosts() > IDLE_POSTS.size() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(IDLE_POSTS.size(), countPosts());
+    }
+
+    private long countPosts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts", Long.class);
+    }
+
+    private static byte[] multipartBody(Map<String, String> fields, byte[] image) throws IOException {
+        return multipartBody(fields, image, Map.of());
+    }
+
+    private static byte[] multipartBody(Map<String, String> before, byte[] image, Map<String, String> after) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        for (Map.Entry<String, String> field : before.entrySet()) {
+            writeField(body, field.getKey(), field.getValue());
+        }
+
+        body.write(("--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"image\"; filename=\"test-image.jpg\"\r\n"
+            + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(image);
+        body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+
+        for (Map.Entry<String, String> field : after.entrySet()) {
+            writeField(body, field.getKey(), field.getValue());
+        }
+
+        body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return body.toByteArray();
+    }
+
+    private static void writeField(ByteArrayOutputStream body, String name, String value) throws IOException {
+        body.write(("--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+            + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -9,11 +9,10 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.test.context.ActiveProfiles;
 import ru.custom.blog.model.CommentModel;
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.render.PostRenderer;
 import ru.custom.blog.repository.CommentRepository;
-import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.repository.JdbcNativePostRepository;
 
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.util.ArrayList;
@@ -27,11 +26,14 @@ abstract class BaseRepositoryTest {
     protected JdbcTemplate jdbcTemplate;
 
     @Autowired
-    protected PostRepository postRepository;
+    protected JdbcNativePostRepository postRepository;
 
     @Autowired
     protected CommentRepository commentRepository;
 
+    @Autowired
+    protected PostRenderer postRenderer;
+
     protected static final ArrayList<PostModel> IDLE_POSTS = new ArrayList<>();
     protected static final ArrayList<CommentModel> IDLE_COMMENTS = new ArrayList<>();
 
@@ -49,7 +51,9 @@ abstract class BaseRepositoryTest {
     @BeforeEach
     void setUp() {
         // Очистка базы данных
+        jdbcTemplate.execute("DELETE FROM post_tags");
         jdbcTemplate.execute("DELETE FROM comments");
+        jdbcTemplate.execute("DELETE FROM images");
         jdbcTemplate.execute("DELETE FROM posts");
 
         jdbcTemplate.execute("ALTER TABLE posts ALTER COLUMN id RESTART WITH 1");
@@ -72,23 +76,32 @@ abstract class BaseRepositoryTest {
             post.setImagePath(IDLE_IMAGE_PATH.get(i));
             post.setLikesCount(1);
             post.setTags(Arrays.stream(IDLE_TTAGS.get(i).split(" ")).toList());
+            postRenderer.render(post);
 
             jdbcTemplate.update(connection -> {
                 PreparedStatement statement = connection.prepareStatement(
-                    "INSERT INTO posts(title, text, image_path, likes_count, tags) VALUES (?, ?, ?, ?, ?)",
+                    "INSERT INTO posts(title, text, preview, image_path, likes_count, tags, body_html, render_version) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
                     Statement.RETURN_GENERATED_KEYS);
 
                 statement.setString(1, post.getTitle());
-                statement.setBlob(2, new ByteArrayInputStream(post.getText().getBytes(StandardCharsets.UTF_8)));
-                statement.setString(3, post.getImagePath());
-                statement.setInt(4, post.getLikesCount());
-                statement.setString(5, post.getTagsAsText());
+                statement.setString(2, post.getText());
+                statement.setString(3, post.getTextPreview());
+                statement.setString(4, post.getImagePath());
+                statement.setInt(5, post.getLikesCount());
+                statement.setString(6, post.getTagsAsText());
+                statement.setString(7, post.getBodyHtml());
+                statement.setInt(8, post.getRenderVersion());
 
 
                 return statement;
             }, keyHolder);
 
             post.setId(keyHolder.getKey().longValue());
+            for (String tag : post.getDistinctTags()) {
+                jdbcTemplate.update("INSERT INTO post_tags(post_id, tag) VALUES (?, ?)", post.getId(), tag);
+            }
+
             IDLE_POSTS.add(post);
         }
     }
@@ -113,6 +126,9 @@ abstract class BaseRepositoryTest {
             }, keyHolder);
 
             comment.setId(keyHolder.getKey().longValue());
+            jdbcTemplate.update(
+                "UPDATE posts SET comments_count = comments_count + 1 WHERE id = ?", comment.getPostId());
+
             IDLE_COMMENTS.add(comment);
         }
     }
@@ -0,0 +1,64 @@
+package ru.custom.blog.integration.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.custom.blog.jdbc.SqlStatementNames;
+import ru.custom.blog.jdbc.StatementMetrics;
+import ru.custom.blog.jdbc.StatementStats;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedDataSourceIntegrationTest extends BaseRepositoryTest {
+    private static final String SELECT_POST = "JdbcNativePostRepository.SELECT_POST";
+    private static final String INSERT_TAG = "JdbcNativePostRepository.INSERT_TAG";
+
+    @Autowired
+    private StatementMetrics statementMetrics;
+
+    @Override
+    protected void additionalSetup() {
+        IDLE_POSTS.clear();
+
+        populatePosts();
+    }
+
+    @Test
+    void findPostById_shouldRecordTimingAndRows() {
+        StatementStats before = stats(SELECT_POST);
+
+        postRepository.findPostById(IDLE_POSTS.get(0).getId());
+        postRepository.findPostById(-1L);
+
+        StatementStats after = stats(SELECT_POST);
+
+        assertEquals(before.getCount() + 2, after.getCount());
+        assertEquals(before.getRows() + 1, after.getRows());
+        assertEquals(before.getErrors(), after.getErrors());
+    }
+
+    @Test
+    void batchUpdate_shouldCountAffectedRows() {
+        StatementStats before = stats(INSERT_TAG);
+
+        jdbcTemplate.execute("DELETE FROM post_tags");
+        postRepository.backfillTags();
+
+        assertEquals(before.getRows() + 2L * IDLE_POSTS.size(), stats(INSERT_TAG).getRows());
+    }
+
+    @Test
+    void failedStatement_shouldCountError() {
+        StatementStats before = stats(SqlStatementNames.OTHER);
+
+        assertThrows(Exception.class, () -> jdbcTemplate.execute("SELECT missing_column FROM posts"));
+
+        assertEquals(before.getErrors() + 1, stats(SqlStatementNames.OTHER).getErrors());
+    }
+
+    private StatementStats stats(String statement) {
+        return Optional.ofNullable(statementMetrics.snapshot().get(statement))
+            .orElseGet(() -> new StatementStats(0, 0, 0, 0, 0, 0, 0, 0, 0));
+    }
+}
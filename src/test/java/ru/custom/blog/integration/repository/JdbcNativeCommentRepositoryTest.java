@@ -3,6 +3,7 @@ package ru.custom.blog.integration.repository;
 import org.junit.jupiter.api.Test;
 import ru.custom.blog.model.CommentModel;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,6 +25,54 @@ class JdbcNativeCommentRepositoryTest extends BaseRepositoryTest {
         assertEquals(IDLE_COMMENTS.get(0), comments.get(0));
     }
 
+    @Test
+    void findByPostIdPage_shouldReturnCommentsAfterId() {
+        commentRepository.saveAll(List.of(
+            new CommentModel(null, 1L, "page 1"),
+            new CommentModel(null, 1L, "page 2"),
+            new CommentModel(null, 1L, "page 3")));
+        List<CommentModel> all = commentRepository.findByPostId(1L);
+
+        List<CommentModel> first = commentRepository.findByPostId(1L, null, 2);
+        List<CommentModel> second = commentRepository.findByPostId(1L, first.get(1).getId(), 2);
+        List<CommentModel> last = commentRepository.findByPostId(1L, all.get(all.size() - 1).getId(), 2);
+
+        assertEquals(all.subList(0, 2), first);
+        assertEquals(all.subList(2, 4), second);
+        assertTrue(last.isEmpty());
+    }
+
+    @Test
+    void findById_shouldReturnComment() {
+        assertEquals(IDLE_COMMENTS.get(0), commentRepository.findById(IDLE_COMMENTS.get(0).getId()).orElseThrow());
+        assertTrue(commentRepository.findById(Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void countByPostId_shouldReturnCommentsCount() {
+        assertEquals(1, commentRepository.countByPostId(1L));
+        assertEquals(0, commentRepository.countByPostId(Long.MAX_VALUE));
+    }
+
+    @Test
+    void findByPostIds_shouldGroupCommentsByPost() {
+        Map<Long, List<CommentModel>> comments = commentRepository.findByPostIds(List.of(1L, 2L));
+
+        assertEquals(2, comments.size());
+        assertFalse(comments.containsKey(3L));
+
+        for (CommentModel comment : IDLE_COMMENTS) {
+            if (comment.getPostId() == 3L) continue;
+
+            assertEquals(List.of(comment), comments.get(comment.getPostId()));
+        }
+    }
+
+    @Test
+    void findByPostIds_shouldReturnEmptyMapForNoPosts() {
+        assertTrue(commentRepository.findByPostIds(List.of()).isEmpty());
+    }
+
     @Test
     void save_shouldSaveComment() {
         CommentModel comment = populateTestComment();
@@ -76,6 +125,52 @@ class JdbcNativeCommentRepositoryTest extends BaseRepositoryTest {
         assertTrue(comments.isEmpty());
     }
 
+    @Test
+    void save_shouldIncrementCommentsCount() {
+        CommentModel comment = populateTestComment();
+        int idleCount = getCommentsCount(comment.getPostId());
+
+        commentRepository.save(comment);
+
+        assertEquals(idleCount + 1, getCommentsCount(comment.getPostId()));
+    }
+
+    @Test
+    void saveAll_shouldInsertCommentsAndAddCounts() {
+        int firstCount = getCommentsCount(1L);
+        int secondCount = getCommentsCount(2L);
+
+        commentRepository.saveAll(List.of(
+            new CommentModel(null, 1L, "batch 1"),
+            new CommentModel(null, 1L, "batch 2"),
+            new CommentModel(null, 2L, "batch 3")));
+
+        assertEquals(firstCount + 2, getCommentsCount(1L));
+        assertEquals(secondCount + 1, getCommentsCount(2L));
+        assertEquals(firstCount + 2, commentRepository.findByPostId(1L).size());
+    }
+
+    @Test
+    void deleteById_shouldDecrementCommentsCount() {
+        CommentModel comment = commentRepository.findByPostId(1L).get(0);
+        int idleCount = getCommentsCount(comment.getPostId());
+
+        commentRepository.deleteById(comment.getId());
+
+        assertEquals(idleCount - 1, getCommentsCount(comment.getPostId()));
+    }
+
+    @Test
+    void deleteByPostId_shouldResetCommentsCount() {
+        commentRepository.deleteByPostId(1L);
+
+        assertEquals(0, getCommentsCount(1L));
+    }
+
+    private int getCommentsCount(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT comments_count FROM posts WHERE id = ?", Integer.class, postId);
+    }
+
     private CommentModel populateTestComment() {
         CommentModel model = new CommentModel();
 
@@ -0,0 +1,139 @@
+package ru.custom.blog.integration.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.custom.blog.model.ImageModel;
+import ru.custom.blog.repository.JdbcNativeImageRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcNativeImageRepositoryTest extends BaseRepositoryTest {
+    @Autowired
+    private JdbcNativeImageRepository imageRepository;
+
+    @Override
+    protected void additionalSetup() {
+        IDLE_POSTS.clear();
+        IDLE_COMMENTS.clear();
+
+        populatePosts();
+    }
+
+    @Test
+    void save_shouldStoreMetadata() {
+        ImageModel image = createImage(IDLE_POSTS.get(0).getId(), IDLE_IMAGE_PATH.get(0));
+
+        imageRepository.save(image);
+
+        Optional<ImageModel> saved = imageRepository.findByPostId(IDLE_POSTS.get(0).getId());
+
+        assertTrue(saved.isPresent());
+        assertNotNull(saved.get().getId());
+        assertEquals(image, saved.get());
+    }
+
+    @Test
+    void save_shouldReplaceExistingRow() {
+        Long postId = IDLE_POSTS.get(0).getId();
+        imageRepository.save(createImage(postId, IDLE_IMAGE_PATH.get(0)));
+
+        ImageModel replacement = createImage(postId, "/images/replacement.png");
+        replacement.setContentType("image/png");
+        replacement.setWidth(null);
+        replacement.setHeight(null);
+        imageRepository.save(replacement);
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM images WHERE post_id = ?", Integer.class, postId);
+
+        assertEquals(1, rows);
+        assertEquals(replacement, imageRepository.findByPostId(postId).orElseThrow());
+    }
+
+    @Test
+    void saveIfCurrent_shouldInsertMissingRow() {
+        ImageModel image = createImage(IDLE_POSTS.get(0).getId(), IDLE_IMAGE_PATH.get(0));
+
+        assertTrue(imageRepository.saveIfCurrent(image));
+
+        ImageModel saved = imageRepository.findByPostId(IDLE_POSTS.get(0).getId()).orElseThrow();
+        image.setId(saved.getId());
+
+        assertEquals(image, saved);
+    }
+
+    @Test
+    void saveIfCurrent_shouldKeepExistingRow() {
+        Long postId = IDLE_POSTS.get(0).getId();
+        ImageModel existing = createImage(postId, "/images/edited.png");
+        imageRepository.save(existing);
+
+        assertFalse(imageRepository.saveIfCurrent(createImage(postId, IDLE_IMAGE_PATH.get(0))));
+        assertEquals("/images/edited.png", imageRepository.findByPostId(postId).orElseThrow().getPath());
+    }
+
+    @Test
+    void saveIfCurrent_shouldSkipOutdatedPath() {
+        Long postId = IDLE_POSTS.get(0).getId();
+
+        assertFalse(imageRepository.saveIfCurrent(createImage(postId, "/images/old.png")));
+        assertTrue(imageRepository.findByPostId(postId).isEmpty());
+    }
+
+    @Test
+    void findByPostId_shouldReturnEmptyForUnrecordedPost() {
+        assertTrue(imageRepository.findByPostId(IDLE_POSTS.get(0).getId()).isEmpty());
+    }
+
+    @Test
+    void saveAll_shouldStoreEveryRow() {
+        imageRepository.saveAll(List.of(
+            createImage(IDLE_POSTS.get(0).getId(), IDLE_IMAGE_PATH.get(0)),
+            createImage(IDLE_POSTS.get(1).getId(), IDLE_IMAGE_PATH.get(1))
+        ));
+
+        assertTrue(imageRepository.findByPostId(IDLE_POSTS.get(0).getId()).isPresent());
+        assertTrue(imageRepository.findByPostId(IDLE_POSTS.get(1).getId()).isPresent());
+    }
+
+    @Test
+    void deleteByPostId_shouldRemoveRow() {
+        imageRepository.save(createImage(IDLE_POSTS.get(0).getId(), IDLE_IMAGE_PATH.get(0)));
+
+        imageRepository.deleteByPostId(IDLE_POSTS.get(0).getId());
+
+        assertTrue(imageRepository.findByPostId(IDLE_POSTS.get(0).getId()).isEmpty());
+    }
+
+    @Test
+    void findUnrecordedImages_shouldSkipRecordedPosts() {
+        imageRepository.save(createImage(IDLE_POSTS.get(0).getId(), IDLE_IMAGE_PATH.get(0)));
+
+        Map<Long, String> unrecorded = imageRepository.findUnrecordedImages(10);
+
+        assertEquals(List.of(IDLE_POSTS.get(1).getId(), IDLE_POSTS.get(2).getId()), List.copyOf(unrecorded.keySet()));
+        assertEquals(IDLE_IMAGE_PATH.get(1), unrecorded.get(IDLE_POSTS.get(1).getId()));
+    }
+
+    @Test
+    void findUnrecordedImages_shouldRespectLimit() {
+        assertEquals(1, imageRepository.findUnrecordedImages(1).size());
+    }
+
+    private ImageModel createImage(Long postId, String path) {
+        ImageModel image = new ImageModel();
+        image.setPostId(postId);
+        image.setPath(path);
+        image.setContentType("image/jpeg");
+        image.setByteSize(1024L);
+        image.setWidth(640);
+        image.setHeight(480);
+        image.setHash("a".repeat(64));
+        image.setMtime(1_700_000_000_000L);
+
+        return image;
+    }
+}
@@ -1,16 +1,21 @@
 package ru.custom.blog.integration.repository;
 
 import org.junit.jupiter.api.Test;
+import ru.custom.blog.model.CommentModel;
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.model.PostSummary;
+import ru.custom.blog.render.PostRenderer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.*;
+import java.util.stream.Collectors;
 
 class JdbcNativePostRepositoryTest extends BaseRepositoryTest {
 
     @Override
     protected void additionalSetup() {
         IDLE_POSTS.clear();
+        IDLE_COMMENTS.clear();
 
         populatePosts();
     }
@@ -47,29 +52,203 @@ class JdbcNativePostRepositoryTest extends BaseRepositoryTest {
     }
 
     @Test
-    void findPage_shouldReturnIdlePosts_reverseOrder() {
-        List<PostModel> posts = postRepository.findPage(10, 0);
+    void findPageAfter_shouldReturnOlderPosts() {
+        List<PostModel> posts = postRepository.findPageAfter(IDLE_POSTS.get(2).getId(), 10);
 
-        posts.sort((o1, o2) -> Math.toIntExact(o1.getId() - o2.getId()));
+        assertEquals(List.of(IDLE_POSTS.get(1), IDLE_POSTS.get(0)), posts);
+    }
 
-        assertNotNull(posts);
-        assertFalse(posts.isEmpty());
+    @Test
+    void findPageAfter_shouldRespectLimit() {
+        List<PostModel> posts = postRepository.findPageAfter(IDLE_POSTS.get(2).getId(), 1);
 
-        for (int i = 0; i < IDLE_POSTS.size(); i++) {
-            assertEquals(IDLE_POSTS.get(i), posts.get(i));
-            assertEquals(IDLE_POSTS.get(i), posts.get(i));
-            assertEquals(IDLE_POSTS.get(i), posts.get(i));
+        assertEquals(List.of(IDLE_POSTS.get(1)), posts);
+    }
+
+    @Test
+    void findSummaryPageByTag_shouldNotMatchTagPrefix() {
+        List<PostSummary> posts = postRepository.findSummaryPageByTag("tag", 10, 0);
+
+        assertTrue(posts.isEmpty());
+    }
+
+    @Test
+    void saveAll_shouldReturnIdsInOrder() {
+        PostModel first = populateTestPost();
+        PostModel second = populateTestPost();
+        second.setTitle("test5");
+        second.setTags(List.of("tag5"));
+
+        List<Long> ids = postRepository.saveAll(List.of(first, second));
+
+        assertEquals(2, ids.size());
+        assertEquals("test4", postRepository.findPostById(ids.get(0)).orElseThrow().getTitle());
+        assertEquals("test5", postRepository.findPostById(ids.get(1)).orElseThrow().getTitle());
+        assertEquals(List.of("tag5"), postRepository.findTagsById(ids.get(1)));
+        assertTrue(postRepository.saveAll(List.of()).isEmpty());
+    }
+
+    @Test
+    void streamPosts_shouldVisitEveryPostWithComments() {
+        populateComments();
+        List<PostModel> streamed = new ArrayList<>();
+
+        postRepository.streamPosts(1, streamed::add);
+
+        assertEquals(IDLE_POSTS.stream().map(PostModel::getId).toList(), streamed.stream().map(PostModel::getId).toList());
+        for (PostModel post : streamed) {
+            assertEquals(List.of(IDLE_COMMENTS_DATA.get(post.getId())),
+                post.getComments().stream().map(CommentModel::getText).toList());
         }
     }
 
     @Test
-    void findPageByTag_shouldReturnPostByTag() {
-        List<PostModel> posts = postRepository.findPageByTag(IDLE_POSTS.get(0).getTags().get(0), 10, 0);
+    void save_shouldIndexTags() {
+        PostModel model = populateTestPost();
+        model.setId(postRepository.save(model));
+
+        List<PostSummary> posts = postRepository.findSummaryPageByTag("tag4", 10, 0);
 
-        assertNotNull(posts);
-        assertFalse(posts.isEmpty());
         assertEquals(1, posts.size());
-        assertEquals(IDLE_POSTS.get(0), posts.get(0));
+        assertEquals(model.getId(), posts.get(0).getId());
+    }
+
+    @Test
+    void update_shouldReplaceIndexedTags() {
+        PostModel newPost = populateTestPost();
+        newPost.setId(IDLE_POSTS.get(0).getId());
+
+        postRepository.update(newPost);
+
+        assertTrue(postRepository.findSummaryPageByTag(IDLE_POSTS.get(0).getTags().get(0), 10, 0).isEmpty());
+        assertEquals(1, postRepository.findSummaryPageByTag("some4", 10, 0).size());
+    }
+
+    @Test
+    void backfillTags_shouldIndexNotIndexedPosts() {
+        jdbcTemplate.execute("DELETE FROM post_tags");
+
+        postRepository.backfillTags();
+
+        for (PostModel post : IDLE_POSTS) {
+            List<PostSummary> posts = postRepository.findSummaryPageByTag(post.getTags().get(1), 10, 0);
+
+            assertEquals(1, posts.size());
+            assertEquals(post.getId(), posts.get(0).getId());
+        }
+    }
+
+    @Test
+    void findSummaryPage_shouldReturnPreviewsInReverseOrder() {
+        List<PostSummary> summaries = postRepository.findSummaryPage(10, 0);
+
+        assertEquals(IDLE_POSTS.size(), summaries.size());
+
+        for (int i = 0; i < IDLE_POSTS.size(); i++) {
+            PostModel post = IDLE_POSTS.get(IDLE_POSTS.size() - 1 - i);
+            PostSummary summary = summaries.get(i);
+
+            assertEquals(post.getId(), summary.getId());
+            assertEquals(post.getTitle(), summary.getTitle());
+            assertEquals(post.getTextPreview(), summary.getTextPreview());
+            assertEquals(post.getRenderVersion(), summary.getRenderVersion());
+            assertEquals(post.getLikesCount(), summary.getLikesCount());
+            assertEquals(post.getTags(), summary.getTags());
+            assertEquals(0, summary.getCommentsCount());
+        }
+    }
+
+    @Test
+    void findSummaryPage_shouldJoinImageDimensions() {
+        jdbcTemplate.update(
+            "INSERT INTO images(post_id, path, content_type, byte_size, width, height, mtime) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            IDLE_POSTS.get(0).getId(), IDLE_IMAGE_PATH.get(0), "image/jpeg", 1024L, 600, 400, 0L);
+
+        Map<Long, PostSummary> summaries = postRepository.findSummaryPage(10, 0).stream()
+            .collect(Collectors.toMap(PostSummary::getId, summary -> summary));
+
+        PostSummary recorded = summaries.get(IDLE_POSTS.get(0).getId());
+        PostSummary unrecorded = summaries.get(IDLE_POSTS.get(1).getId());
+
+        assertEquals(600, recorded.getImageWidth());
+        assertEquals(400, recorded.getImageHeight());
+        assertEquals(450, recorded.getImageWidthAt(300));
+        assertNull(unrecorded.getImageWidth());
+        assertNull(unrecorded.getImageWidthAt(300));
+    }
+
+    @Test
+    void findById_shouldJoinImageHash() {
+        jdbcTemplate.update(
+            "INSERT INTO images(post_id, path, content_type, byte_size, hash, mtime) VALUES (?, ?, ?, ?, ?, ?)",
+            IDLE_POSTS.get(0).getId(), IDLE_IMAGE_PATH.get(0), "image/jpeg", 1024L, "abc123", 0L);
+
+        PostModel post = postRepository.findPostById(IDLE_POSTS.get(0).getId()).orElseThrow();
+        PostSummary summary = postRepository.findSummariesByIds(List.of(IDLE_POSTS.get(0).getId())).get(0);
+
+        assertEquals("abc123", post.getImageHash());
+        assertEquals("abc123", summary.getImageHash());
+        assertNull(postRepository.findPostById(IDLE_POSTS.get(1).getId()).orElseThrow().getImageHash());
+    }
+
+    @Test
+    void findSummaryPageByTag_shouldReturnTaggedPosts() {
+        List<PostSummary> summaries = postRepository.findSummaryPageByTag("tag2", 10, 0);
+
+        assertEquals(1, summaries.size());
+        assertEquals(IDLE_POSTS.get(1).getId(), summaries.get(0).getId());
+    }
+
+    @Test
+    void findSummariesByIds_shouldReturnRequestedPosts() {
+        List<Long> ids = List.of(IDLE_POSTS.get(0).getId(), IDLE_POSTS.get(2).getId());
+
+        List<PostSummary> summaries = postRepository.findSummariesByIds(ids);
+
+        assertEquals(Set.copyOf(ids), summaries.stream().map(PostSummary::getId).collect(Collectors.toSet()));
+        assertTrue(postRepository.findSummariesByIds(List.of()).isEmpty());
+    }
+
+    @Test
+    void update_shouldRewritePreview() {
+        PostModel newPost = populateTestPost();
+        newPost.setId(IDLE_POSTS.get(0).getId());
+        newPost.setText("updated text");
+        postRenderer.render(newPost);
+
+        postRepository.update(newPost);
+
+        PostSummary summary = postRepository.findSummaryPage(10, 0).stream()
+            .filter(s -> s.getId().equals(newPost.getId()))
+            .findFirst()
+            .orElseThrow();
+
+        assertEquals("updated text", summary.getTextPreview());
+    }
+
+    @Test
+    void findPostById_shouldReturnRenderedBody() {
+        PostModel post = postRepository.findPostById(IDLE_POSTS.get(0).getId()).orElseThrow();
+
+        assertEquals(IDLE_POSTS.get(0).getBodyHtml(), post.getBodyHtml());
+        assertEquals(PostRenderer.VERSION, post.getRenderVersion());
+    }
+
+    @Test
+    void updateRendered_shouldRewriteStalePostsOnly() {
+        Long staleId = IDLE_POSTS.get(1).getId();
+        jdbcTemplate.update("UPDATE posts SET body_html = 'old', render_version = 0 WHERE id = ?", staleId);
+
+        List<PostModel> stale = postRepository.findStaleRenders(PostRenderer.VERSION, 10);
+
+        assertEquals(List.of(staleId), stale.stream().map(PostModel::getId).toList());
+
+        stale.forEach(postRenderer::render);
+
+        assertEquals(1, postRepository.updateRendered(stale));
+        assertEquals(0, postRepository.updateRendered(stale));
+        assertEquals(IDLE_POSTS.get(1).getBodyHtml(), postRepository.findPostById(staleId).orElseThrow().getBodyHtml());
+        assertTrue(postRepository.findStaleRenders(PostRenderer.VERSION, 10).isEmpty());
     }
 
     @Test
@@ -85,6 +264,12 @@ class JdbcNativePostRepositoryTest extends BaseRepositoryTest {
         assertEquals(newPost, resultPost);
     }
 
+    @Test
+    void existsById_shouldFindOnlyStoredPosts() {
+        assertTrue(postRepository.existsById(IDLE_POSTS.get(0).getId()));
+        assertFalse(postRepository.existsById(-1L));
+    }
+
     @Test
     void findImageById_shouldReturnImage() {
         Optional<String> imagePath = postRepository.findImageById(IDLE_POSTS.get(0).getId());
@@ -94,38 +279,62 @@ class JdbcNativePostRepositoryTest extends BaseRepositoryTest {
     }
 
     @Test
-    void incrementLikesCount_shouldAddLike() {
-        PostModel idlePost = postRepository.findPostById(IDLE_POSTS.get(0).getId()).orElseGet(PostModel::new);
-        Integer idleLikesCount = idlePost.getLikesCount();
+    void countByImagePath_shouldCountSharingPosts() {
+        PostModel model = populateTestPost();
+        model.setImagePath(IDLE_POSTS.get(0).getImagePath());
+        postRepository.save(model);
 
-        postRepository.incrementLikesCount(IDLE_POSTS.get(0).getId());
+        assertEquals(2, postRepository.countByImagePath(IDLE_POSTS.get(0).getImagePath()));
+        assertEquals(0, postRepository.countByImagePath("/images/missing.jpg"));
+    }
 
-        PostModel updatedPost = postRepository.findPostById(IDLE_POSTS.get(0).getId()).orElseGet(PostModel::new);
-        Integer resultLikesCount = updatedPost.getLikesCount();
+    @Test
+    void findReferencedImagePaths_shouldReturnOnlyStoredPaths() {
+        Set<String> referenced = postRepository.findReferencedImagePaths(
+            List.of(IDLE_IMAGE_PATH.get(0), IDLE_IMAGE_PATH.get(2), "/images/orphan.jpg"));
 
-        assertNotNull(resultLikesCount);
-        assertEquals(idleLikesCount + 1, resultLikesCount);
+        assertEquals(Set.of(IDLE_IMAGE_PATH.get(0), IDLE_IMAGE_PATH.get(2)), referenced);
+        assertTrue(postRepository.findReferencedImagePaths(List.of()).isEmpty());
     }
 
     @Test
-    void decrementLikesCount_shouldAddLike() {
-        PostModel idlePost = postRepository.findPostById(IDLE_POSTS.get(0).getId()).orElseGet(PostModel::new);
-        Integer idleLikesCount = idlePost.getLikesCount();
+    void applyLikesDeltas_shouldAddDeltas() {
+        PostModel first = IDLE_POSTS.get(0);
+        PostModel second = IDLE_POSTS.get(1);
 
-        postRepository.decrementLikesCount(IDLE_POSTS.get(0).getId());
+        postRepository.applyLikesDeltas(Map.of(first.getId(), 5L, second.getId(), -1L));
 
-        PostModel updatedPost = postRepository.findPostById(IDLE_POSTS.get(0).getId()).orElseGet(PostModel::new);
-        Integer resultLikesCount = updatedPost.getLikesCount();
+        assertEquals(first.getLikesCount() + 5,
+            postRepository.findPostById(first.getId()).orElseThrow().getLikesCount());
+        assertEquals(second.getLikesCount() - 1,
+            postRepository.findPostById(second.getId()).orElseThrow().getLikesCount());
+    }
 
-        assertNotNull(resultLikesCount);
-        assertEquals(idleLikesCount - 1, resultLikesCount);
+    @Test
+    void findTagsById_shouldReturnIndexedTags() {
+        List<String> tags = postRepository.findTagsById(IDLE_POSTS.get(0).getId());
+
+        assertEquals(Set.copyOf(IDLE_POSTS.get(0).getDistinctTags()), Set.copyOf(tags));
+    }
+
+    @Test
+    void countByTags_shouldGroupPostsByTag() {
+        Map<String, Long> counts = postRepository.countByTags();
+
+        assertEquals(6, counts.size());
+        assertEquals(1L, counts.get("tag2"));
+    }
+
+    @Test
+    void deleteById_shouldReturnFalseForMissingPost() {
+        assertFalse(postRepository.deleteById(-1L));
     }
 
     @Test
     void deleteById_shouldDeletePost() {
         long count = postRepository.getTotalCount();
 
-        postRepository.deleteById(IDLE_POSTS.get(0).getId());
+        assertTrue(postRepository.deleteById(IDLE_POSTS.get(0).getId()));
 
         long updatedCount = postRepository.getTotalCount();
 
@@ -133,6 +342,49 @@ class JdbcNativePostRepositoryTest extends BaseRepositoryTest {
 
         assertFalse(deletedPost.isPresent());
         assertEquals(count - 1, updatedCount);
+        assertTrue(postRepository.findSummaryPageByTag(IDLE_POSTS.get(0).getTags().get(0), 10, 0).isEmpty());
+    }
+
+    @Test
+    void save_shouldHideUnpublishedPost() {
+        PostModel model = populateTestPost();
+        model.setPublished(false);
+
+        Long postId = postRepository.save(model);
+
+        assertTrue(postRepository.findPostById(postId).isPresent());
+        assertEquals(IDLE_POSTS.size(), postRepository.getTotalCount());
+        assertTrue(postRepository.findSummaryPage(10, 0).stream().noneMatch(summary -> summary.getId().equals(postId)));
+        assertTrue(postRepository.findSummaryPageByTag("tag4", 10, 0).isEmpty());
+        assertTrue(postRepository.findPageAfter(Long.MAX_VALUE, 10).stream().noneMatch(post -> post.getId().equals(postId)));
+        assertFalse(postRepository.countByTags().containsKey("tag4"));
+    }
+
+    @Test
+    void publish_shouldShowPostWithImage() {
+        PostModel model = populateTestPost();
+        model.setPublished(false);
+        Long postId = postRepository.save(model);
+
+        postRepository.publish(postId, "published-path");
+
+        assertEquals(IDLE_POSTS.size() + 1, postRepository.getTotalCount());
+        assertEquals(1, postRepository.findSummaryPageByTag("tag4", 10, 0).size());
+        assertEquals(Optional.of("published-path"), postRepository.findImageById(postId));
+    }
+
+    @Test
+    void deleteUnpublished_shouldDeleteOnlyUnpublishedPosts() {
+        PostModel model = populateTestPost();
+        model.setPublished(false);
+        Long postId = postRepository.save(model);
+
+        assertEquals(1, postRepository.deleteUnpublished());
+
+        assertFalse(postRepository.findPostById(postId).isPresent());
+        assertTrue(postRepository.findTagsById(postId).isEmpty());
+        assertEquals(IDLE_POSTS.size(), postRepository.getTotalCount());
+        assertEquals(0, postRepository.deleteUnpublished());
     }
 
     private PostModel populateTestPost() {
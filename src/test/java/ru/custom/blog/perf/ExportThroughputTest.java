@@ -0,0 +1,131 @@
+package ru.custom.blog.perf;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.custom.blog.exporter.PostExporter;
+import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.render.PostRenderer;
+import ru.custom.blog.repository.CommentRepository;
+import ru.custom.blog.repository.JdbcNativePostRepository;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports a generated 1M-post data set into a discarding stream. Excluded from {@code test}; run with {@code ./gradlew perfTest}.
+ */
+@Tag("perf")
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportThroughputTest {
+    private static final Logger logger = LoggerFactory.getLogger(ExportThroughputTest.class);
+
+    private static final int POSTS = 1_000_000;
+    private static final int BATCH_SIZE = 5_000;
+    private static final int COMMENT_EVERY = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JdbcNativePostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostRenderer postRenderer;
+
+    @Autowired
+    private PostExporter postExporter;
+
+    @BeforeEach
+    void setUp() {
+        clean();
+
+        for (int from = 0; from < POSTS; from += BATCH_SIZE) {
+            List<PostModel> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < from + BATCH_SIZE; i++) {
+                batch.add(generatePost(i));
+            }
+
+            List<Long> ids = postRepository.saveAll(batch);
+
+            List<CommentModel> comments = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += COMMENT_EVERY) {
+                comments.add(new CommentModel(null, ids.get(i), "comment for post " + ids.get(i)));
+            }
+            commentRepository.saveAll(comments);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        clean();
+    }
+
+    @Test
+    void writeNdjson_shouldStreamMillionPosts() throws Exception {
+        CountingOutputStream output = new CountingOutputStream();
+
+        long start = System.currentTimeMillis();
+        long exported = postExporter.writeNdjson(output);
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+        logger.info(String.format("Exported %d posts, %d MB in %d ms: %d posts/sec, %d MB/sec",
+            exported, output.bytes >> 20, elapsed, exported * 1000 / elapsed, (output.bytes >> 20) * 1000 / elapsed));
+
+        assertEquals(POSTS, exported);
+        assertEquals(POSTS, output.lines);
+    }
+
+    private PostModel generatePost(int i) {
+        PostModel post = new PostModel();
+
+        post.setTitle("title " + i);
+        post.setText("Generated post " + i + " with a link https://example.com/posts/" + i + " and some more words");
+        post.setImagePath("/images/" + i + ".jpg");
+        post.setLikesCount(i % 100);
+        post.setTags(List.of("tag" + i % 50, "perf"));
+
+        return postRenderer.render(post);
+    }
+
+    private void clean() {
+        jdbcTemplate.execute("DELETE FROM post_tags");
+        jdbcTemplate.execute("DELETE FROM comments");
+        jdbcTemplate.execute("DELETE FROM images");
+        jdbcTemplate.execute("DELETE FROM posts");
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') lines++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') lines++;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.custom.blog.perf;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulates slow storage: every borrowed connection is held for {@link #QUERY_DELAY_MS} before use,
+ * and every image request waits {@link #IMAGE_DELAY_MS} as if the file lived on a remote disk.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class SlowStorageConfiguration {
+    static final long QUERY_DELAY_MS = 5;
+    static final long IMAGE_DELAY_MS = 20;
+
+    @Bean
+    static BeanPostProcessor slowDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowDataSource)) {
+                    return new SlowDataSource(dataSource);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    OncePerRequestFilter slowImageFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return !request.getRequestURI().startsWith("/images/");
+            }
+
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+                pause(IMAGE_DELAY_MS);
+                chain.doFilter(request, response);
+            }
+        };
+    }
+
+    private static void pause(long millis) {
+        LockSupport.parkNanos(millis * 1_000_000);
+    }
+
+    private static class SlowDataSource extends DelegatingDataSource {
+        SlowDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            pause(QUERY_DELAY_MS);
+
+            return connection;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ru.custom.blog.perf;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.custom.blog.service.PostCounts;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.render.PostRenderer;
+import ru.custom.blog.repository.CachingPostRepository;
+import ru.custom.blog.repository.JdbcNativePostRepository;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires {@link #CONCURRENCY} simultaneous clients at the feed and at single images over real HTTP
+ * with {@link SlowStorageConfiguration} in place; subclasses pick the Tomcat thread model.
+ * Excluded from {@code test}; run with {@code ./gradlew perfTest}.
+ */
+abstract class ThreadModelLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(ThreadModelLoadTest.class);
+    private static final int POSTS = 200;
+    private static final int CONCURRENCY = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    @TempDir
+    static Path imageDir;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JdbcNativePostRepository postRepository;
+
+    @Autowired
+    private CachingPostRepository cachingPostRepository;
+
+    @Autowired
+    private PostCounts postCounts;
+
+    @Autowired
+    private PostRenderer postRenderer;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    private List<Long> ids;
+
+    protected abstract String mode();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        clean();
+
+        Path image = imageDir.resolve("load-test.jpg");
+        try (InputStream input = new ClassPathResource("images/test-image.jpg").getInputStream()) {
+            Files.copy(input, image, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        List<PostModel> posts = new ArrayList<>(POSTS);
+        for (int i = 0; i < POSTS; i++) {
+            PostModel post = new PostModel();
+            post.setTitle("title " + i);
+            post.setText("Load test post " + i);
+            post.setImagePath(image.toString());
+            post.setTags(List.of("load"));
+            posts.add(postRenderer.render(post));
+        }
+
+        ids = postRepository.saveAll(posts);
+        cachingPostRepository.invalidateAll();
+        postCounts.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clean();
+        httpClient.close();
+    }
+
+    @Test
+    void showPosts_underConcurrentLoad() throws Exception {
+        run("/posts", i -> "/posts?pageSize=10&pageNumber=" + (i % 10 + 1));
+    }
+
+    @Test
+    void getImage_underConcurrentLoad() throws Exception {
+        run("/images/{id}", i -> "/images/" + ids.get(i % ids.size()));
+    }
+
+    private void run(String label, IntFunction<String> paths) throws Exception {
+        long[] latencies = new long[CONCURRENCY * REQUESTS_PER_CLIENT];
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(CONCURRENCY);
+            for (int client = 0; client < CONCURRENCY; client++) {
+                int first = client * REQUESTS_PER_CLIENT;
+                futures.add(clients.submit(() -> {
+                    for (int i = first; i < first + REQUESTS_PER_CLIENT; i++) {
+                        latencies[i] = send(paths.apply(i), failures);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        Arrays.sort(latencies);
+        logger.info(String.format("[%s] %s: %d requests in %d ms, %d req/sec, p50 %d ms, p99 %d ms, %d failed",
+            mode(), label, latencies.length, elapsedMs, latencies.length * 1000L / elapsedMs,
+            percentile(latencies, 0.50), percentile(latencies, 0.99), failures.get()));
+
+        assertEquals(0, failures.get());
+    }
+
+    private long send(String path, AtomicInteger failures) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+
+        long start = System.nanoTime();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            failures.incrementAndGet();
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1_000_000;
+    }
+
+    private void clean() {
+        jdbcTemplate.execute("DELETE FROM post_tags");
+        jdbcTemplate.execute("DELETE FROM comments");
+        jdbcTemplate.execute("DELETE FROM images");
+        jdbcTemplate.execute("DELETE FROM posts");
+    }
+}
@@ -0,0 +1,17 @@
+package ru.custom.blog.perf;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "blog.cache.feed.max-bytes=0")
+@Import(SlowStorageConfiguration.class)
+@ActiveProfiles({"test", "virtual"})
+class VirtualThreadsLoadTest extends ThreadModelLoadTest {
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,123 @@
+package ru.custom.blog.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockReset;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.custom.blog.model.ImageModel;
+import ru.custom.blog.repository.CachingImageRepository;
+import ru.custom.blog.repository.JdbcNativeImageRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {CachingImageRepository.class, SimpleMeterRegistry.class})
+class CachingImageRepositoryTest {
+    @MockitoBean(reset = MockReset.BEFORE)
+    private JdbcNativeImageRepository delegate;
+
+    @Autowired
+    private CachingImageRepository cachingImageRepository;
+
+    private static final Long FIRST_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        cachingImageRepository.invalidateAll();
+    }
+
+    @Test
+    void findByPostId_shouldLoadOnce() {
+        // Проверка вызова метода
+        when(delegate.findByPostId(FIRST_ID)).thenReturn(Optional.of(createImage()));
+
+        // Выполнение метода
+        cachingImageRepository.findByPostId(FIRST_ID);
+        Optional<ImageModel> image = cachingImageRepository.findByPostId(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(1)).findByPostId(FIRST_ID);
+
+        assertEquals(Optional.of(createImage()), image);
+    }
+
+    @Test
+    void findByPostId_shouldNotCacheMissingRow() {
+        // Проверка вызова метода
+        when(delegate.findByPostId(FIRST_ID)).thenReturn(Optional.empty());
+
+        // Выполнение метода
+        cachingImageRepository.findByPostId(FIRST_ID);
+        cachingImageRepository.findByPostId(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(2)).findByPostId(FIRST_ID);
+    }
+
+    @Test
+    void save_shouldInvalidateRow() {
+        ImageModel image = createImage();
+
+        // Проверка вызова метода
+        when(delegate.findByPostId(FIRST_ID)).thenReturn(Optional.of(image));
+
+        // Выполнение метода
+        cachingImageRepository.findByPostId(FIRST_ID);
+        cachingImageRepository.save(image);
+        cachingImageRepository.findByPostId(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(1)).save(image);
+        verify(delegate, times(2)).findByPostId(FIRST_ID);
+    }
+
+    @Test
+    void saveAll_shouldInvalidateRows() {
+        ImageModel image = createImage();
+
+        // Проверка вызова метода
+        when(delegate.findByPostId(FIRST_ID)).thenReturn(Optional.of(image));
+
+        // Выполнение метода
+        cachingImageRepository.findByPostId(FIRST_ID);
+        cachingImageRepository.saveAll(List.of(image));
+        cachingImageRepository.findByPostId(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(2)).findByPostId(FIRST_ID);
+    }
+
+    @Test
+    void deleteByPostId_shouldInvalidateRow() {
+        // Проверка вызова метода
+        when(delegate.findByPostId(FIRST_ID)).thenReturn(Optional.of(createImage()));
+
+        // Выполнение метода
+        cachingImageRepository.findByPostId(FIRST_ID);
+        cachingImageRepository.deleteByPostId(FIRST_ID);
+        cachingImageRepository.findByPostId(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(1)).deleteByPostId(FIRST_ID);
+        verify(delegate, times(2)).findByPostId(FIRST_ID);
+    }
+
+    private ImageModel createImage() {
+        ImageModel image = new ImageModel();
+        image.setPostId(FIRST_ID);
+        image.setPath("/images/test.jpg");
+        image.setContentType("image/jpeg");
+        image.setByteSize(1024L);
+        image.setWidth(640);
+        image.setHeight(480);
+        image.setMtime(1_700_000_000_000L);
+
+        return image;
+    }
+}
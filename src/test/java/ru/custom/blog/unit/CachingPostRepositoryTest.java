@@ -0,0 +1,199 @@
+package ru.custom.blog.unit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockReset;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.repository.CachingPostRepository;
+import ru.custom.blog.repository.JdbcNativePostRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {CachingPostRepository.class, SimpleMeterRegistry.class})
+class CachingPostRepositoryTest {
+    @MockitoBean(reset = MockReset.BEFORE)
+    private JdbcNativePostRepository delegate;
+
+    @Autowired
+    private CachingPostRepository cachingPostRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final Long FIRST_ID = 1L;
+    private static final String IMAGE_PATH = "/images/test.jpg";
+
+    @BeforeEach
+    void setUp() {
+        cachingPostRepository.invalidateAll();
+    }
+
+    @Test
+    void findPostById_shouldLoadOnce() {
+        // Проверка вызова метода
+        when(delegate.findPostById(FIRST_ID)).thenReturn(Optional.of(createPost()));
+
+        // Выполнение метода
+        cachingPostRepository.findPostById(FIRST_ID);
+        Optional<PostModel> post = cachingPostRepository.findPostById(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(1)).findPostById(FIRST_ID);
+
+        assertTrue(post.isPresent());
+        assertEquals(createPost(), post.get());
+    }
+
+    @Test
+    void findPostById_shouldReturnIndependentCopies() {
+        // Проверка вызова метода
+        when(delegate.findPostById(FIRST_ID)).thenReturn(Optional.of(createPost()));
+
+        // Выполнение метода
+        cachingPostRepository.findPostById(FIRST_ID).orElseThrow().setLikesCount(100);
+        PostModel post = cachingPostRepository.findPostById(FIRST_ID).orElseThrow();
+
+        assertEquals(1, post.getLikesCount());
+    }
+
+    @Test
+    void findPostById_shouldNotCacheMissingPost() {
+        // Проверка вызова метода
+        when(delegate.findPostById(FIRST_ID)).thenReturn(Optional.empty());
+
+        // Выполнение метода
+        cachingPostRepository.findPostById(FIRST_ID);
+        cachingPostRepository.findPostById(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(2)).findPostById(FIRST_ID);
+    }
+
+    @Test
+    void existsById_shouldAnswerCachedPostWithoutQuery() {
+        // Проверка вызова метода
+        when(delegate.findPostById(FIRST_ID)).thenReturn(Optional.of(createPost()));
+
+        // Выполнение метода
+        cachingPostRepository.findPostById(FIRST_ID);
+
+        // Проверка вызовов
+        assertTrue(cachingPostRepository.existsById(FIRST_ID));
+        verify(delegate, never()).existsById(any());
+    }
+
+    @Test
+    void update_shouldInvalidatePostAndImage() {
+        PostModel post = createPost();
+
+        // Проверка вызова метода
+        when(delegate.findPostById(FIRST_ID)).thenReturn(Optional.of(post));
+        when(delegate.findImageById(FIRST_ID)).thenReturn(Optional.of(IMAGE_PATH));
+
+        // Выполнение метода
+        cachingPostRepository.findPostById(FIRST_ID);
+        cachingPostRepository.findImageById(FIRST_ID);
+        cachingPostRepository.update(post);
+        cachingPostRepository.findPostById(FIRST_ID);
+        cachingPostRepository.findImageById(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(1)).update(post);
+        verify(delegate, times(2)).findPostById(FIRST_ID);
+        verify(delegate, times(2)).findImageById(FIRST_ID);
+    }
+
+    @Test
+    void deleteById_shouldInvalidatePost() {
+        // Проверка вызова метода
+        when(delegate.findPostById(FIRST_ID)).thenReturn(Optional.of(createPost()));
+        when(delegate.deleteById(FIRST_ID)).thenReturn(true);
+
+        // Выполнение метода
+        cachingPostRepository.findPostById(FIRST_ID);
+        assertTrue(cachingPostRepository.deleteById(FIRST_ID));
+        cachingPostRepository.findPostById(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(2)).findPostById(FIRST_ID);
+    }
+
+    @Test
+    void applyLikesDeltas_shouldInvalidatePostButKeepImage() {
+        // Проверка вызова метода
+        when(delegate.findPostById(FIRST_ID)).thenReturn(Optional.of(createPost()));
+        when(delegate.findImageById(FIRST_ID)).thenReturn(Optional.of(IMAGE_PATH));
+
+        // Выполнение метода
+        cachingPostRepository.findPostById(FIRST_ID);
+        cachingPostRepository.findImageById(FIRST_ID);
+        cachingPostRepository.applyLikesDeltas(Map.of(FIRST_ID, 1L));
+        cachingPostRepository.findPostById(FIRST_ID);
+        cachingPostRepository.findImageById(FIRST_ID);
+
+        // Проверка вызовов
+        verify(delegate, times(2)).findPostById(FIRST_ID);
+        verify(delegate, times(1)).findImageById(FIRST_ID);
+    }
+
+    @Test
+    void applyLikesDeltas_shouldInvalidatePostAgainAfterCommit() {
+        // Проверка вызова метода
+        when(delegate.findPostById(FIRST_ID)).thenReturn(Optional.of(createPost()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Выполнение метода
+            cachingPostRepository.applyLikesDeltas(Map.of(FIRST_ID, 1L));
+            cachingPostRepository.findPostById(FIRST_ID);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            cachingPostRepository.findPostById(FIRST_ID);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Проверка вызовов
+        verify(delegate, times(2)).findPostById(FIRST_ID);
+    }
+
+    @Test
+    void findImageById_shouldExportStats() {
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", "post_images").tag("result", "hit")
+            .functionCounter().count();
+
+        // Проверка вызова метода
+        when(delegate.findImageById(FIRST_ID)).thenReturn(Optional.of(IMAGE_PATH));
+
+        // Выполнение метода
+        cachingPostRepository.findImageById(FIRST_ID);
+        Optional<String> image = cachingPostRepository.findImageById(FIRST_ID);
+
+        assertEquals(Optional.of(IMAGE_PATH), image);
+        assertEquals(hitsBefore + 1, meterRegistry.get("cache.gets").tag("cache", "post_images").tag("result", "hit")
+            .functionCounter().count());
+    }
+
+    private PostModel createPost() {
+        PostModel post = new PostModel();
+        post.setId(FIRST_ID);
+        post.setTitle("title");
+        post.setText("text");
+        post.setImagePath(IMAGE_PATH);
+        post.setLikesCount(1);
+        post.setTags(List.of("tag"));
+
+        return post;
+    }
+}
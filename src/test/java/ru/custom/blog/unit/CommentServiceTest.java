@@ -1,28 +1,50 @@
 package ru.custom.blog.unit;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockReset;
+import ru.custom.blog.cache.FeedCache;
 import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.pagination.CommentPage;
 import ru.custom.blog.repository.CommentRepository;
+import ru.custom.blog.search.PostSearchIndex;
 import ru.custom.blog.service.CommentService;
 
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 
-@SpringBootTest(classes = CommentService.class)
+@SpringBootTest(classes = CommentService.class, properties = "blog.comments.page-size=2")
 class CommentServiceTest {
     @MockitoBean(reset = MockReset.BEFORE)
     private CommentRepository commentRepository;
 
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PostSearchIndex postSearchIndex;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private FeedCache feedCache;
+
     @Autowired
     private CommentService commentService;
 
     private static final Long FIRST_ID = 1L;
 
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(postSearchIndex).write(any(), any());
+    }
+
     @Test
     void deleteAllPostComments_success() {
         // Проверка вызова метода
@@ -37,19 +59,25 @@ class CommentServiceTest {
 
     @Test
     void removeComment_success() {
+        CommentModel comment = new CommentModel(FIRST_ID, FIRST_ID, "removed");
+
         // Проверка вызова метода
+        when(commentRepository.findById(FIRST_ID)).thenReturn(Optional.of(comment));
         doNothing().when(commentRepository).deleteById(anyLong());
 
         // Выполнение метода
-        commentService.removeComment(FIRST_ID);
+        commentService.removeComment(FIRST_ID, FIRST_ID);
 
         // Проверка вызовов
         verify(commentRepository, times(1)).deleteById(anyLong());
+        verify(postSearchIndex, times(1)).removeComment(comment);
+        verify(commentRepository, never()).findByPostId(anyLong());
     }
 
     @Test
     void saveComment_success() {
         CommentModel comment = new CommentModel();
+        comment.setPostId(FIRST_ID);
 
         // Проверка вызова метода
         when(commentRepository.save(comment)).thenReturn(FIRST_ID);
@@ -59,13 +87,18 @@ class CommentServiceTest {
 
         // Проверка вызовов
         verify(commentRepository, times(1)).save(any(CommentModel.class));
+        verify(postSearchIndex, times(1)).addComment(comment);
+        verify(commentRepository, never()).findByPostId(anyLong());
+        verify(feedCache, times(1)).invalidate();
     }
 
     @Test
     void editComment_success() {
-        CommentModel comment = new CommentModel();
+        CommentModel previous = new CommentModel(FIRST_ID, FIRST_ID, "before");
+        CommentModel comment = new CommentModel(FIRST_ID, FIRST_ID, "after");
 
         // Проверка вызова метода
+        when(commentRepository.findById(FIRST_ID)).thenReturn(Optional.of(previous));
         doNothing().when(commentRepository).update(comment);
 
         // Выполнение метода
@@ -73,6 +106,8 @@ class CommentServiceTest {
 
         // Проверка вызовов
         verify(commentRepository, times(1)).update(any(CommentModel.class));
+        verify(postSearchIndex, times(1)).editComment(previous, comment);
+        verify(commentRepository, never()).findByPostId(anyLong());
     }
 
     @Test
@@ -86,4 +121,45 @@ class CommentServiceTest {
         // Проверка вызовов
         verify(commentRepository, times(1)).findByPostId(anyLong());
     }
+
+    @Test
+    void getPage_shouldPointToNextPageWhenMoreCommentsExist() {
+        List<CommentModel> fetched = List.of(
+            new CommentModel(1L, FIRST_ID, "first"),
+            new CommentModel(2L, FIRST_ID, "second"),
+            new CommentModel(3L, FIRST_ID, "third"));
+
+        // Проверка вызова метода
+        when(commentRepository.findByPostId(FIRST_ID, null, 3)).thenReturn(fetched);
+        when(commentRepository.countByPostId(FIRST_ID)).thenReturn(3);
+
+        // Выполнение метода
+        CommentPage page = commentService.getPage(FIRST_ID, null);
+
+        // Проверка вызовов
+        verify(commentRepository, times(1)).findByPostId(FIRST_ID, null, 3);
+        verify(commentRepository, never()).findByPostId(FIRST_ID);
+        assertEquals(fetched.subList(0, 2), page.getContent());
+        assertEquals(3, page.getTotalCount());
+        assertEquals(2L, page.getNextAfterId());
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    void getPage_shouldEndOnLastPage() {
+        List<CommentModel> fetched = List.of(new CommentModel(3L, FIRST_ID, "third"));
+
+        // Проверка вызова метода
+        when(commentRepository.findByPostId(FIRST_ID, 2L, 3)).thenReturn(fetched);
+        when(commentRepository.countByPostId(FIRST_ID)).thenReturn(3);
+
+        // Выполнение метода
+        CommentPage page = commentService.getPage(FIRST_ID, 2L);
+
+        // Проверка вызовов
+        verify(commentRepository, times(1)).findByPostId(FIRST_ID, 2L, 3);
+        assertEquals(fetched, page.getContent());
+        assertNull(page.getNextAfterId());
+        assertFalse(page.hasMore());
+    }
 }
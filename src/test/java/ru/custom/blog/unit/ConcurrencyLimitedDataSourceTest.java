@@ -0,0 +1,62 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.custom.blog.jdbc.ConcurrencyLimitedDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitedDataSourceTest {
+    private DataSource delegate;
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        delegate = mock(DataSource.class);
+        dataSource = new ConcurrencyLimitedDataSource(delegate, 2, 50);
+
+        // Проверка вызова метода
+        when(delegate.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    void getConnection_shouldHoldPermitUntilClose() throws SQLException {
+        // Выполнение метода
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.availablePermits());
+
+        connection.close();
+        connection.close();
+
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_shouldTimeOutWhenPermitsExhausted() throws SQLException {
+        // Выполнение метода
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+        // Проверка вызовов
+        verify(delegate, times(2)).getConnection();
+    }
+
+    @Test
+    void getConnection_shouldReleasePermitWhenDelegateFails() throws SQLException {
+        // Проверка вызова метода
+        when(delegate.getConnection()).thenThrow(new SQLException("pool closed"));
+
+        // Выполнение метода
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertEquals(2, dataSource.availablePermits());
+    }
+}
@@ -0,0 +1,71 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.custom.blog.storage.ImageBlobStore;
+import ru.custom.blog.storage.ImageTooLargeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageBlobStoreTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void put_shouldHashAcrossBufferBoundaries() throws IOException {
+        byte[] content = randomBytes(1000);
+        ImageBlobStore store = new ImageBlobStore(1000, 7);
+
+        Path stored = store.put(new ByteArrayInputStream(content), "photo.JPG", tempDir.toString());
+
+        assertEquals(sha256(content) + ".jpg", stored.getFileName().toString());
+        assertArrayEquals(content, Files.readAllBytes(stored));
+    }
+
+    @Test
+    void put_shouldRejectContentOverLimit() throws IOException {
+        ImageBlobStore store = new ImageBlobStore(999, 64);
+
+        ImageTooLargeException e = assertThrows(ImageTooLargeException.class,
+            () -> store.put(new ByteArrayInputStream(randomBytes(1000)), "photo.jpg", tempDir.toString()));
+
+        assertEquals(999, e.getMaxBytes());
+        try (Stream<Path> files = Files.walk(tempDir.resolve("images"))) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+    }
+
+    @Test
+    void contains_shouldAcceptOnlyPathsInsideImagesDir() {
+        String basePath = tempDir.toString();
+
+        assertTrue(ImageBlobStore.contains(basePath, tempDir.resolve("images/ab/cd/ab.jpg").toString()));
+        assertFalse(ImageBlobStore.contains(basePath, tempDir.resolve("images/../secret.txt").toString()));
+        assertFalse(ImageBlobStore.contains(basePath, "/etc/passwd"));
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
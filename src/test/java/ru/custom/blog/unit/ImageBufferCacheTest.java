@@ -0,0 +1,117 @@
+package ru.custom.blog.unit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import ru.custom.blog.cache.CachedImage;
+import ru.custom.blog.cache.ImageBufferCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageBufferCacheTest {
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    @TempDir
+    Path tempDir;
+
+    private MeterRegistry meterRegistry;
+    private ImageBufferCache imageBufferCache;
+    private Path image;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        imageBufferCache = new ImageBufferCache(meterRegistry, 1024, 16, 100);
+        image = Files.write(tempDir.resolve("image.jpg"), CONTENT);
+    }
+
+    @Test
+    void load_shouldKeepFileInDirectBuffer() throws IOException {
+        CachedImage loaded = admit(image);
+        Files.delete(image);
+
+        CachedImage cached = imageBufferCache.get(image).orElseThrow();
+
+        assertSame(loaded, cached);
+        assertTrue(cached.content().isDirect());
+        assertEquals(CONTENT.length, cached.contentLength());
+        assertEquals("image.jpg", cached.getFilename());
+        try (InputStream input = cached.getInputStream()) {
+            assertArrayEquals(CONTENT, input.readAllBytes());
+        }
+    }
+
+    @Test
+    void getInputStream_shouldGiveEachReaderItsOwnPosition() throws IOException {
+        CachedImage cached = admit(image);
+
+        try (InputStream first = cached.getInputStream(); InputStream second = cached.getInputStream()) {
+            assertEquals(4, first.skip(4));
+            assertEquals('4', first.read());
+            assertEquals('0', second.read());
+        }
+    }
+
+    @Test
+    void load_shouldSkipFilesAboveEntryLimit() throws IOException {
+        Path large = Files.write(tempDir.resolve("large.jpg"), new byte[17]);
+
+        imageBufferCache.load(large, MediaType.IMAGE_JPEG, "etag", 1000L);
+
+        assertEquals(Optional.empty(), imageBufferCache.load(large, MediaType.IMAGE_JPEG, "etag", 1000L));
+        assertEquals(Optional.empty(), imageBufferCache.get(large));
+    }
+
+    @Test
+    void load_shouldBufferOnlyRepeatedLoad() throws IOException {
+        assertEquals(Optional.empty(), imageBufferCache.load(image, MediaType.IMAGE_JPEG, "etag", 1000L));
+        assertEquals(Optional.empty(), imageBufferCache.get(image));
+        assertEquals(0, imageBufferCache.residentBytes());
+
+        assertTrue(imageBufferCache.load(image, MediaType.IMAGE_JPEG, "etag", 1000L).isPresent());
+        assertTrue(imageBufferCache.get(image).isPresent());
+    }
+
+    @Test
+    void load_shouldReportMissingFile() {
+        assertThrows(IOException.class, () -> imageBufferCache.load(tempDir.resolve("missing.jpg"), MediaType.IMAGE_JPEG,
+            "etag", 1000L));
+    }
+
+    @Test
+    void invalidate_shouldReleaseResidentBytes() throws IOException {
+        admit(image);
+        assertEquals(CONTENT.length, imageBufferCache.residentBytes());
+
+        imageBufferCache.invalidate(List.of(image));
+
+        assertEquals(0, imageBufferCache.residentBytes());
+        assertEquals(Optional.empty(), imageBufferCache.get(image));
+    }
+
+    @Test
+    void get_shouldReportHitRatioAndResidentBytes() throws IOException {
+        imageBufferCache.get(image);
+        admit(image);
+        imageBufferCache.get(image);
+
+        assertEquals(0.5, meterRegistry.get("image.buffers.hit.ratio").gauge().value());
+        assertEquals(CONTENT.length, meterRegistry.get("image.buffers.resident").gauge().value());
+    }
+
+    private CachedImage admit(Path path) throws IOException {
+        imageBufferCache.load(path, MediaType.IMAGE_JPEG, "etag", 1000L);
+
+        return imageBufferCache.load(path, MediaType.IMAGE_JPEG, "etag", 1000L).orElseThrow();
+    }
+}
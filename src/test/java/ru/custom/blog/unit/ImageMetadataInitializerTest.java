@@ -0,0 +1,37 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockReset;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.custom.blog.initializer.ImageMetadataInitializer;
+import ru.custom.blog.service.ImageService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = ImageMetadataInitializer.class, properties = "blog.images.backfill.batch-size=2")
+class ImageMetadataInitializerTest {
+    @MockitoBean(reset = MockReset.BEFORE)
+    private ImageService imageService;
+
+    @Autowired
+    private ImageMetadataInitializer imageMetadataInitializer;
+
+    @Test
+    void backfillMetadata_shouldRecordBatchesUntilNothingIsLeft() {
+        // Проверка вызова метода
+        when(imageService.backfillMetadata(2)).thenReturn(2).thenReturn(0);
+
+        // Выполнение метода
+        assertEquals(0, imageMetadataInitializer.backfillMetadata());
+        imageMetadataInitializer.startBackfill(null);
+        assertEquals(2, imageMetadataInitializer.backfillMetadata());
+        assertEquals(0, imageMetadataInitializer.backfillMetadata());
+        assertEquals(0, imageMetadataInitializer.backfillMetadata());
+
+        // Проверка вызовов
+        verify(imageService, times(2)).backfillMetadata(2);
+    }
+}
@@ -1,37 +1,65 @@
 package ru.custom.blog.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.core.io.Resource;
 import org.springframework.test.context.bean.override.mockito.MockReset;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.custom.blog.cache.CachedImage;
+import ru.custom.blog.cache.ImageBufferCache;
+import ru.custom.blog.model.ImageModel;
+import ru.custom.blog.repository.ImageRepository;
 import ru.custom.blog.repository.PostRepository;
 import ru.custom.blog.service.ImageService;
+import ru.custom.blog.storage.ImageBlobStore;
+import ru.custom.blog.storage.ImageVariants;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest(classes = ImageService.class)
+@SpringBootTest(classes = {ImageService.class, ImageBlobStore.class, ImageVariants.class, ImageBufferCache.class,
+    SimpleMeterRegistry.class}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
 class ImageServiceTest {
     @MockitoBean(reset = MockReset.BEFORE)
     private PostRepository postRepository;
 
+    @MockitoBean(reset = MockReset.BEFORE)
+    private ServletContext servletContext;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private ImageRepository imageRepository;
+
     @Autowired
     private ImageService imageService;
 
     private static final Long FIRST_ID = 1L;
+    private static final String CONTENT_HASH = HexFormat.of().formatHex(sha256("test image content"));
 
     private Path tempFile;
     private Path tempDir;
@@ -39,7 +67,10 @@ class ImageServiceTest {
     @BeforeEach
     void resetMocks() throws IOException {
         tempDir = Files.createTempDirectory("image-test-dir");
-        tempFile = Files.createTempFile("test", ".jpg");
+        tempFile = Files.createTempFile(Files.createDirectories(tempDir.resolve("images")), "test", ".jpg");
+
+        when(servletContext.getRealPath("")).thenReturn(tempDir.toString());
+        when(imageRepository.saveIfCurrent(any())).thenReturn(true);
     }
 
     @AfterEach
@@ -85,6 +116,245 @@ class ImageServiceTest {
         assertNotNull(response.getBody());
         assertEquals("inline; filename=\"test.jpg\"", response.getHeaders().getFirst("Content-Disposition"));
         assertEquals("image/jpeg", response.getHeaders().getContentType().toString());
+        assertNotNull(response.getHeaders().getETag());
+        assertEquals(Files.getLastModifiedTime(imageFile).toMillis() / 1000 * 1000, response.getHeaders().getLastModified());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getImage_shouldCacheLongOnlyForCurrentVersion() throws IOException {
+        Path imageFile = tempDir.resolve("test.jpg");
+        Files.write(imageFile, "test content".getBytes());
+        String version = HexFormat.of().formatHex(sha256("test content"));
+
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(imageFile.toString()));
+
+        ResponseEntity<Resource> current = imageService.getImage(FIRST_ID, null, version, null);
+        ResponseEntity<Resource> stale = imageService.getImage(FIRST_ID, null, CONTENT_HASH, null);
+
+        assertEquals("max-age=604800, public", current.getHeaders().getCacheControl());
+        assertEquals("no-cache", stale.getHeaders().getCacheControl());
+        assertEquals(current.getHeaders().getETag(), stale.getHeaders().getETag());
+    }
+
+    @Test
+    void getImage_shouldAnswerFromRecordedMetadata() throws IOException {
+        Path imageFile = tempDir.resolve("test.png");
+        Files.write(imageFile, "test content".getBytes());
+
+        ImageModel image = new ImageModel();
+        image.setPostId(FIRST_ID);
+        image.setPath(imageFile.toString());
+        image.setContentType("image/png");
+        image.setByteSize(12);
+        image.setHash(CONTENT_HASH);
+        image.setMtime(1_700_000_000_000L);
+
+        // Проверка вызова метода
+        when(imageRepository.findByPostId(FIRST_ID)).thenReturn(Optional.of(image));
+
+        // Выполнение метода
+        ResponseEntity<Resource> response = imageService.getImage(FIRST_ID);
+
+        // Проверка вызовов
+        verify(postRepository, never()).findImageById(any());
+        verify(imageRepository, never()).save(any());
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("image/png", response.getHeaders().getContentType().toString());
+        assertEquals("\"" + CONTENT_HASH + "\"", response.getHeaders().getETag());
+        assertEquals(1_700_000_000_000L, response.getHeaders().getLastModified());
+    }
+
+    @Test
+    void getImage_shouldRecordMetadataOnFirstRequest() throws IOException {
+        Path imageFile = tempDir.resolve("test.jpg");
+        Files.write(imageFile, "test content".getBytes());
+
+        // Проверка вызова метода
+        when(imageRepository.findByPostId(FIRST_ID)).thenReturn(Optional.empty());
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(imageFile.toString()));
+
+        // Выполнение метода
+        imageService.getImage(FIRST_ID);
+
+        // Проверка вызовов
+        ArgumentCaptor<ImageModel> captor = ArgumentCaptor.forClass(ImageModel.class);
+        verify(imageRepository, times(1)).saveIfCurrent(captor.capture());
+        verify(imageRepository, never()).save(any());
+
+        assertEquals(FIRST_ID, captor.getValue().getPostId());
+        assertEquals(imageFile.toString(), captor.getValue().getPath());
+        assertEquals(12, captor.getValue().getByteSize());
+    }
+
+    @Test
+    void getImage_shouldServeStoredRowWhenLazyRecordLosesRace() throws IOException {
+        Path imageFile = tempDir.resolve("old.jpg");
+        Files.write(imageFile, "old content".getBytes());
+        Path editedFile = tempDir.resolve("edited.jpg");
+        Files.write(editedFile, "edited content".getBytes());
+
+        ImageModel edited = new ImageModel();
+        edited.setPostId(FIRST_ID);
+        edited.setPath(editedFile.toString());
+        edited.setContentType("image/jpeg");
+        edited.setByteSize(14);
+        edited.setMtime(1_700_000_000_000L);
+
+        // Проверка вызова метода
+        when(imageRepository.findByPostId(FIRST_ID)).thenReturn(Optional.empty()).thenReturn(Optional.of(edited));
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(imageFile.toString()));
+        when(imageRepository.saveIfCurrent(any())).thenReturn(false);
+
+        // Выполнение метода
+        ResponseEntity<Resource> response = imageService.getImage(FIRST_ID);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("inline; filename=\"edited.jpg\"", response.getHeaders().getFirst("Content-Disposition"));
+    }
+
+    @Test
+    void recordImage_shouldReadDimensionsAndHash() throws IOException {
+        Path imageFile = tempDir.resolve("picture.png");
+        ImageIO.write(new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB), "png", imageFile.toFile());
+
+        // Выполнение метода
+        ImageModel image = imageService.recordImage(FIRST_ID, imageFile.toString());
+
+        // Проверка вызовов
+        verify(imageRepository, times(1)).save(image);
+
+        assertEquals("image/png", image.getContentType());
+        assertEquals(40, image.getWidth());
+        assertEquals(20, image.getHeight());
+        assertEquals(Files.size(imageFile), image.getByteSize());
+        assertEquals(Files.getLastModifiedTime(imageFile).toMillis(), image.getMtime());
+        assertEquals(HexFormat.of().formatHex(sha256(Files.readAllBytes(imageFile))), image.getHash());
+    }
+
+    @Test
+    void recordImage_shouldKeepRowForMissingFile() {
+        // Выполнение метода
+        ImageModel image = imageService.recordImage(FIRST_ID, tempDir.resolve("missing.jpg").toString());
+
+        assertEquals("image/jpeg", image.getContentType());
+        assertNull(image.getWidth());
+        assertNull(image.getHash());
+    }
+
+    @Test
+    void backfillMetadata_shouldRecordOneBatch() {
+        // Проверка вызова метода
+        when(imageRepository.findUnrecordedImages(500)).thenReturn(Map.of(FIRST_ID, tempFile.toString()));
+
+        // Выполнение метода
+        int recorded = imageService.backfillMetadata(500);
+
+        // Проверка вызовов
+        verify(imageRepository, times(1)).findUnrecordedImages(500);
+        verify(imageRepository, times(1)).saveAll(argThat((List<ImageModel> images) -> images.size() == 1));
+
+        assertEquals(1, recorded);
+    }
+
+    @Test
+    void getImage_shouldServeRepeatedRequestFromBuffer() throws IOException {
+        Path imageFile = tempDir.resolve("test.jpg");
+        Files.write(imageFile, "test content".getBytes());
+
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(imageFile.toString()));
+
+        ResponseEntity<Resource> first = imageService.getImage(FIRST_ID);
+        ResponseEntity<Resource> second = imageService.getImage(FIRST_ID);
+        Files.delete(imageFile);
+        ResponseEntity<Resource> third = imageService.getImage(FIRST_ID);
+
+        assertFalse(first.getBody() instanceof CachedImage);
+        assertInstanceOf(CachedImage.class, second.getBody());
+        assertSame(second.getBody(), third.getBody());
+        assertEquals(first.getHeaders().getETag(), third.getHeaders().getETag());
+        assertEquals("image/jpeg", third.getHeaders().getContentType().toString());
+    }
+
+    @Test
+    void getImage_shouldAnswerNotModifiedWithoutReadingFile() {
+        ImageModel image = new ImageModel();
+        image.setPostId(FIRST_ID);
+        image.setPath(tempDir.resolve("missing.jpg").toString());
+        image.setContentType("image/jpeg");
+        image.setByteSize(12);
+        image.setHash(CONTENT_HASH);
+        image.setMtime(1_700_000_000_000L);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/" + FIRST_ID);
+        request.addHeader("If-None-Match", "\"" + CONTENT_HASH + "\"");
+
+        // Проверка вызова метода
+        when(imageRepository.findByPostId(FIRST_ID)).thenReturn(Optional.of(image));
+
+        // Выполнение метода
+        ResponseEntity<Resource> response = imageService.getImage(FIRST_ID, null, null, request);
+
+        assertEquals(304, response.getStatusCode().value());
+        assertEquals("\"" + CONTENT_HASH + "\"", response.getHeaders().getETag());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void removeImage_shouldDropBufferedCopy() throws IOException {
+        Path imageFile = tempDir.resolve("images").resolve("test.jpg");
+        Files.write(imageFile, "test content".getBytes());
+
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(imageFile.toString()));
+
+        imageService.getImage(FIRST_ID);
+        imageService.getImage(FIRST_ID);
+        imageService.removeImage(imageFile.toString());
+
+        assertEquals(404, imageService.getImage(FIRST_ID).getStatusCode().value());
+    }
+
+    @Test
+    void getImage_shouldUseContentHashAsETag() throws IOException {
+        String savedPath = imageService.saveImage(
+            new MockMultipartFile("file", "test.jpg", "image/jpeg", "test image content".getBytes()), tempDir.toString());
+
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(savedPath));
+
+        ResponseEntity<Resource> response = imageService.getImage(FIRST_ID);
+
+        assertEquals("\"" + CONTENT_HASH + "\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void getImage_shouldServeReadyVariant() throws IOException {
+        Path imageFile = tempDir.resolve("test.jpg");
+        Files.write(imageFile, "test content".getBytes());
+        Files.write(ImageVariants.variantPath(imageFile, 300), "small".getBytes());
+
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(imageFile.toString()));
+
+        ResponseEntity<Resource> response = imageService.getImage(FIRST_ID, 300, HexFormat.of().formatHex(sha256("test content")));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("inline; filename=\"test-300.jpg\"", response.getHeaders().getFirst("Content-Disposition"));
+        assertEquals("max-age=604800, public", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getImage_shouldFallBackToOriginalUntilVariantIsReady() throws IOException {
+        Path imageFile = tempDir.resolve("test.jpg");
+        Files.write(imageFile, "test content".getBytes());
+
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(imageFile.toString()));
+
+        ResponseEntity<Resource> response = imageService.getImage(FIRST_ID, 300);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("inline; filename=\"test.jpg\"", response.getHeaders().getFirst("Content-Disposition"));
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
     }
 
     @Test
@@ -101,10 +371,80 @@ class ImageServiceTest {
 
         File savedFile = new File(savedPath);
         assertTrue(savedFile.exists());
-        assertEquals("test.jpg", savedFile.getName());
+        assertEquals(CONTENT_HASH + ".jpg", savedFile.getName());
+        assertEquals(tempDir.resolve("images").resolve(CONTENT_HASH.substring(0, 2)).resolve(CONTENT_HASH.substring(2, 4))
+            .resolve(savedFile.getName()), savedFile.toPath());
         assertEquals(content.length, Files.readAllBytes(savedFile.toPath()).length);
     }
 
+    @Test
+    void saveImage_shouldStoreIdenticalContentOnce() throws IOException {
+        byte[] content = "test image content".getBytes();
+
+        String first = imageService.saveImage(new MockMultipartFile("file", "photo.jpg", "image/jpeg", content),
+            tempDir.toString());
+        String second = imageService.saveImage(new MockMultipartFile("file", "other.JPG", "image/jpeg", content),
+            tempDir.toString());
+        String changed = imageService.saveImage(new MockMultipartFile("file", "photo.jpg", "image/jpeg", "other".getBytes()),
+            tempDir.toString());
+
+        assertEquals(first, second);
+        assertNotEquals(first, changed);
+        try (var files = Files.list(tempDir.resolve("images").resolve(".tmp"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void releaseImage_shouldKeepSharedImage() {
+        // Проверка вызова метода
+        when(postRepository.countByImagePath(tempFile.toString())).thenReturn(1L);
+
+        // Выполнение метода
+        imageService.releaseImage(tempFile.toString());
+
+        assertTrue(Files.exists(tempFile));
+    }
+
+    @Test
+    void releaseImage_shouldRemoveUnreferencedImage() throws IOException {
+        Files.setLastModifiedTime(tempFile, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+
+        // Проверка вызова метода
+        when(postRepository.countByImagePath(tempFile.toString())).thenReturn(0L);
+
+        // Выполнение метода
+        imageService.releaseImage(tempFile.toString());
+
+        assertFalse(Files.exists(tempFile));
+    }
+
+    @Test
+    void releaseImage_shouldKeepImageStoredAgainWithinGracePeriod() throws IOException {
+        String savedPath = imageService.saveImage(
+            new MockMultipartFile("file", "test.jpg", "image/jpeg", "test image content".getBytes()), tempDir.toString());
+        Files.setLastModifiedTime(Path.of(savedPath), FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+        imageService.saveImage(
+            new MockMultipartFile("file", "again.jpg", "image/jpeg", "test image content".getBytes()), tempDir.toString());
+
+        // Проверка вызова метода
+        when(postRepository.countByImagePath(savedPath)).thenReturn(0L);
+
+        // Выполнение метода
+        imageService.releaseImage(savedPath);
+
+        assertTrue(Files.exists(Path.of(savedPath)));
+    }
+
+    @Test
+    void removeImage_shouldRefusePathOutsideStore() throws IOException {
+        Path outside = Files.write(tempDir.resolve("outside.jpg"), "test content".getBytes());
+
+        assertFalse(imageService.removeImage(outside.toString()));
+        assertFalse(imageService.removeImage(tempDir.resolve("images/../outside.jpg").toString()));
+        assertTrue(Files.exists(outside));
+    }
+
     @Test
     void saveImage_shouldNotThrowExceptionIfWriteFails() {
         MockMultipartFile badFile = new MockMultipartFile(
@@ -138,4 +478,16 @@ class ImageServiceTest {
 
         assertDoesNotThrow(() -> imageService.removeImage(tempFile.toString()));
     }
+
+    private static byte[] sha256(String content) {
+        return sha256(content.getBytes());
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.custom.blog.storage.ImageVariants;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageVariantsTest {
+    @TempDir
+    Path tempDir;
+
+    private ImageVariants imageVariants;
+    private Path original;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageVariants = new ImageVariants(List.of(800, 300), 1, 4, 100, 10);
+
+        original = tempDir.resolve("original.png");
+        ImageIO.write(new BufferedImage(1200, 600, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageVariants.shutdown();
+    }
+
+    @Test
+    void generate_shouldWriteDownscaledJpegs() throws IOException {
+        imageVariants.generate(original.toString()).join();
+
+        BufferedImage small = ImageIO.read(tempDir.resolve("original-300.jpg").toFile());
+        BufferedImage large = ImageIO.read(tempDir.resolve("original-800.jpg").toFile());
+
+        assertEquals(600, small.getWidth());
+        assertEquals(300, small.getHeight());
+        assertEquals(600, large.getHeight(), "variants are never upscaled");
+    }
+
+    @Test
+    void isVariant_shouldMatchConfiguredSizesOnly() {
+        assertTrue(imageVariants.isVariant(tempDir.resolve("original-300.jpg")));
+        assertTrue(imageVariants.isVariant(tempDir.resolve("original-800.jpg")));
+        assertFalse(imageVariants.isVariant(tempDir.resolve("original-500.jpg")));
+        assertFalse(imageVariants.isVariant(tempDir.resolve("original-300.png")));
+        assertFalse(imageVariants.isVariant(original));
+    }
+
+    @Test
+    void generate_shouldShareInFlightJob() {
+        assertSame(imageVariants.generate(original.toString()), imageVariants.generate(original.toString()));
+    }
+
+    @Test
+    void find_shouldPickSmallestVariantThatFits() {
+        imageVariants.generate(original.toString()).join();
+
+        assertEquals(Optional.of(tempDir.resolve("original-300.jpg")), imageVariants.find(original.toString(), 200));
+        assertEquals(Optional.of(tempDir.resolve("original-800.jpg")), imageVariants.find(original.toString(), 301));
+        assertEquals(Optional.empty(), imageVariants.find(original.toString(), 1000));
+    }
+
+    @Test
+    void find_shouldScheduleMissingVariant() {
+        assertEquals(Optional.empty(), imageVariants.find(original.toString(), 300));
+
+        imageVariants.generate(original.toString()).join();
+
+        assertTrue(Files.exists(tempDir.resolve("original-300.jpg")));
+    }
+
+    @Test
+    void delete_shouldRemoveVariantsOnly() {
+        imageVariants.generate(original.toString()).join();
+
+        imageVariants.delete(original.toString());
+
+        assertTrue(Files.exists(original));
+        assertFalse(Files.exists(tempDir.resolve("original-300.jpg")));
+        assertFalse(Files.exists(tempDir.resolve("original-800.jpg")));
+    }
+
+    @Test
+    void generate_shouldSkipUndecodableFile() throws IOException {
+        Path broken = Files.writeString(tempDir.resolve("broken.png"), "not an image");
+
+        imageVariants.generate(broken.toString()).join();
+
+        assertFalse(Files.exists(tempDir.resolve("broken-300.jpg")));
+    }
+
+    @Test
+    void find_shouldNotRetryUndecodableOriginal() throws IOException {
+        Path broken = Files.writeString(tempDir.resolve("broken.png"), "not an image");
+        imageVariants.generate(broken.toString()).join();
+        ImageIO.write(new BufferedImage(600, 600, BufferedImage.TYPE_INT_RGB), "png", broken.toFile());
+
+        assertEquals(Optional.empty(), imageVariants.find(broken.toString(), 300));
+        imageVariants.generate(original.toString()).join();
+
+        assertFalse(Files.exists(tempDir.resolve("broken-300.jpg")));
+    }
+
+    @Test
+    void find_shouldNotScheduleMissingOriginal() throws IOException {
+        Path missing = tempDir.resolve("missing.png");
+
+        assertEquals(Optional.empty(), imageVariants.find(missing.toString(), 300));
+        ImageIO.write(new BufferedImage(600, 600, BufferedImage.TYPE_INT_RGB), "png", missing.toFile());
+        assertEquals(Optional.empty(), imageVariants.find(missing.toString(), 300));
+        imageVariants.generate(original.toString()).join();
+
+        assertFalse(Files.exists(tempDir.resolve("missing-300.jpg")));
+    }
+}
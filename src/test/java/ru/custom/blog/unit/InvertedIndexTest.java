@@ -0,0 +1,160 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.custom.blog.search.InvertedIndex;
+import ru.custom.blog.search.SearchHits;
+import ru.custom.blog.search.SearchQuery;
+import ru.custom.blog.search.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    @Test
+    void tokenize_shouldSplitAndLowercase() {
+        assertEquals(List.of("spring", "и", "jdbc", "2025"), Tokenizer.tokenize("Spring и JDBC, 2025!"));
+        assertTrue(Tokenizer.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void parse_shouldSeparateTagsFromWords() {
+        SearchQuery query = SearchQuery.parse("Spring  #java #");
+
+        assertEquals(List.of("java"), query.getTags());
+        assertEquals(List.of("spring", "#java"), query.terms());
+        assertFalse(query.isSingleTag());
+        assertTrue(SearchQuery.parse("#java").isSingleTag());
+    }
+
+    @Test
+    void search_shouldRequireAllTerms() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1L, List.of("spring", "jdbc"));
+        index.index(2L, List.of("spring", "jpa"));
+
+        SearchHits hits = index.search(List.of("spring", "jdbc"), 0, 10);
+
+        assertEquals(List.of(1L), hits.getPostIds());
+        assertEquals(1, hits.getTotal());
+        assertTrue(index.search(List.of("spring", "missing"), 0, 10).getPostIds().isEmpty());
+    }
+
+    @Test
+    void search_shouldRankByTermFrequency() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1L, List.of("spring", "boot", "blog", "post"));
+        index.index(2L, List.of("spring", "spring", "spring", "post"));
+        index.index(3L, List.of("other", "post"));
+
+        SearchHits hits = index.search(List.of("spring"), 0, 10);
+
+        assertEquals(List.of(2L, 1L), hits.getPostIds());
+    }
+
+    @Test
+    void search_shouldPageResults() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 25; id++) {
+            index.index(id, List.of("common"));
+        }
+
+        SearchHits hits = index.search(List.of("common"), 20, 10);
+
+        assertEquals(25, hits.getTotal());
+        assertEquals(5, hits.getPostIds().size());
+    }
+
+    @Test
+    void index_shouldReplacePreviousDocument() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1L, List.of("before"));
+        index.index(1L, List.of("after"));
+
+        assertTrue(index.search(List.of("before"), 0, 10).getPostIds().isEmpty());
+        assertEquals(List.of(1L), index.search(List.of("after"), 0, 10).getPostIds());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void update_shouldApplyTermDelta() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1L, List.of("spring", "jdbc", "jdbc"));
+        index.index(2L, List.of("spring", "jdbc"));
+
+        index.update(1L, List.of("comment"), List.of("jdbc", "spring"));
+        index.update(3L, List.of("missing"), List.of());
+
+        assertEquals(List.of(1L), index.search(List.of("comment", "jdbc"), 0, 10).getPostIds());
+        assertEquals(List.of(2L), index.search(List.of("spring"), 0, 10).getPostIds());
+        assertTrue(index.search(List.of("missing"), 0, 10).getPostIds().isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void update_shouldCompactRepeatedlyUpdatedDocument() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1L, List.of("post"));
+
+        for (int i = 0; i < 5000; i++) {
+            index.update(1L, List.of("comment" + i), List.of());
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            index.update(1L, List.of(), List.of("comment" + i));
+        }
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), index.search(List.of("post", "comment4999"), 0, 10).getPostIds());
+        assertTrue(index.search(List.of("comment4998"), 0, 10).getPostIds().isEmpty());
+    }
+
+    @Test
+    void remove_shouldHideDocument() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1L, List.of("spring"));
+        index.index(2L, List.of("spring"));
+
+        index.remove(1L);
+
+        SearchHits hits = index.search(List.of("spring"), 0, 10);
+        assertEquals(List.of(2L), hits.getPostIds());
+        assertEquals(1, hits.getTotal());
+    }
+
+    @Test
+    void search_shouldIntersectLongPostingLists() {
+        InvertedIndex index = new InvertedIndex();
+        List<Long> expected = new ArrayList<>();
+
+        for (long id = 0; id < 10_000; id++) {
+            List<String> terms = new ArrayList<>(List.of("every"));
+            if (id % 7 == 0) terms.add("seventh");
+            if (id % 1000 == 3) terms.add("rare");
+            if (id % 7 == 0 && id % 1000 == 3) expected.add(id);
+
+            index.index(id, terms);
+        }
+
+        SearchHits hits = index.search(List.of("every", "seventh", "rare"), 0, 100);
+
+        assertEquals(expected.size(), hits.getTotal());
+        assertEquals(expected, hits.getPostIds().stream().sorted().toList());
+    }
+
+    @Test
+    void index_shouldKeepResultsAfterCompaction() {
+        InvertedIndex index = new InvertedIndex();
+
+        for (int round = 0; round < 5; round++) {
+            for (long id = 0; id < 1000; id++) {
+                index.index(id, List.of("round" + round, id % 2 == 0 ? "even" : "odd"));
+            }
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(500, index.search(List.of("round4", "even"), 0, 10).getTotal());
+        assertEquals(0, index.search(List.of("round3"), 0, 10).getTotal());
+    }
+}
@@ -0,0 +1,270 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockReset;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.custom.blog.cache.FeedCache;
+import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.service.LikeAggregator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = LikeAggregator.class)
+class LikeAggregatorTest {
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PostRepository postRepository;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private FeedCache feedCache;
+
+    @Autowired
+    private LikeAggregator likeAggregator;
+
+    private static final Long FIRST_ID = 1L;
+    private static final Long SECOND_ID = 2L;
+
+    @Test
+    void flush_shouldWriteDeltasInOneBatch() {
+        likeAggregator.add(FIRST_ID, 1);
+        likeAggregator.add(FIRST_ID, 1);
+        likeAggregator.add(SECOND_ID, -1);
+
+        // Выполнение метода
+        likeAggregator.flush();
+
+        // Проверка вызовов
+        verify(postRepository, times(1)).applyLikesDeltas(Map.of(FIRST_ID, 2L, SECOND_ID, -1L));
+        verify(feedCache, times(1)).invalidate();
+        assertEquals(0, likeAggregator.pendingDelta(FIRST_ID));
+        assertEquals(0, likeAggregator.pendingDelta(SECOND_ID));
+    }
+
+    @Test
+    void flush_shouldSkipEmptyBatch() {
+        likeAggregator.add(FIRST_ID, 1);
+        likeAggregator.add(FIRST_ID, -1);
+
+        // Выполнение метода
+        likeAggregator.flush();
+
+        // Проверка вызовов
+        verify(postRepository, never()).applyLikesDeltas(anyMap());
+        verifyNoInteractions(feedCache);
+    }
+
+    @Test
+    void flush_shouldKeepDeltasWhenWriteFails() {
+        likeAggregator.add(FIRST_ID, 3);
+
+        // Проверка вызова метода
+        doThrow(new RuntimeException("db is down")).when(postRepository).applyLikesDeltas(anyMap());
+
+        // Выполнение метода
+        likeAggregator.flush();
+
+        // Проверка вызовов
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(feedCache);
+        assertEquals(3, likeAggregator.pendingDelta(FIRST_ID));
+
+        likeAggregator.discard(FIRST_ID);
+    }
+
+    @Test
+    void pendingDelta_shouldIncludeBatchBeingWritten() {
+        likeAggregator.add(FIRST_ID, 2);
+
+        // Проверка вызова метода
+        doAnswer(invocation -> {
+            assertEquals(2, likeAggregator.pendingDelta(FIRST_ID));
+            return null;
+        }).when(postRepository).applyLikesDeltas(anyMap());
+
+        // Выполнение метода
+        likeAggregator.flush();
+
+        assertEquals(0, likeAggregator.pendingDelta(FIRST_ID));
+    }
+
+    @Test
+    void flush_shouldRemoveDrainedPosts() {
+        likeAggregator.add(FIRST_ID, 1);
+        likeAggregator.add(SECOND_ID, 1);
+        likeAggregator.add(SECOND_ID, -1);
+
+        assertEquals(1, likeAggregator.pendingPosts());
+
+        // Выполнение метода
+        likeAggregator.flush();
+
+        assertEquals(0, likeAggregator.pendingPosts());
+    }
+
+    @Test
+    void flush_shouldKeepDeltasWhenCommitFails() {
+        likeAggregator.add(FIRST_ID, 2);
+
+        // Проверка вызова метода
+        doThrow(new RuntimeException("commit failed")).when(transactionManager).commit(any());
+
+        // Выполнение метода
+        likeAggregator.flush();
+
+        // Проверка вызовов
+        verifyNoInteractions(feedCache);
+        assertEquals(2, likeAggregator.pendingDelta(FIRST_ID));
+
+        likeAggregator.discard(FIRST_ID);
+    }
+
+    @Test
+    void read_shouldNotWaitForBatchUpdate() throws Exception {
+        likeAggregator.add(FIRST_ID, 1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Проверка вызова метода
+        doAnswer(invocation -> {
+            writing.countDown();
+            await(release);
+            return null;
+        }).when(postRepository).applyLikesDeltas(anyMap());
+
+        try {
+            // Выполнение метода
+            Future<?> flush = executor.submit(() -> likeAggregator.flush());
+            writing.await(5, TimeUnit.SECONDS);
+
+            Future<Long> read = executor.submit(() -> likeAggregator.read(() -> likeAggregator.pendingDelta(FIRST_ID)));
+
+            assertEquals(1L, read.get(5, TimeUnit.SECONDS));
+
+            release.countDown();
+            flush.get(5, TimeUnit.SECONDS);
+
+            // Проверка вызовов
+            verify(transactionManager, times(1)).commit(any());
+            assertEquals(0, likeAggregator.pendingDelta(FIRST_ID));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void flush_shouldWaitForRunningReadBeforeCommit() throws Exception {
+        likeAggregator.add(FIRST_ID, 1);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Long> read = executor.submit(() -> likeAggregator.read(() -> {
+                reading.countDown();
+                await(release);
+                return likeAggregator.pendingDelta(FIRST_ID);
+            }));
+            reading.await(5, TimeUnit.SECONDS);
+
+            // Выполнение метода
+            Future<?> flush = executor.submit(() -> likeAggregator.flush());
+
+            // Проверка вызовов
+            verify(postRepository, timeout(5000)).applyLikesDeltas(Map.of(FIRST_ID, 1L));
+            verify(transactionManager, after(200).never()).commit(any());
+
+            release.countDown();
+            flush.get(5, TimeUnit.SECONDS);
+
+            assertEquals(1L, read.get(5, TimeUnit.SECONDS));
+            verify(transactionManager, times(1)).commit(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void add_shouldNotLoseIncrementsUnderConcurrentFlushes() throws Exception {
+        int threads = 8;
+        int clicksPerThread = 50_000;
+        Map<Long, Long> written = new ConcurrentHashMap<>();
+
+        // Проверка вызова метода
+        doAnswer(invocation -> {
+            Map<Long, Long> deltas = invocation.getArgument(0);
+            deltas.forEach((postId, delta) -> written.merge(postId, delta, Long::sum));
+            return null;
+        }).when(postRepository).applyLikesDeltas(anyMap());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean clicking = new AtomicBoolean(true);
+
+        try {
+            List<Future<?>> clickers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                clickers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < clicksPerThread; j++) {
+                        likeAggregator.add(FIRST_ID, 1);
+                        likeAggregator.add(SECOND_ID, j % 2 == 0 ? 1 : -1);
+                    }
+                    return null;
+                }));
+            }
+
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                while (clicking.get()) {
+                    likeAggregator.flush();
+                }
+                return null;
+            });
+
+            // Выполнение метода
+            start.countDown();
+            for (Future<?> clicker : clickers) {
+                clicker.get(30, TimeUnit.SECONDS);
+            }
+            clicking.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        likeAggregator.flush();
+
+        assertEquals((long) threads * clicksPerThread, written.getOrDefault(FIRST_ID, 0L));
+        assertEquals(0L, written.getOrDefault(SECOND_ID, 0L));
+        assertEquals(0, likeAggregator.pendingDelta(FIRST_ID));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
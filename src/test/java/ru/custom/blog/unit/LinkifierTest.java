@@ -0,0 +1,95 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.render.Linkifier;
+import ru.custom.blog.render.PostRenderer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkifierTest {
+
+    @Test
+    void toHtml_shouldWrapLinks() {
+        assertEquals(
+            "see <a href=\"https://example.com/a?b=1\" target=\"_blank\">https://example.com/a?b=1</a> now",
+            Linkifier.toHtml("see https://example.com/a?b=1 now")
+        );
+        assertEquals("http:// and https", Linkifier.toHtml("http:// and https"));
+    }
+
+    @Test
+    void toHtml_shouldEscapeMarkup() {
+        assertEquals("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp;", Linkifier.toHtml("<script>alert('x')</script> &"));
+        assertEquals(
+            "<a href=\"http://a.ru/?x=1&amp;y=2\" target=\"_blank\">http://a.ru/?x=1&amp;y=2</a>&quot;",
+            Linkifier.toHtml("http://a.ru/?x=1&y=2\"")
+        );
+    }
+
+    @Test
+    void preview_shouldTruncateOnVisibleCharacters() {
+        String text = "abc https://example.com/long/path tail";
+
+        assertEquals(
+            "abc <a href=\"https://example.com/long/path\" target=\"_blank\">https://e</a>...",
+            Linkifier.preview(text, 13, 4000)
+        );
+        assertEquals("a&amp;b...", Linkifier.preview("a&bcdef", 3, 4000));
+        assertEquals("short", Linkifier.preview("short", 350, 4000));
+    }
+
+    @Test
+    void preview_shouldKeepLongLinkWithinMaxLength() {
+        String url = "https://example.com/track?id=" + "x".repeat(5000);
+        String text = "see " + url + " and https://a.ru";
+
+        String preview = Linkifier.preview(text, 350, 4000);
+
+        assertTrue(preview.length() <= 4000);
+        assertTrue(preview.startsWith("see https://example.com/track?id=xxx"));
+        assertFalse(preview.contains("<a href=\"" + url));
+        assertTrue(preview.endsWith("..."));
+    }
+
+    @Test
+    void preview_shouldLinkWhileAddressFits() {
+        String text = "a https://a.ru b https://" + "y".repeat(100);
+
+        assertEquals(
+            "a <a href=\"https://a.ru\" target=\"_blank\">https://a.ru</a> b https://yyy...",
+            Linkifier.preview(text, 28, 200)
+        );
+    }
+
+    @Test
+    void lines_shouldSplitLikeLineBreakRegex() {
+        String text = "first\r\nsecond\nthird https://a.ru\r\n\n";
+
+        assertEquals(List.of(text.split("\\R", -1)).size(), Linkifier.lines(text).size());
+        assertEquals(
+            List.of("first", "second", "third <a href=\"https://a.ru\" target=\"_blank\">https://a.ru</a>", "", ""),
+            Linkifier.lines(text)
+        );
+        assertEquals(List.of(""), Linkifier.lines(""));
+    }
+
+    @Test
+    void body_shouldJoinLinesWithBreaks() {
+        assertEquals("a<br>\n<br>\n&lt;b&gt;", Linkifier.body("a\n\r\n<b>"));
+    }
+
+    @Test
+    void render_shouldStorePreviewAndBody() {
+        PostModel post = new PostModel();
+        post.setText("line https://a.ru\nnext");
+
+        new PostRenderer().render(post);
+
+        assertEquals("line <a href=\"https://a.ru\" target=\"_blank\">https://a.ru</a>\nnext", post.getTextPreview());
+        assertEquals("line <a href=\"https://a.ru\" target=\"_blank\">https://a.ru</a><br>\nnext", post.getBodyHtml());
+        assertEquals(PostRenderer.VERSION, post.getRenderVersion());
+    }
+}
@@ -0,0 +1,150 @@
+package ru.custom.blog.unit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockReset;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.service.ImageService;
+import ru.custom.blog.service.OrphanImageSweeper;
+import ru.custom.blog.storage.ImageVariants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {OrphanImageSweeper.class, ImageVariants.class, SimpleMeterRegistry.class},
+    properties = {"blog.images.sweeper.batch-size=2", "blog.images.sweeper.max-deletes-per-second=1000"})
+class OrphanImageSweeperTest {
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PostRepository postRepository;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private ImageService imageService;
+
+    @Autowired
+    private OrphanImageSweeper orphanImageSweeper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TempDir
+    Path tempDir;
+
+    private Path imagesDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imagesDir = Files.createDirectories(tempDir.resolve("images"));
+
+        doAnswer(invocation -> {
+            Files.deleteIfExists(Path.of(invocation.<String>getArgument(0)));
+            return true;
+        }).when(imageService).removeImage(anyString(), any());
+    }
+
+    @Test
+    void sweep_shouldDeleteOldUnreferencedFilesOnly() throws IOException {
+        Path referenced = oldFile(imagesDir.resolve("ab/cd/referenced.jpg"), 10);
+        Path orphan = oldFile(imagesDir.resolve("ab/cd/orphan.jpg"), 20);
+        Path fresh = Files.write(imagesDir.resolve("ab/cd/fresh.jpg"), new byte[30]);
+        Path variant = oldFile(imagesDir.resolve("ab/cd/referenced-300.jpg"), 40);
+        Path staleUpload = oldFile(imagesDir.resolve(".tmp/upload-1.part"), 50);
+        Path activeUpload = Files.write(imagesDir.resolve(".tmp/upload-2.part"), new byte[60]);
+
+        // Проверка вызова метода
+        referencing(referenced);
+
+        // Выполнение метода
+        double before = reclaimedBytes();
+        long reclaimed = orphanImageSweeper.sweep(imagesDir);
+
+        // Проверка вызовов
+        verify(imageService, times(1)).removeImage(eq(orphan.toString()), any());
+        verify(imageService, never()).removeImage(eq(variant.toString()), any());
+
+        assertEquals(70, reclaimed);
+        assertEquals(before + 70, reclaimedBytes());
+        assertTrue(Files.exists(referenced));
+        assertTrue(Files.exists(fresh));
+        assertTrue(Files.exists(variant));
+        assertTrue(Files.exists(activeUpload));
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(staleUpload));
+    }
+
+    @Test
+    void sweep_shouldCheckReferencesInBatches() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            oldFile(imagesDir.resolve("legacy-" + i + ".png"), 1);
+        }
+
+        // Проверка вызова метода
+        referencing();
+
+        // Выполнение метода
+        orphanImageSweeper.sweep(imagesDir);
+
+        // Проверка вызовов
+        verify(postRepository, times(3)).findReferencedImagePaths(argThat(paths -> paths.size() <= 2));
+        verify(imageService, times(5)).removeImage(anyString(), any());
+    }
+
+    @Test
+    void sweep_shouldKeepFileReferencedAfterBatchCheck() throws IOException {
+        Path adopted = oldFile(imagesDir.resolve("ab/cd/adopted.jpg"), 10);
+
+        // Проверка вызова метода
+        referencing();
+        when(postRepository.countByImagePath(adopted.toString())).thenReturn(1L);
+
+        // Выполнение метода
+        long reclaimed = orphanImageSweeper.sweep(imagesDir);
+
+        // Проверка вызовов
+        verify(imageService, never()).removeImage(anyString(), any());
+
+        assertEquals(0, reclaimed);
+        assertTrue(Files.exists(adopted));
+    }
+
+    @Test
+    void sweep_shouldIgnoreMissingDirectory() {
+        assertEquals(0, orphanImageSweeper.sweep(tempDir.resolve("missing")));
+
+        verifyNoInteractions(postRepository);
+    }
+
+    private void referencing(Path... paths) {
+        Set<String> referenced = Set.of(paths).stream().map(Path::toString).collect(Collectors.toSet());
+
+        when(postRepository.findReferencedImagePaths(anyCollection())).thenAnswer(invocation ->
+            invocation.<Collection<String>>getArgument(0).stream().filter(referenced::contains).collect(Collectors.toSet()));
+    }
+
+    private double reclaimedBytes() {
+        return meterRegistry.get("image.sweeper.reclaimed").counter().count();
+    }
+
+    private static Path oldFile(Path path, int size) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[size]);
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        return path;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockReset;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.service.PostCounts;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = PostCounts.class)
+class PostCountsTest {
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCounts postCounts;
+
+    @BeforeEach
+    void setUp() {
+        when(postRepository.getTotalCount()).thenReturn(3L);
+        when(postRepository.countByTags()).thenReturn(Map.of("tag1", 2L, "tag2", 1L));
+
+        postCounts.reload();
+    }
+
+    @Test
+    void reload_shouldSeedCountsFromRepository() {
+        // Проверка вызовов
+        verify(postRepository, times(1)).getTotalCount();
+        verify(postRepository, times(1)).countByTags();
+
+        assertEquals(3L, postCounts.total());
+        assertEquals(2L, postCounts.byTag("tag1"));
+        assertEquals(1L, postCounts.byTag("tag2"));
+        assertEquals(0L, postCounts.byTag("missing"));
+    }
+
+    @Test
+    void postAdded_shouldIncrementTotalAndTags() {
+        // Выполнение метода
+        postCounts.postAdded(List.of("tag1", "tag3"));
+
+        assertEquals(4L, postCounts.total());
+        assertEquals(3L, postCounts.byTag("tag1"));
+        assertEquals(1L, postCounts.byTag("tag3"));
+    }
+
+    @Test
+    void postRemoved_shouldDecrementTotalAndTags() {
+        // Выполнение метода
+        postCounts.postRemoved(List.of("tag1", "tag2"));
+
+        assertEquals(2L, postCounts.total());
+        assertEquals(1L, postCounts.byTag("tag1"));
+        assertEquals(0L, postCounts.byTag("tag2"));
+    }
+
+    @Test
+    void tagsChanged_shouldMoveCountsBetweenTags() {
+        // Выполнение метода
+        postCounts.tagsChanged(List.of("tag1", "tag2"), List.of("tag2", "tag3"));
+
+        assertEquals(3L, postCounts.total());
+        assertEquals(1L, postCounts.byTag("tag1"));
+        assertEquals(1L, postCounts.byTag("tag2"));
+        assertEquals(1L, postCounts.byTag("tag3"));
+    }
+}
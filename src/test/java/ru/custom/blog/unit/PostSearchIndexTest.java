@@ -0,0 +1,173 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockReset;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.repository.CommentRepository;
+import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.search.PostSearchIndex;
+import ru.custom.blog.search.SearchHits;
+import ru.custom.blog.search.SearchQuery;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = PostSearchIndex.class)
+class PostSearchIndexTest {
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PostRepository postRepository;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    private static final Long FIRST_ID = 1L;
+    private static final Long SECOND_ID = 2L;
+
+    @Test
+    void rebuild_shouldIndexPostsAndComments() {
+        PostModel first = createPost(FIRST_ID, "Spring", "jdbc template", List.of("java"));
+        PostModel second = createPost(SECOND_ID, "Kotlin", "coroutines", List.of("kotlin"));
+
+        // Проверка вызова метода
+        when(postRepository.findPageAfter(Long.MAX_VALUE, 1000)).thenReturn(List.of(second, first));
+        when(commentRepository.findByPostIds(List.of(SECOND_ID, FIRST_ID)))
+            .thenReturn(Map.of(FIRST_ID, List.of(new CommentModel(1L, FIRST_ID, "great article"))));
+
+        // Выполнение метода
+        int indexed = postSearchIndex.rebuild();
+
+        // Проверка вызовов
+        verify(postRepository, times(1)).findPageAfter(anyLong(), anyInt());
+
+        assertEquals(2, indexed);
+        assertEquals(List.of(FIRST_ID), search("jdbc").getPostIds());
+        assertEquals(List.of(FIRST_ID), search("great").getPostIds());
+        assertEquals(List.of(SECOND_ID), search("#kotlin").getPostIds());
+        assertEquals(List.of(FIRST_ID), search("spring #java").getPostIds());
+    }
+
+    @Test
+    void rebuild_shouldReplayWritesMadeDuringBuild() {
+        PostModel post = createPost(FIRST_ID, "Spring", "jdbc", List.of());
+        CommentModel comment = new CommentModel(1L, FIRST_ID, "late");
+
+        // Проверка вызова метода
+        when(postRepository.findPageAfter(Long.MAX_VALUE, 1000)).thenAnswer(invocation -> {
+            postSearchIndex.write(FIRST_ID, () -> postSearchIndex.addComment(comment));
+            return List.of(post);
+        });
+        when(postRepository.findPostById(FIRST_ID)).thenReturn(Optional.of(post));
+        when(commentRepository.findByPostId(FIRST_ID)).thenReturn(List.of(comment));
+
+        // Выполнение метода
+        postSearchIndex.rebuild();
+
+        // Проверка вызовов
+        verify(postRepository, times(1)).findPostById(FIRST_ID);
+        verify(commentRepository, times(1)).findByPostId(FIRST_ID);
+
+        assertEquals(List.of(FIRST_ID), search("late jdbc").getPostIds());
+    }
+
+    @Test
+    void rebuild_shouldDropPostDeletedDuringBuild() {
+        PostModel post = createPost(FIRST_ID, "Spring", "jdbc", List.of());
+
+        // Проверка вызова метода
+        when(postRepository.findPageAfter(Long.MAX_VALUE, 1000)).thenAnswer(invocation -> {
+            postSearchIndex.removePost(FIRST_ID);
+            return List.of(post);
+        });
+        when(postRepository.findPostById(FIRST_ID)).thenReturn(Optional.empty());
+
+        // Выполнение метода
+        int indexed = postSearchIndex.rebuild();
+
+        assertEquals(0, indexed);
+        assertTrue(search("jdbc").getPostIds().isEmpty());
+    }
+
+    @Test
+    void search_shouldMatchTagsCaseSensitively() {
+        postSearchIndex.indexPost(createPost(FIRST_ID, "Spring", "jdbc", List.of("Java")), List.of());
+
+        assertEquals(List.of(FIRST_ID), search("spring #Java").getPostIds());
+        assertTrue(search("spring #java").getPostIds().isEmpty());
+    }
+
+    @Test
+    void addComment_shouldIndexCommentWithoutReloadingPost() {
+        postSearchIndex.indexPost(createPost(FIRST_ID, "Spring", "jdbc", List.of()), List.of());
+
+        // Выполнение метода
+        postSearchIndex.addComment(new CommentModel(1L, FIRST_ID, "thanks"));
+
+        // Проверка вызовов
+        verifyNoInteractions(postRepository, commentRepository);
+
+        assertEquals(List.of(FIRST_ID), search("thanks jdbc").getPostIds());
+    }
+
+    @Test
+    void removeComment_shouldKeepTermsUsedElsewhere() {
+        CommentModel first = new CommentModel(1L, FIRST_ID, "great jdbc");
+        CommentModel second = new CommentModel(2L, FIRST_ID, "great");
+        postSearchIndex.indexPost(createPost(FIRST_ID, "Spring", "text", List.of()), List.of(first, second));
+
+        // Выполнение метода
+        postSearchIndex.removeComment(first);
+
+        assertTrue(search("jdbc").getPostIds().isEmpty());
+        assertEquals(List.of(FIRST_ID), search("great").getPostIds());
+    }
+
+    @Test
+    void editComment_shouldReplaceCommentTerms() {
+        CommentModel previous = new CommentModel(1L, FIRST_ID, "before");
+        postSearchIndex.indexPost(createPost(FIRST_ID, "Spring", "jdbc", List.of()), List.of(previous));
+
+        // Выполнение метода
+        postSearchIndex.editComment(previous, new CommentModel(1L, FIRST_ID, "after"));
+
+        assertTrue(search("before").getPostIds().isEmpty());
+        assertEquals(List.of(FIRST_ID), search("after").getPostIds());
+    }
+
+    @Test
+    void updatePost_shouldKeepCommentTerms() {
+        PostModel previous = createPost(FIRST_ID, "Spring", "jdbc", List.of("java"));
+        postSearchIndex.indexPost(previous, List.of(new CommentModel(1L, FIRST_ID, "thanks")));
+
+        // Выполнение метода
+        postSearchIndex.updatePost(previous, createPost(FIRST_ID, "Spring", "jpa", List.of("kotlin")));
+
+        assertTrue(search("jdbc").getPostIds().isEmpty());
+        assertTrue(search("#java").getPostIds().isEmpty());
+        assertEquals(List.of(FIRST_ID), search("jpa thanks #kotlin").getPostIds());
+    }
+
+    private SearchHits search(String query) {
+        return postSearchIndex.search(SearchQuery.parse(query), 0, 10);
+    }
+
+    private PostModel createPost(Long id, String title, String text, List<String> tags) {
+        PostModel post = new PostModel();
+        post.setId(id);
+        post.setTitle(title);
+        post.setText(text);
+        post.setTags(tags);
+
+        return post;
+    }
+}
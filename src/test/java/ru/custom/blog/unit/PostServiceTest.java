@@ -1,6 +1,8 @@
 package ru.custom.blog.unit;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -8,16 +10,24 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockReset;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.web.multipart.MultipartFile;
-import ru.custom.blog.model.CommentModel;
+import ru.custom.blog.cache.FeedCache;
 import ru.custom.blog.model.PostModel;
+import ru.custom.blog.model.PostSummary;
+import ru.custom.blog.render.PostRenderer;
 import ru.custom.blog.repository.PostRepository;
+import ru.custom.blog.search.PostSearchIndex;
+import ru.custom.blog.search.SearchHits;
+import ru.custom.blog.search.SearchPage;
 import ru.custom.blog.service.CommentService;
 import ru.custom.blog.service.ImageService;
+import ru.custom.blog.service.LikeAggregator;
+import ru.custom.blog.service.PostCounts;
 import ru.custom.blog.service.PostService;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +43,21 @@ class PostServiceTest {
     @MockitoBean(reset = MockReset.BEFORE)
     private CommentService commentService;
 
+    @MockitoBean(reset = MockReset.BEFORE)
+    private LikeAggregator likeAggregator;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PostCounts postCounts;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PostSearchIndex postSearchIndex;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private FeedCache feedCache;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PostRenderer postRenderer;
+
     @Autowired
     private PostService postService;
 
@@ -41,16 +66,42 @@ class PostServiceTest {
     private static final Long FIRST_ID = 1L;
     private static final Long SECOND_ID = 2L;
 
+    @BeforeEach
+    void setUp() {
+        when(likeAggregator.read(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(postSearchIndex).write(any(), any());
+    }
+
     @Test
     void getTotalPostsCount_success() {
         // Проверка вызова метода
-        when(postRepository.getTotalCount()).thenReturn(FIRST_ID);
+        when(postCounts.total()).thenReturn(3L);
 
         // Выполнение метода
-        postService.getTotalPostsCount();
+        long count = postService.getTotalPostsCount();
 
         // Проверка вызовов
-        verify(postRepository, times(1)).getTotalCount();
+        verify(postCounts, times(1)).total();
+        verify(postRepository, never()).getTotalCount();
+
+        assertEquals(3L, count);
+    }
+
+    @Test
+    void getTaggedPostsCount_success() {
+        // Проверка вызова метода
+        when(postCounts.byTag("tag")).thenReturn(2L);
+
+        // Выполнение метода
+        long count = postService.getTaggedPostsCount("tag");
+
+        // Проверка вызовов
+        verify(postCounts, times(1)).byTag("tag");
+
+        assertEquals(2L, count);
     }
 
     @Test
@@ -67,25 +118,117 @@ class PostServiceTest {
         Long result = postService.savePost(mockPostModel, mockFile, basePath);
 
         // Проверка вызовов
+        InOrder inOrder = inOrder(postRenderer, postRepository);
+
         assertEquals(FIRST_ID, result);
-        verify(postRepository, times(1)).save(any(PostModel.class));
+        inOrder.verify(postRenderer, times(1)).render(mockPostModel);
+        inOrder.verify(postRepository, times(1)).save(any(PostModel.class));
         verify(imageService, times(1)).saveImage(mockFile, basePath);
+        verify(imageService, times(1)).recordImage(FIRST_ID, IMAGE_NAME);
+        verify(imageService, times(1)).generateVariants(IMAGE_NAME);
+        verify(postCounts, times(1)).postAdded(mockPostModel.getDistinctTags());
+        verify(postSearchIndex, times(1)).indexPost(mockPostModel, List.of());
+        verify(feedCache, times(1)).invalidate();
+    }
+
+    @Test
+    void insertPost_shouldNotPublishBeforeImageIsAttached() {
+        PostModel post = new PostModel();
+
+        // Проверка вызова метода
+        when(postRepository.save(post)).thenReturn(FIRST_ID);
+
+        // Выполнение метода
+        Long result = postService.insertPost(post);
+
+        // Проверка вызовов
+        verify(postRenderer, times(1)).render(post);
+        verify(postCounts, never()).postAdded(anyCollection());
+        verify(feedCache, never()).invalidate();
+
+        assertEquals(FIRST_ID, result);
+        assertEquals(FIRST_ID, post.getId());
+        assertEquals("", post.getImagePath());
+        assertFalse(post.isPublished());
+    }
+
+    @Test
+    void attachImage_shouldPublishPost() {
+        PostModel post = new PostModel();
+        post.setId(FIRST_ID);
+        post.setTags(List.of("tag"));
+
+        // Выполнение метода
+        postService.attachImage(post, IMAGE_NAME);
+
+        // Проверка вызовов
+        InOrder inOrder = inOrder(postRepository, imageService, feedCache);
+        inOrder.verify(postRepository).publish(FIRST_ID, IMAGE_NAME);
+        inOrder.verify(imageService).recordImage(FIRST_ID, IMAGE_NAME);
+        inOrder.verify(feedCache).invalidate();
+
+        verify(imageService, times(1)).generateVariants(IMAGE_NAME);
+        verify(postCounts, times(1)).postAdded(List.of("tag"));
+        verify(postSearchIndex, times(1)).indexPost(post, List.of());
+    }
+
+    @Test
+    void discardPost_shouldDeleteWithoutTouchingCounts() {
+        // Выполнение метода
+        postService.discardPost(FIRST_ID);
+
+        // Проверка вызовов
+        verify(postRepository, times(1)).deleteById(FIRST_ID);
+        verify(postCounts, never()).postRemoved(anyCollection());
+    }
+
+    @Test
+    void savePosts_shouldInsertOneBatch() {
+        PostModel first = new PostModel();
+        first.setTags(List.of("init"));
+        first.setImagePath(IMAGE_NAME);
+        PostModel second = new PostModel();
+        second.setTags(List.of("init"));
+        second.setImagePath(IMAGE_NAME);
+
+        // Проверка вызова метода
+        when(postRepository.saveAll(List.of(first, second))).thenReturn(List.of(FIRST_ID, SECOND_ID));
+
+        // Выполнение метода
+        postService.savePosts(List.of(first, second));
+
+        // Проверка вызовов
+        verify(postRepository, times(1)).saveAll(List.of(first, second));
+        verify(postRepository, never()).save(any(PostModel.class));
+        verify(postRenderer, times(2)).render(any(PostModel.class));
+        verify(postCounts, times(2)).postAdded(List.of("init"));
+        verify(imageService, times(1)).recordImages(Map.of(FIRST_ID, IMAGE_NAME, SECOND_ID, IMAGE_NAME));
+        verify(feedCache, times(1)).invalidate();
+
+        assertEquals(FIRST_ID, first.getId());
+        assertEquals(SECOND_ID, second.getId());
     }
 
     @Test
     void editPost_success() {
         PostModel mockPostModel = new PostModel();
         mockPostModel.setId(FIRST_ID);
+        mockPostModel.setTags(List.of("new"));
 
         MultipartFile mockFile = createMultipart();
         String basePath = "/tmp";
         String expectedPath = IMAGE_NAME;
 
+        PostModel previousPost = new PostModel();
+        previousPost.setId(FIRST_ID);
+        previousPost.setTags(List.of("old"));
+
         // Проверка вызова метода
         doNothing().when(postRepository).update(any(PostModel.class));
+        when(postRepository.findPostById(FIRST_ID)).thenReturn(Optional.of(previousPost));
+        when(postRepository.findTagsById(FIRST_ID)).thenReturn(List.of("old"));
         when(postRepository.findImageById(mockPostModel.getId())).thenReturn(Optional.of(expectedPath));
         when(imageService.saveImage(mockFile, basePath)).thenReturn(expectedPath);
-        doNothing().when(imageService).removeImage(expectedPath);
 
         // Выполнение метода
         postService.editPost(mockPostModel, mockFile, basePath);
@@ -93,82 +236,170 @@ class PostServiceTest {
         // Проверка вызовов
         verify(postRepository, times(1)).findImageById(anyLong());
         verify(postRepository, times(1)).update(any(PostModel.class));
-        verify(imageService, times(1)).removeImage(expectedPath);
+        verify(postRenderer, times(1)).render(mockPostModel);
+        verify(imageService, never()).releaseImage(anyString());
+        verify(imageService, never()).recordImage(anyLong(), anyString());
+        verify(imageService, never()).generateVariants(anyString());
         verify(imageService, times(1)).saveImage(mockFile, basePath);
+        verify(postCounts, times(1)).tagsChanged(List.of("old"), List.of("new"));
+        verify(postSearchIndex, times(1)).updatePost(previousPost, mockPostModel);
+        verify(postSearchIndex, never()).indexPost(any(), anyList());
+        verifyNoInteractions(commentService);
+    }
+
+    @Test
+    void editPost_shouldReleaseReplacedImage() {
+        PostModel mockPostModel = new PostModel();
+        mockPostModel.setId(FIRST_ID);
+
+        MultipartFile mockFile = createMultipart();
+        String basePath = "/tmp";
+        String newPath = "/images/ab/cd/abcd.png";
+
+        // Проверка вызова метода
+        when(postRepository.findTagsById(FIRST_ID)).thenReturn(List.of());
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(IMAGE_NAME));
+        when(imageService.saveImage(mockFile, basePath)).thenReturn(newPath);
+
+        // Выполнение метода
+        postService.editPost(mockPostModel, mockFile, basePath);
+
+        // Проверка вызовов
+        InOrder inOrder = inOrder(postRepository, imageService);
+        inOrder.verify(postRepository).update(mockPostModel);
+        inOrder.verify(imageService).recordImage(FIRST_ID, newPath);
+        inOrder.verify(imageService).releaseImage(IMAGE_NAME);
+        verify(imageService, times(1)).generateVariants(newPath);
+        assertEquals(newPath, mockPostModel.getImagePath());
     }
 
     @Test
     void getPage_success() {
-        PostModel firstMockPost = new PostModel();
+        PostSummary firstMockPost = new PostSummary();
         firstMockPost.setId(FIRST_ID);
-        firstMockPost.setComments(new ArrayList<>());
 
-        PostModel secondMockPost = new PostModel();
+        PostSummary secondMockPost = new PostSummary();
         secondMockPost.setId(SECOND_ID);
-        secondMockPost.setComments(new ArrayList<>());
+        secondMockPost.setCommentsCount(1);
+
+        // Проверка вызова метода
+        when(postRepository.findSummaryPage(10, 0)).thenReturn(List.of(firstMockPost, secondMockPost));
 
-        String mockText = "test text";
+        // Выполнение метода
+        List<PostSummary> posts = postService.getPage(1, 10);
+
+        // Проверка вызовов
+        verify(postRepository, times(1)).findSummaryPage(10, 0);
+        verify(postRepository, never()).findPageAfter(anyLong(), anyInt());
+        verifyNoInteractions(feedCache);
+        verifyNoInteractions(commentService);
+
+        assertEquals(List.of(firstMockPost, secondMockPost), posts);
+    }
 
-        CommentModel mockResponseComment = new CommentModel();
-        mockResponseComment.setId(FIRST_ID);
-        mockResponseComment.setPostId(secondMockPost.getId());
-        mockResponseComment.setText(mockText);
+    @Test
+    void getPageAfter_success() {
+        PostSummary mockPost = new PostSummary();
+        mockPost.setId(FIRST_ID);
 
         // Проверка вызова метода
-        when(postRepository.findPage(10, 0)).thenReturn(List.of(firstMockPost, secondMockPost));
-        when(commentService.getByPostId(firstMockPost.getId())).thenReturn(new ArrayList<>());
-        when(commentService.getByPostId(secondMockPost.getId())).thenReturn(List.of(mockResponseComment));
+        when(postRepository.findSummaryPageAfter(SECOND_ID, 10)).thenReturn(List.of(mockPost));
 
         // Выполнение метода
-        List<PostModel> posts = postService.getPage(1, 10);
+        List<PostSummary> posts = postService.getPageAfter(SECOND_ID, 10);
+
+        // Проверка вызовов
+        verify(postRepository, times(1)).findSummaryPageAfter(SECOND_ID, 10);
+        verify(postRepository, never()).findSummaryPage(anyInt(), anyInt());
+        verifyNoInteractions(commentService);
+
+        assertEquals(List.of(mockPost), posts);
+    }
 
-        secondMockPost.setComments(List.of(mockResponseComment));
+    @Test
+    void getPageBefore_success() {
+        PostSummary mockPost = new PostSummary();
+        mockPost.setId(SECOND_ID);
+
+        // Проверка вызова метода
+        when(postRepository.findSummaryPageBefore(FIRST_ID, 10)).thenReturn(List.of(mockPost));
+
+        // Выполнение метода
+        List<PostSummary> posts = postService.getPageBefore(FIRST_ID, 10);
 
         // Проверка вызовов
-        verify(postRepository, times(1)).findPage(10, 0);
-        verify(commentService, times(2)).getByPostId(anyLong());
+        verify(postRepository, times(1)).findSummaryPageBefore(FIRST_ID, 10);
+        verifyNoInteractions(commentService);
 
-        assertEquals(2, posts.size());
-        assertTrue(posts.contains(firstMockPost));
-        assertTrue(posts.contains(secondMockPost));
+        assertEquals(List.of(mockPost), posts);
     }
 
     @Test
     void getPageByTag_success() {
-        PostModel firstMockPost = new PostModel();
+        PostSummary firstMockPost = new PostSummary();
         firstMockPost.setId(FIRST_ID);
-        firstMockPost.setComments(new ArrayList<>());
 
-        PostModel secondMockPost = new PostModel();
+        PostSummary secondMockPost = new PostSummary();
         secondMockPost.setId(SECOND_ID);
-        secondMockPost.setComments(new ArrayList<>());
-
-        String mockText = "test text";
-
-        CommentModel mockResponseComment = new CommentModel();
-        mockResponseComment.setId(FIRST_ID);
-        mockResponseComment.setPostId(secondMockPost.getId());
-        mockResponseComment.setText(mockText);
 
         // Проверка вызова метода
-        when(postRepository.findPageByTag("tag", 10, 0)).thenReturn(List.of(firstMockPost, secondMockPost));
-        when(commentService.getByPostId(firstMockPost.getId())).thenReturn(new ArrayList<>());
-        when(commentService.getByPostId(secondMockPost.getId())).thenReturn(List.of(mockResponseComment));
+        when(postRepository.findSummaryPageByTag("tag", 10, 10)).thenReturn(List.of(firstMockPost, secondMockPost));
 
         // Выполнение метода
-        List<PostModel> posts = postService.getPageByTag("tag", 10);
-
-        secondMockPost.setComments(List.of(mockResponseComment));
+        List<PostSummary> posts = postService.getPageByTag("tag", 2, 10);
 
         // Проверка вызовов
-        verify(postRepository, times(1)).findPageByTag(anyString(), anyInt(), anyInt());
-        verify(commentService, times(2)).getByPostId(anyLong());
+        verify(postRepository, times(1)).findSummaryPageByTag("tag", 10, 10);
+        verifyNoInteractions(commentService);
 
         assertEquals(2, posts.size());
         assertTrue(posts.contains(firstMockPost));
         assertTrue(posts.contains(secondMockPost));
     }
 
+    @Test
+    void search_shouldUseTagIndexForSingleTag() {
+        PostSummary mockPost = new PostSummary();
+        mockPost.setId(FIRST_ID);
+
+        // Проверка вызова метода
+        when(postRepository.findSummaryPageByTag("tag", 10, 0)).thenReturn(List.of(mockPost));
+        when(postCounts.byTag("tag")).thenReturn(1L);
+
+        // Выполнение метода
+        SearchPage page = postService.search("#tag", 1, 10);
+
+        // Проверка вызовов
+        verify(postRepository, times(1)).findSummaryPageByTag("tag", 10, 0);
+        verifyNoInteractions(postSearchIndex);
+
+        assertEquals(List.of(mockPost), page.getPosts());
+        assertEquals(1L, page.getTotal());
+    }
+
+    @Test
+    void search_shouldKeepRankOrder() {
+        PostSummary firstMockPost = new PostSummary();
+        firstMockPost.setId(FIRST_ID);
+
+        PostSummary secondMockPost = new PostSummary();
+        secondMockPost.setId(SECOND_ID);
+
+        // Проверка вызова метода
+        when(postSearchIndex.search(any(), eq(10), eq(10))).thenReturn(new SearchHits(List.of(SECOND_ID, FIRST_ID), 12));
+        when(postRepository.findSummariesByIds(List.of(SECOND_ID, FIRST_ID))).thenReturn(List.of(firstMockPost, secondMockPost));
+
+        // Выполнение метода
+        SearchPage page = postService.search("spring #java", 2, 10);
+
+        // Проверка вызовов
+        verify(postSearchIndex, times(1)).search(any(), eq(10), eq(10));
+        verify(postRepository, never()).findSummaryPageByTag(anyString(), anyInt(), anyInt());
+
+        assertEquals(List.of(secondMockPost, firstMockPost), page.getPosts());
+        assertEquals(12L, page.getTotal());
+    }
+
     @Test
     void getPost_successWhenPostExists() {
         PostModel mockPost = new PostModel();
@@ -176,56 +407,168 @@ class PostServiceTest {
 
         // Проверка вызова метода
         when(postRepository.findPostById(mockPost.getId())).thenReturn(Optional.of(mockPost));
-        when(commentService.getByPostId(mockPost.getId())).thenReturn(new ArrayList<>());
 
         // Выполнение метода
         PostModel post = postService.getPost(mockPost.getId());
 
         // Проверка вызовов
         verify(postRepository, times(1)).findPostById(anyLong());
-        verify(commentService, times(1)).getByPostId(anyLong());
+        verify(commentService, never()).getByPostId(anyLong());
         assertEquals(mockPost, post);
     }
 
+    @Test
+    void getPost_shouldRenderStalePostOnRead() {
+        PostModel stalePost = new PostModel();
+        stalePost.setId(FIRST_ID);
+        stalePost.setRenderVersion(0);
+
+        PostModel renderedPost = new PostModel();
+        renderedPost.setId(SECOND_ID);
+        renderedPost.setRenderVersion(PostRenderer.VERSION);
+
+        // Проверка вызова метода
+        when(postRepository.findPostById(FIRST_ID)).thenReturn(Optional.of(stalePost));
+        when(postRepository.findPostById(SECOND_ID)).thenReturn(Optional.of(renderedPost));
+
+        // Выполнение метода
+        postService.getPost(FIRST_ID);
+        postService.getPost(SECOND_ID);
+
+        // Проверка вызовов
+        verify(postRenderer, times(1)).render(stalePost);
+        verify(postRenderer, never()).render(renderedPost);
+        verify(postRepository, never()).update(any());
+    }
+
     @Test
     void getPost_emptyWhenPostDoesNotExists() {
         PostModel mockPost = new PostModel();
 
         // Проверка вызова метода
         when(postRepository.findPostById(FIRST_ID)).thenReturn(Optional.empty());
-        when(commentService.getByPostId(mockPost.getId())).thenReturn(new ArrayList<>());
 
         // Выполнение метода
         PostModel post = postService.getPost(FIRST_ID);
 
         // Проверка вызовов
         verify(postRepository, times(1)).findPostById(anyLong());
-        verify(commentService, times(1)).getByPostId(null);
+        verify(commentService, never()).getByPostId(any());
         assertEquals(mockPost, post);
     }
 
     @Test
     void updateLikesCount_increment() {
         // Проверка вызова метода
-        doNothing().when(postRepository).incrementLikesCount(FIRST_ID);
+        when(postRepository.existsById(FIRST_ID)).thenReturn(true);
+        doNothing().when(likeAggregator).add(FIRST_ID, 1);
 
         // Выполнение метода
         postService.updateLikesCount(FIRST_ID, true);
 
         // Проверка вызовов
-        verify(postRepository, times(1)).incrementLikesCount(anyLong());
+        verify(likeAggregator, times(1)).add(FIRST_ID, 1);
+        verify(postRepository, never()).findPostById(any());
+        verifyNoInteractions(feedCache);
     }
 
     @Test
     void updateLikesCount_decrement() {
         // Проверка вызова метода
-        doNothing().when(postRepository).decrementLikesCount(FIRST_ID);
+        when(postRepository.existsById(FIRST_ID)).thenReturn(true);
+        doNothing().when(likeAggregator).add(FIRST_ID, -1);
 
         // Выполнение метода
         postService.updateLikesCount(FIRST_ID, false);
 
         // Проверка вызовов
-        verify(postRepository, times(1)).decrementLikesCount(anyLong());
+        verify(likeAggregator, times(1)).add(FIRST_ID, -1);
+    }
+
+    @Test
+    void updateLikesCount_shouldIgnoreMissingPost() {
+        // Проверка вызова метода
+        when(postRepository.existsById(FIRST_ID)).thenReturn(false);
+
+        // Выполнение метода
+        postService.updateLikesCount(FIRST_ID, true);
+
+        // Проверка вызовов
+        verify(likeAggregator, never()).add(anyLong(), anyLong());
+        verifyNoInteractions(feedCache);
+    }
+
+    @Test
+    void getPost_shouldOverlayPendingLikes() {
+        PostModel mockPost = new PostModel();
+        mockPost.setId(FIRST_ID);
+        mockPost.setLikesCount(3);
+
+        // Проверка вызова метода
+        when(postRepository.findPostById(FIRST_ID)).thenReturn(Optional.of(mockPost));
+        when(likeAggregator.pendingDelta(FIRST_ID)).thenReturn(2L);
+
+        // Выполнение метода
+        PostModel post = postService.getPost(FIRST_ID);
+
+        // Проверка вызовов
+        verify(likeAggregator, times(1)).pendingDelta(FIRST_ID);
+
+        assertEquals(5, post.getLikesCount());
+    }
+
+    @Test
+    void getPage_shouldOverlayPendingLikes() {
+        PostSummary mockPost = new PostSummary();
+        mockPost.setId(FIRST_ID);
+        mockPost.setLikesCount(3);
+
+        // Проверка вызова метода
+        when(postRepository.findSummaryPage(10, 0)).thenReturn(List.of(mockPost));
+        when(likeAggregator.pendingDelta(FIRST_ID)).thenReturn(-1L);
+
+        // Выполнение метода
+        List<PostSummary> posts = postService.getPage(1, 10);
+
+        // Проверка вызовов
+        verify(likeAggregator, times(1)).pendingDelta(FIRST_ID);
+
+        assertEquals(2, posts.get(0).getLikesCount());
+    }
+
+    @Test
+    void deletePost_shouldDecrementCounts() {
+        // Проверка вызова метода
+        when(postRepository.findTagsById(FIRST_ID)).thenReturn(List.of("tag"));
+        when(postRepository.findImageById(FIRST_ID)).thenReturn(Optional.of(IMAGE_NAME));
+        when(postRepository.deleteById(FIRST_ID)).thenReturn(true);
+
+        // Выполнение метода
+        postService.deletePost(FIRST_ID);
+
+        // Проверка вызовов
+        InOrder inOrder = inOrder(imageService, postRepository);
+        inOrder.verify(imageService).forgetImage(FIRST_ID);
+        inOrder.verify(postRepository).deleteById(FIRST_ID);
+
+        verify(commentService, times(1)).deleteAllPostComments(FIRST_ID);
+        verify(imageService, times(1)).releaseImage(IMAGE_NAME);
+        verify(postCounts, times(1)).postRemoved(List.of("tag"));
+        verify(postSearchIndex, times(1)).removePost(FIRST_ID);
+        verify(feedCache, times(1)).invalidate();
+    }
+
+    @Test
+    void deletePost_shouldKeepCountsWhenPostMissing() {
+        // Проверка вызова метода
+        when(postRepository.findTagsById(FIRST_ID)).thenReturn(List.of());
+        when(postRepository.deleteById(FIRST_ID)).thenReturn(false);
+
+        // Выполнение метода
+        postService.deletePost(FIRST_ID);
+
+        // Проверка вызовов
+        verify(postCounts, never()).postRemoved(anyCollection());
     }
 
     private MockMultipartFile createMultipart() {
@@ -0,0 +1,68 @@
+package ru.custom.blog.unit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockReset;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.custom.blog.cache.FeedCache;
+import ru.custom.blog.model.PostModel;
+import ru.custom.blog.render.PostRenderer;
+import ru.custom.blog.render.RerenderJob;
+import ru.custom.blog.repository.PostRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {RerenderJob.class, PostRenderer.class})
+class RerenderJobTest {
+    @MockitoBean(reset = MockReset.BEFORE)
+    private PostRepository postRepository;
+
+    @MockitoBean(reset = MockReset.BEFORE)
+    private FeedCache feedCache;
+
+    @Autowired
+    private RerenderJob rerenderJob;
+
+    private static final Long FIRST_ID = 1L;
+
+    @Test
+    void rerenderStale_shouldRenderAndStoreBatch() {
+        PostModel post = new PostModel();
+        post.setId(FIRST_ID);
+        post.setText("see https://a.ru");
+
+        // Проверка вызова метода
+        when(postRepository.findStaleRenders(eq(PostRenderer.VERSION), anyInt())).thenReturn(List.of(post));
+        when(postRepository.updateRendered(List.of(post))).thenReturn(1);
+
+        // Выполнение метода
+        int updated = rerenderJob.rerenderStale();
+
+        // Проверка вызовов
+        verify(postRepository, times(1)).updateRendered(List.of(post));
+        verify(feedCache, times(1)).invalidate();
+
+        assertEquals(1, updated);
+        assertEquals(PostRenderer.VERSION, post.getRenderVersion());
+        assertEquals("see <a href=\"https://a.ru\" target=\"_blank\">https://a.ru</a>", post.getBodyHtml());
+    }
+
+    @Test
+    void rerenderStale_shouldSkipWhenNothingIsStale() {
+        // Проверка вызова метода
+        when(postRepository.findStaleRenders(eq(PostRenderer.VERSION), anyInt())).thenReturn(List.of());
+
+        // Выполнение метода
+        int updated = rerenderJob.rerenderStale();
+
+        // Проверка вызовов
+        verify(postRepository, never()).updateRendered(anyList());
+        verify(feedCache, never()).invalidate();
+
+        assertEquals(0, updated);
+    }
+}
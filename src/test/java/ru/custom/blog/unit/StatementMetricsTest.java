@@ -0,0 +1,70 @@
+package ru.custom.blog.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.custom.blog.jdbc.SqlStatementNames;
+import ru.custom.blog.jdbc.StatementMetrics;
+import ru.custom.blog.jdbc.StatementStats;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementMetricsTest {
+    private static final String POST_SELECT_AFTER = "JdbcNativePostRepository.SELECT_AFTER";
+
+    private static class Queries {
+        private static final String SELECT_ONE = "SELECT 1";
+        private static final String SELECT_TWO = "SELECT 2";
+        private static final int NOT_SQL = 3;
+    }
+
+    @Test
+    void nameOf_shouldResolveConstantNames() {
+        SqlStatementNames names = SqlStatementNames.of(Queries.class);
+
+        assertEquals("Queries.SELECT_ONE", names.nameOf("SELECT 1"));
+        assertEquals("Queries.SELECT_TWO", names.nameOf("SELECT 2"));
+        assertEquals(SqlStatementNames.OTHER, names.nameOf("SELECT 3"));
+        assertEquals(SqlStatementNames.OTHER, names.nameOf(null));
+    }
+
+    @Test
+    void nameOf_shouldKnowRepositoryStatements() {
+        StatementMetrics metrics = new StatementMetrics(new SimpleMeterRegistry(), 0);
+
+        assertEquals(POST_SELECT_AFTER, metrics.nameOf("""
+                                            SELECT 
+                                                id, title, text, image_path, likes_count, tags
+                                            FROM 
+                                                posts
+                                            WHERE 
+                                                id < ?
+                                            ORDER BY id DESC
+                                            LIMIT ?
+                                        """));
+        assertEquals("JdbcNativeImageRepository.DELETE_BY_POST", metrics.nameOf("DELETE FROM images WHERE post_id = ?"));
+    }
+
+    @Test
+    void snapshot_shouldAggregateTimingsRowsAndErrors() {
+        StatementMetrics metrics = new StatementMetrics(new SimpleMeterRegistry(), 0);
+
+        metrics.record(POST_SELECT_AFTER, TimeUnit.MILLISECONDS.toNanos(2), false);
+        metrics.record(POST_SELECT_AFTER, TimeUnit.MILLISECONDS.toNanos(4), true);
+        metrics.recordRows(POST_SELECT_AFTER, 10);
+        metrics.record("other", TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        Map<String, StatementStats> snapshot = metrics.snapshot();
+        StatementStats stats = snapshot.get(POST_SELECT_AFTER);
+
+        assertEquals(List.of(POST_SELECT_AFTER, "other"), List.copyOf(snapshot.keySet()));
+        assertEquals(2, stats.getCount());
+        assertEquals(1, stats.getErrors());
+        assertEquals(10, stats.getRows());
+        assertEquals(6.0, stats.getTotalMs(), 0.001);
+        assertTrue(stats.getP99Ms() > 0);
+    }
+}
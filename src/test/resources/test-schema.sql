@@ -1,13 +1,20 @@
+DROP TABLE IF EXISTS images;
+DROP TABLE IF EXISTS post_tags;
 DROP TABLE IF EXISTS comments;
 DROP TABLE IF EXISTS posts;
 
 CREATE TABLE IF NOT EXISTS posts(
     id BIGSERIAL PRIMARY KEY,
     title VARCHAR(256) NOT NULL,
-    text BLOB NOT NULL,
+    text CLOB NOT NULL,
     image_path VARCHAR(256) NOT NULL,
     likes_count INTEGER NOT NULL,
-    tags VARCHAR(500) NOT NULL
+    tags VARCHAR(500) NOT NULL,
+    preview VARCHAR(4000) DEFAULT '' NOT NULL,
+    comments_count INTEGER DEFAULT 0 NOT NULL,
+    body_html CLOB DEFAULT '' NOT NULL,
+    render_version INTEGER DEFAULT 0 NOT NULL,
+    published BOOLEAN DEFAULT TRUE NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS comments(
@@ -15,4 +22,34 @@ CREATE TABLE IF NOT EXISTS comments(
     post_id BIGINT NOT NULL,
     text VARCHAR(1000000000) NOT NULL,
     FOREIGN KEY (post_id) REFERENCES posts(id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS post_tags(
+    post_id BIGINT NOT NULL,
+    tag VARCHAR(500) NOT NULL,
+    PRIMARY KEY (tag, post_id),
+    FOREIGN KEY (post_id) REFERENCES posts(id)
+);
+
+CREATE INDEX IF NOT EXISTS comments_post_id_idx ON comments(post_id, id);
+
+CREATE INDEX IF NOT EXISTS post_tags_post_id_idx ON post_tags(post_id);
+
+CREATE INDEX IF NOT EXISTS posts_render_version_idx ON posts(render_version);
+
+CREATE INDEX IF NOT EXISTS posts_image_path_idx ON posts(image_path);
+
+CREATE TABLE IF NOT EXISTS images(
+    id BIGSERIAL PRIMARY KEY,
+    post_id BIGINT NOT NULL,
+    path VARCHAR(256) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    byte_size BIGINT NOT NULL,
+    width INTEGER,
+    height INTEGER,
+    hash VARCHAR(64),
+    mtime BIGINT NOT NULL,
+    FOREIGN KEY (post_id) REFERENCES posts(id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS images_post_id_idx ON images(post_id);
\ No newline at end of file